@@ -0,0 +1,62 @@
+package com.acme.bookmanagement.benchmark;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks offset pagination over the seeded catalog, by page depth, filter and sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookPaginationBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    /** Position of the requested page in the result, as a fraction of the seeded rows */
+    @Param({"0.0", "0.5", "0.99"})
+    public double depth;
+
+    /** Title filter; NONE for an unfiltered page */
+    @Param({"NONE", "title-1"})
+    public String titleFilter;
+
+    @Param({"NONE", "TITLE", "PUBLISHED_DATE"})
+    public String sortField;
+
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+        page = (int) (catalog.rows * depth / PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Book> findAllWithPagination(CatalogState catalog) {
+        return catalog.bookService.findAllWithPagination(
+                page,
+                PAGE_SIZE,
+                "NONE".equals(sortField) ? null : SortField.valueOf(sortField),
+                SortOrder.ASC,
+                "NONE".equals(titleFilter) ? null : titleFilter,
+                null);
+    }
+}
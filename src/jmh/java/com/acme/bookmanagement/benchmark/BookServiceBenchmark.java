@@ -0,0 +1,44 @@
+package com.acme.bookmanagement.benchmark;
+
+import com.acme.bookmanagement.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the single-book lookups, title search and save over the seeded catalog.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    // Random IDs over the whole catalog, so the entity cache sees a realistic miss rate
+    @Benchmark
+    public Optional<Book> findById(CatalogState catalog) {
+        return catalog.bookService.findById(catalog.firstId + ThreadLocalRandom.current().nextInt(catalog.rows));
+    }
+
+    // A selective substring that still has to scan every title
+    @Benchmark
+    public List<Book> findByTitleContaining(CatalogState catalog) {
+        return catalog.bookService.findByTitleContaining("title-" + ThreadLocalRandom.current().nextInt(catalog.rows) + "7");
+    }
+
+    @Benchmark
+    public Book save(CatalogState catalog) {
+        return catalog.bookService.save(new Book(null, "benchmark title", "benchmark author", LocalDate.of(2024, 1, 1)));
+    }
+}
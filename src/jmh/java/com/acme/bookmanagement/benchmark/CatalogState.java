@@ -0,0 +1,82 @@
+package com.acme.bookmanagement.benchmark;
+
+import com.acme.bookmanagement.BookManagementApplication;
+import com.acme.bookmanagement.service.BookService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Shared benchmark state: the application context on top of an in-memory H2 seeded with {@code rows} books.
+ * Seeded books have the ID {@code offset + n}, title {@code title-n}, author {@code author-(n % 1000)}
+ * and a publication date spread over about 55 years.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+    /** Number of seeded books; override with -PjmhRows=10000,1000000 */
+    @Param({"10000"})
+    public int rows;
+
+    public ConfigurableApplicationContext context;
+    public BookService bookService;
+
+    /** ID of the first seeded book; books from the data loader come before it */
+    public int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start();
+        bookService = context.getBean(BookService.class);
+        firstId = seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Starts the application without the web layer on an empty in-memory database.
+     * @param profiles Profiles to activate
+     * @return The started context
+     */
+    static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(BookManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "bookmanagement.r2dbc.url=r2dbc:pool:h2:mem:///benchmark?maxSize=10",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Inserts the benchmark books after the ones of the data loader.
+     * @param jdbcTemplate Template on the application's data source
+     * @param rows Number of books to insert
+     * @return ID of the first inserted book
+     */
+    static int seed(JdbcTemplate jdbcTemplate, int rows) {
+        Integer maxId = jdbcTemplate.queryForObject("select coalesce(max(\"id\"), 0) from \"book\"", Integer.class);
+        int firstId = maxId + 1;
+        // Generate the rows inside H2, which takes seconds even for millions of books
+        jdbcTemplate.update("""
+                insert into "book" ("id", "title", "author", "published_date", "description")
+                select cast(? as int) + X, 'title-' || X, 'author-' || mod(X, 1000),
+                       dateadd('DAY', mod(X, 20000), date '1970-01-01'), 'description of book ' || X
+                from system_range(0, cast(? as bigint) - 1)
+                """, firstId, rows);
+        jdbcTemplate.execute("alter sequence \"book_seq\" restart with " + (firstId + rows));
+        jdbcTemplate.execute("analyze");
+        return firstId;
+    }
+}
@@ -0,0 +1,109 @@
+package com.acme.bookmanagement.benchmark;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookPage;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.repository.BookRepository;
+import com.acme.bookmanagement.service.BookService;
+import com.acme.bookmanagement.service.ReactiveBookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the blocking JPA read path with the R2DBC one of the "reactive" profile, under 32 concurrent callers.
+ * SampleTime mode reports p99 latency; the peak number of live JVM threads is printed after each fork.
+ * Local only: H2's R2DBC driver runs the embedded engine on the calling thread, so this measures
+ * the overhead of the stacks rather than non-blocking I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ReadPathBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"jpa", "reactive"})
+    public String readPath;
+
+    /** Number of seeded books; override with -PjmhRows=10000,1000000 */
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookService bookService;
+    private ReactiveBookService reactiveBookService;
+    private int firstId;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "reactive".equals(readPath) ? CatalogState.start("reactive") : CatalogState.start();
+        firstId = CatalogState.seed(context.getBean(JdbcTemplate.class), rows);
+        bookRepository = context.getBean(BookRepository.class);
+        bookService = context.getBean(BookService.class);
+        if ("reactive".equals(readPath)) {
+            reactiveBookService = context.getBean(ReactiveBookService.class);
+        }
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s: peak live threads %d%n", readPath, threads.getPeakThreadCount());
+        context.close();
+    }
+
+    // The JPA side goes to the repository, bypassing the entity cache of BookService.findById
+    @Benchmark
+    public Optional<Book> findById() {
+        int id = firstId + ThreadLocalRandom.current().nextInt(rows);
+        return reactiveBookService != null ?
+                reactiveBookService.findById(id).blockOptional() :
+                bookRepository.findById(id);
+    }
+
+    // A 30 day window, through the repository for the same reason
+    @Benchmark
+    public List<Book> findByDateRange() {
+        LocalDate start = LocalDate.of(1970, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(20_000));
+        return reactiveBookService != null ?
+                reactiveBookService.findByDateRange(start, start.plusDays(30)).collectList().block() :
+                bookRepository.findByPublishedDateBetween(start, start.plusDays(30));
+    }
+
+    @Benchmark
+    public Object findAllWithPagination() {
+        int page = ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE);
+        return reactiveBookService != null ?
+                reactiveBookService.findAllWithPagination(page, PAGE_SIZE, SortField.TITLE, SortOrder.ASC, null, null)
+                        .map(BookPage::getContent).block() :
+                bookService.findAllWithPagination(page, PAGE_SIZE, SortField.TITLE, SortOrder.ASC, null, null);
+    }
+}
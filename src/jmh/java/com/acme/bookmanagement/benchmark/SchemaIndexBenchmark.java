@@ -0,0 +1,98 @@
+package com.acme.bookmanagement.benchmark;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the queries served by the secondary indexes of the book table, with and without them.
+ * The "none" variant drops the indexes of the V2 migration after seeding.
+ * The H2 query plan of every query is printed at the start of each fork, so the output shows
+ * which index (or table scan) was used next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SchemaIndexBenchmark {
+    private static final List<String> INDEXES = List.of(
+            "idx_book_published_date", "idx_book_title", "idx_book_author",
+            "idx_book_title_lower", "idx_book_author_lower");
+
+    private static final List<String> EXPLAINED = List.of(
+            "select * from \"book\" where \"published_date\" between date '2000-01-01' and date '2000-01-31'",
+            "select * from \"book\" order by \"title\", \"id\" limit 20",
+            "select * from \"book\" where \"title_lower\" like 'title-12%' order by \"title_lower\", \"id\" limit 20",
+            "select * from \"book\" where \"published_date\" > date '2000-01-01' order by \"published_date\", \"id\" limit 20");
+
+    @Param({"indexed", "none"})
+    public String indexes;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogState.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        CatalogState.seed(jdbcTemplate, rows);
+        if ("none".equals(indexes)) {
+            INDEXES.forEach(index -> jdbcTemplate.execute("drop index \"" + index + "\""));
+        }
+        System.out.printf("%nQuery plans (%s):%n", indexes);
+        for (String sql : EXPLAINED) {
+            System.out.println(jdbcTemplate.queryForObject("explain " + sql, String.class));
+        }
+        bookRepository = context.getBean(BookRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> findByPublishedDateBetween() {
+        LocalDate start = LocalDate.of(1970, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(20_000));
+        return bookRepository.findByPublishedDateBetween(start, start.plusDays(30));
+    }
+
+    // First page of a sort, as findAllWithPagination and the keyset queries issue it
+    @Benchmark
+    public Object firstPageSortedByTitle() {
+        return bookRepository.findAll(PageRequest.of(0, 20, Sort.by("title", "id")));
+    }
+
+    @Benchmark
+    public List<Book> findByTitlePrefix() {
+        return bookRepository.findByTitleLowerStartingWith(
+                "title-" + ThreadLocalRandom.current().nextInt(1000),
+                PageRequest.of(0, 20, Sort.by("titleLower", "id")));
+    }
+}
@@ -0,0 +1,134 @@
+package com.acme.bookmanagement.cache;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.CacheStatistics;
+import com.acme.bookmanagement.service.BookChangeListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link Book} entities keyed by ID.
+ * Uses Caffeine's W-TinyLFU eviction, so a small set of hot titles stays resident
+ * while one-off lookups do not flush it. The bound is expressed in estimated bytes
+ * rather than entries because descriptions vary between a few and 2000 characters.
+ * Entries are invalidated through {@link BookChangeListener} on every write.
+ */
+@Component
+public class BookCache implements BookChangeListener {
+    /** Name reported in the cache statistics */
+    public static final String NAME = "books";
+
+    /** Rough per-entry overhead of the Book object, its boxed ID, date and cache node */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Cache<Integer, Book> cache;
+
+    /** Number of invalidations so far, used to detect the ones that happened during a bulk load */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructs a new BookCache.
+     * @param maxWeightBytes Upper bound for the estimated size of all cached books
+     * @param ttl Time after which a cached book is reloaded even if it was not modified
+     */
+    public BookCache(@Value("${bookmanagement.cache.books.max-weight-bytes:67108864}") long maxWeightBytes,
+                     @Value("${bookmanagement.cache.books.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Integer id, Book book) -> estimateSize(book))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached book, loading and caching it on a miss.
+     * Books that do not exist are not cached.
+     * @param id The ID of the book
+     * @param loader Loads the book from the database on a miss
+     * @return Optional containing the book if found
+     */
+    public Optional<Book> get(Integer id, Function<Integer, Optional<Book>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Returns the cached books, loading all misses with a single call to the loader.
+     * Unlike a single load, the bulk load is not atomic with {@link #invalidate(Integer)}, so its books are
+     * only cached if no book was invalidated while it ran; otherwise they are returned without being cached.
+     * @param ids The IDs of the books
+     * @param loader Loads the missing books from the database, keyed by ID
+     * @return Map of the books found, keyed by ID
+     */
+    public Map<Integer, Book> getAll(Collection<Integer> ids,
+                                     Function<Set<? extends Integer>, Map<Integer, Book>> loader) {
+        Map<Integer, Book> books = new HashMap<>(cache.getAllPresent(ids));
+        Set<Integer> missing = new HashSet<>(ids);
+        missing.removeAll(books.keySet());
+        if (missing.isEmpty()) {
+            return books;
+        }
+        long generation = invalidations.get();
+        Map<Integer, Book> loaded = loader.apply(missing);
+        // Stores per key, so an invalidation either removes the stored book or has already changed the counter
+        loaded.forEach((id, book) -> cache.asMap().compute(id, (key, cached) ->
+                cached != null || invalidations.get() != generation ? cached : book));
+        books.putAll(loaded);
+        return books;
+    }
+
+    /**
+     * Removes a book from the cache. If a single load for the same ID is in flight,
+     * this waits for it and discards its (possibly stale) result; a bulk load in flight does not cache its result.
+     * @param id The ID of the book
+     */
+    public void invalidate(Integer id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    /**
+     * Gets the current hit/miss/eviction counters.
+     * @return Statistics snapshot
+     */
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(NAME, cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    @Override
+    public void onBookSaved(Book book) {
+        invalidate(book.getId());
+    }
+
+    @Override
+    public void onBookDeleted(Integer id) {
+        invalidate(id);
+    }
+
+    private static int estimateSize(Book book) {
+        return ENTRY_OVERHEAD_BYTES
+                + sizeOf(book.getTitle())
+                + sizeOf(book.getAuthor())
+                + sizeOf(book.getDescription())
+                + sizeOf(book.getImageUrl());
+    }
+
+    private static int sizeOf(String value) {
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+}
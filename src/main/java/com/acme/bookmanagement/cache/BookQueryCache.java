@@ -0,0 +1,88 @@
+package com.acme.bookmanagement.cache;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of list query results keyed on the query shape, e.g. sort field and order or a date range.
+ * Only the ordered book IDs are stored, as immutable int arrays tagged with the
+ * {@link CatalogVersion} they were computed at; any write makes every entry stale.
+ * Books are rehydrated from the entity cache on a hit, so the stored results stay
+ * small and the memory budget is spent on IDs rather than duplicate entities.
+ */
+@Component
+public class BookQueryCache {
+    /** Name reported in the cache statistics */
+    public static final String NAME = "queries";
+
+    /** Rough per-entry overhead of the key, array header and cache node */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final CatalogVersion catalogVersion;
+    private final Cache<Object, CachedResult> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new BookQueryCache.
+     * @param catalogVersion The version counter used to detect stale results
+     * @param maxWeightBytes Memory budget for all cached results
+     */
+    public BookQueryCache(CatalogVersion catalogVersion,
+                          @Value("${bookmanagement.cache.queries.max-weight-bytes:16777216}") long maxWeightBytes) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Object key, CachedResult result) -> ENTRY_OVERHEAD_BYTES + 4 * result.ids().length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the result of a list query, served from the cache if the catalog has not changed since it was computed.
+     * @param key The query shape; must implement equals and hashCode
+     * @param query Runs the query against the database on a miss
+     * @param hydrate Loads the books for a cached list of IDs, preserving their order
+     * @return The books returned by the query
+     */
+    public List<Book> get(Object key, Supplier<List<Book>> query, Function<List<Integer>, List<Book>> hydrate) {
+        // Read the version before querying, so a concurrent write leaves the entry stale rather than wrong
+        long version = catalogVersion.current();
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            return hydrate.apply(cached.idList());
+        }
+
+        misses.increment();
+        List<Book> books = query.get();
+        int[] ids = books.stream().mapToInt(Book::getId).toArray();
+        cache.put(key, new CachedResult(version, ids));
+        return books;
+    }
+
+    /**
+     * Gets the current hit/miss/eviction counters. Stale entries count as misses.
+     * @return Statistics snapshot
+     */
+    public CacheStatistics statistics() {
+        return new CacheStatistics(NAME, cache.estimatedSize(),
+                hits.sum(), misses.sum(), cache.stats().evictionCount());
+    }
+
+    private record CachedResult(long version, int[] ids) {
+        private List<Integer> idList() {
+            return Arrays.stream(ids).boxed().toList();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.acme.bookmanagement.cache;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.service.BookChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter identifying the current state of the catalog.
+ * Bumped after every write, so anything derived from the catalog can be tagged
+ * with the version it was computed at and treated as stale once the version moves on.
+ */
+@Component
+public class CatalogVersion implements BookChangeListener {
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Gets the current catalog version.
+     * @return The version, increasing with every write
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Moves the catalog to a new version.
+     * @return The new version
+     */
+    public long increment() {
+        return version.incrementAndGet();
+    }
+
+    @Override
+    public void onBookSaved(Book book) {
+        increment();
+    }
+
+    @Override
+    public void onBookDeleted(Integer id) {
+        increment();
+    }
+}
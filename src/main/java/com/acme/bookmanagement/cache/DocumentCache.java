@@ -0,0 +1,132 @@
+package com.acme.bookmanagement.cache;
+
+import com.acme.bookmanagement.model.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of parsed and validated GraphQL documents keyed by the SHA-256 hash of the query text.
+ * Installed as the {@link PreparsedDocumentProvider} of the schema, so a repeated operation skips
+ * parsing and validation and goes straight to execution.
+ * Also implements Automatic Persisted Queries: a request carrying only
+ * {@code extensions.persistedQuery.sha256Hash} is executed from the cache, and an unknown hash answers
+ * {@code PersistedQueryNotFound} so the client resends the query text along with the hash to register it.
+ * Both kinds of request share one key space, since the APQ hash is the hash of the query text.
+ */
+@Component
+public class DocumentCache implements PreparsedDocumentProvider, GraphQlSourceBuilderCustomizer {
+    /** Name reported in the cache statistics */
+    public static final String NAME = "documents";
+
+    private final Cache<String, PreparsedDocumentEntry> cache;
+    private final PersistedQuerySupport persistedQueries;
+
+    /**
+     * Constructs a new DocumentCache.
+     * @param maxSize Maximum number of cached documents
+     */
+    public DocumentCache(@Value("${bookmanagement.cache.documents.max-size:1000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.persistedQueries = new ApolloPersistedQuerySupport(new PersistedQueries());
+    }
+
+    @Override
+    public void customize(GraphQlSource.SchemaResourceBuilder builder) {
+        builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(this));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (executionInput.getExtensions().containsKey("persistedQuery")) {
+            return persistedQueries.getDocument(executionInput, parseAndValidateFunction);
+        }
+        return cache.get(hash(executionInput.getQuery()), key -> parseAndValidateFunction.apply(executionInput));
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidateFunction));
+    }
+
+    /**
+     * Gets the current hit/miss/eviction counters.
+     * @return Statistics snapshot
+     */
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(NAME, cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    /**
+     * Returns the parsed document of a query if it is cached, without counting a lookup.
+     * @param hash The hash of the query text, see {@link #hash}
+     * @return The document, or null if it is not cached or failed validation
+     */
+    public Document cachedDocument(String hash) {
+        PreparsedDocumentEntry entry = cache.asMap().get(hash);
+        return entry == null || entry.hasErrors() ? null : entry.getDocument();
+    }
+
+    /**
+     * Computes the key of a query the same way APQ clients compute their hash.
+     * @param query The query text
+     * @return Lowercase hex SHA-256 of the UTF-8 query text
+     */
+    public static String hash(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Looks persisted queries up in the document cache.
+     */
+    private class PersistedQueries implements PersistedQueryCache {
+        @Override
+        public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId, ExecutionInput executionInput,
+                                                                PersistedQueryCacheMiss onCacheMiss)
+                throws PersistedQueryNotFound {
+            String query = executionInput.getQuery();
+            if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+                PreparsedDocumentEntry entry = cache.getIfPresent(persistedQueryId.toString());
+                if (entry == null) {
+                    throw new PersistedQueryNotFound(persistedQueryId);
+                }
+                return entry;
+            }
+            // Registration is keyed on the text actually sent, so a wrong hash cannot shadow another query
+            return cache.get(hash(query), key -> onCacheMiss.apply(query));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.acme.bookmanagement.cache;
+
+import com.acme.bookmanagement.model.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of serialized GraphQL responses to read-only GET requests, keyed on the raw request parameters.
+ * Entries are tagged with the {@link CatalogVersion} they were computed at, like the {@link BookQueryCache},
+ * so any write through the BookService makes every entry stale without touching the cache.
+ * The same version, prefixed with the start time of this instance, is used as the HTTP ETag,
+ * so clients that poll with If-None-Match get a 304 until the catalog changes.
+ */
+@Component
+public class GraphQlResponseCache {
+    /** Name reported in the cache statistics */
+    public static final String NAME = "responses";
+
+    /** Rough per-entry overhead of the key strings, array header and cache node */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final CatalogVersion catalogVersion;
+    private final Cache<Key, CachedResponse> cache;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new GraphQlResponseCache.
+     * @param catalogVersion The version counter used to detect stale responses
+     * @param maxWeightBytes Memory budget for all cached responses
+     */
+    public GraphQlResponseCache(CatalogVersion catalogVersion,
+                                @Value("${bookmanagement.cache.responses.max-weight-bytes:16777216}") long maxWeightBytes) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, CachedResponse response) -> ENTRY_OVERHEAD_BYTES + response.body().length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the current catalog version. Read it before executing a request and pass it to {@link #put}.
+     * @return The current catalog version
+     */
+    public long currentVersion() {
+        return catalogVersion.current();
+    }
+
+    /**
+     * Formats the strong ETag of every response computed at a catalog version.
+     * The start time keeps a restarted instance from confirming ETags of an older catalog.
+     * @param version The catalog version
+     * @return Quoted ETag value
+     */
+    public String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Returns the cached response if it was computed at the current catalog version.
+     * @param key The request parameters
+     * @return The response, or null on a miss
+     */
+    public CachedResponse get(Key key) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == catalogVersion.current()) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores a response, unless the catalog changed while it was computed.
+     * @param key The request parameters
+     * @param response The serialized response, tagged with the version read before execution
+     */
+    public void put(Key key, CachedResponse response) {
+        if (response.version() == catalogVersion.current()) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * Gets the current hit/miss/eviction counters. Stale entries count as misses.
+     * @return Statistics snapshot
+     */
+    public CacheStatistics statistics() {
+        return new CacheStatistics(NAME, cache.estimatedSize(),
+                hits.sum(), misses.sum(), cache.stats().evictionCount());
+    }
+
+    /**
+     * Raw GET parameters of a GraphQL request.
+     * @param query The query text, or null for a persisted query
+     * @param operationName The operation to execute (can be null)
+     * @param variables The variables as a JSON string (can be null)
+     * @param extensions The extensions as a JSON string (can be null)
+     */
+    public record Key(String query, String operationName, String variables, String extensions) {
+    }
+
+    /**
+     * A serialized response.
+     * @param version Catalog version read before the request was executed
+     * @param contentType Content type of the response
+     * @param body Response body
+     */
+    public record CachedResponse(long version, String contentType, byte[] body) {
+    }
+}
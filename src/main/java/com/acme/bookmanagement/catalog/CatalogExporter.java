@@ -0,0 +1,116 @@
+package com.acme.bookmanagement.catalog;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.store.BookStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to an output stream as CSV or JSON lines.
+ * Books are streamed from the store and written one at a time; with the JPA engine the persistence
+ * context is cleared after every block, so memory stays flat no matter how big the catalog is.
+ */
+@Service
+public class CatalogExporter {
+    /** Number of books written between flushes of the output and of the persistence context */
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookStore bookStore;
+    private final ObjectWriter jsonWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructs a new CatalogExporter.
+     * @param bookStore The store the books are streamed from
+     * @param objectMapper Used to write JSON lines
+     */
+    public CatalogExporter(BookStore bookStore, ObjectMapper objectMapper) {
+        this.bookStore = bookStore;
+        this.jsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes every book to the output, in ID order. The output is flushed periodically but not closed.
+     * @param format The output format
+     * @param out The target stream
+     * @return Number of books written
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long export(CatalogFormat format, OutputStream out) throws IOException {
+        try (Stream<Book> books = bookStore.streamAll()) {
+            return format == CatalogFormat.CSV ?
+                    exportCsv(books.iterator(), out) :
+                    exportJsonLines(books.iterator(), out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long exportCsv(Iterator<Book> books, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder row = new StringBuilder(256);
+        CsvCodec.format(row, "id", "title", "author", "publishedDate", "description", "imageUrl");
+        writer.append(row).append('\n');
+
+        long count = 0;
+        while (books.hasNext()) {
+            Book book = books.next();
+            row.setLength(0);
+            CsvCodec.format(row,
+                    String.valueOf(book.getId()),
+                    book.getTitle(),
+                    book.getAuthor(),
+                    book.getPublishedDate().toString(),
+                    book.getDescription(),
+                    book.getImageUrl());
+            writer.append(row).append('\n');
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long exportJsonLines(Iterator<Book> books, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long count = 0;
+        try (SequenceWriter writer = jsonWriter.withRootValueSeparator("\n").writeValues(buffered)) {
+            while (books.hasNext()) {
+                writer.write(books.next());
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        if (count > 0) {
+            buffered.write('\n');
+        }
+        buffered.flush();
+        return count;
+    }
+}
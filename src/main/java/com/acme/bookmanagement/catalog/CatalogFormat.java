@@ -0,0 +1,30 @@
+package com.acme.bookmanagement.catalog;
+
+import java.util.Locale;
+
+/**
+ * File formats supported for catalog import and export.
+ */
+public enum CatalogFormat {
+    /** Comma-separated values with a header row, RFC 4180 quoting */
+    CSV,
+    /** One JSON object per line (also known as NDJSON) */
+    JSON_LINES;
+
+    /**
+     * Detects the format from a file name extension.
+     * @param fileName The file name
+     * @return The matching format
+     * @throws IllegalArgumentException if the extension is not supported
+     */
+    public static CatalogFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson")) {
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Unsupported catalog file type: " + fileName);
+    }
+}
@@ -0,0 +1,321 @@
+package com.acme.bookmanagement.catalog;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookInput;
+import com.acme.bookmanagement.model.ImportReport;
+import com.acme.bookmanagement.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a CSV or JSON-lines catalog file into the database.
+ * <p>
+ * The pipeline has three stages connected by bounded queues:
+ * a reader that maps the file window by window and cuts it into batches of records,
+ * a pool of parsers that turn records into books, and the calling thread, which writes
+ * each batch through {@link BookService#saveAll(List)} in its own transaction.
+ * When the database falls behind, the queues fill up and the reader and parsers block,
+ * so heap usage depends on the batch size and parallelism, not on the file size.
+ */
+@Service
+public class CatalogImporter {
+    private static final Logger log = LoggerFactory.getLogger(CatalogImporter.class);
+    private static final Marker ALWAYS = MarkerFactory.getMarker("ALWAYS");
+
+    /** Columns expected in the CSV header, matched case-insensitively in any order */
+    private static final List<String> CSV_COLUMNS =
+            List.of("title", "author", "publisheddate", "description", "imageurl");
+
+    /** Marks the end of the stream in both queues */
+    private static final List<?> END = new ArrayList<>();
+
+    /** Number of rejected records logged individually before going quiet */
+    private static final int LOGGED_REJECTIONS = 10;
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final BookService bookService;
+    private final ObjectReader jsonReader;
+    private final Path importDirectory;
+    private final int batchSize;
+    private final int parallelism;
+
+    /**
+     * Constructs a new CatalogImporter.
+     * @param bookService The service the books are written through
+     * @param objectMapper Used to parse JSON-lines records
+     * @param importDirectory Directory that on-demand imports are restricted to
+     * @param batchSize Number of records per batch and per write transaction
+     * @param parallelism Number of parser threads; 0 uses the number of processors
+     */
+    public CatalogImporter(BookService bookService,
+                           ObjectMapper objectMapper,
+                           @Value("${bookmanagement.import.directory:imports}") String importDirectory,
+                           @Value("${bookmanagement.import.batch-size:1000}") int batchSize,
+                           @Value("${bookmanagement.import.parallelism:0}") int parallelism) {
+        this.bookService = bookService;
+        this.jsonReader = objectMapper.readerFor(BookInput.class);
+        this.importDirectory = Paths.get(importDirectory).toAbsolutePath().normalize();
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Imports a file from the configured import directory.
+     * @param fileName Name of the file, relative to the import directory
+     * @return Summary of the import
+     * @throws IllegalArgumentException if the name points outside the import directory
+     */
+    public ImportReport importFromDirectory(String fileName) {
+        Path file = importDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(importDirectory)) {
+            throw new IllegalArgumentException("File must be inside the import directory: " + fileName);
+        }
+        return importFile(file);
+    }
+
+    /**
+     * Imports a catalog file; the format is detected from the extension.
+     * @param file The CSV (.csv) or JSON-lines (.jsonl, .ndjson) file
+     * @return Summary of the import
+     */
+    public ImportReport importFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Catalog file not found: " + file.getFileName());
+        }
+        CatalogFormat format = CatalogFormat.fromFileName(file.getFileName().toString());
+        log.info(ALWAYS, "Importing {} catalog from {} with {} parsers", format, file, parallelism);
+
+        BlockingQueue<List<String>> records = new ArrayBlockingQueue<>(parallelism * 2);
+        BlockingQueue<List<Book>> books = new ArrayBlockingQueue<>(parallelism * 2);
+        AtomicLong rejected = new AtomicLong();
+        RecordParser parser = format == CatalogFormat.CSV ? new CsvRecordParser() : this::parseJson;
+        long start = System.nanoTime();
+        long imported = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism + 1);
+        try {
+            Future<?> reader = executor.submit(() -> {
+                read(file, format, parser, records);
+                return null;
+            });
+            for (int i = 0; i < parallelism; i++) {
+                executor.submit(() -> {
+                    parse(parser, records, books, rejected);
+                    return null;
+                });
+            }
+
+            long lastProgress = start;
+            int finishedParsers = 0;
+            while (finishedParsers < parallelism) {
+                List<Book> batch = books.poll(1, TimeUnit.SECONDS);
+                if (batch == null) {
+                    // Surface reader failures instead of waiting for parsers that will never finish
+                    if (reader.isDone()) {
+                        reader.get();
+                    }
+                    continue;
+                }
+                if (batch == END) {
+                    finishedParsers++;
+                    continue;
+                }
+                imported += bookService.saveAll(batch).size();
+
+                long now = System.nanoTime();
+                if (now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                    log.info(ALWAYS, "Imported {} books ({} rejected), {} rows/s",
+                            imported, rejected.get(), String.format(Locale.ROOT, "%.0f",
+                                    imported / ((now - start) / 1e9)));
+                    lastProgress = now;
+                }
+            }
+            reader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Catalog import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw new IllegalStateException("Catalog import failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ImportReport report = new ImportReport(imported, rejected.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info(ALWAYS, "Imported {} books ({} rejected) in {} ms, {} rows/s", report.getRowsImported(),
+                report.getRowsRejected(), report.getElapsedMillis(),
+                String.format(Locale.ROOT, "%.0f", report.getRowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Reader stage: cuts the file into batches of records and hands them to the parsers.
+     */
+    @SuppressWarnings("unchecked")
+    private void read(Path file, CatalogFormat format, RecordParser parser,
+                      BlockingQueue<List<String>> records) throws IOException, InterruptedException {
+        try {
+            RecordBatcher batcher = new RecordBatcher(records,
+                    format == CatalogFormat.CSV ? (CsvRecordParser) parser : null);
+            new MappedLineReader(file, format == CatalogFormat.CSV).read(batcher);
+            batcher.flush();
+        } finally {
+            for (int i = 0; i < parallelism; i++) {
+                records.put((List<String>) END);
+            }
+        }
+    }
+
+    /**
+     * Parser stage: turns batches of records into batches of books.
+     */
+    @SuppressWarnings("unchecked")
+    private void parse(RecordParser parser, BlockingQueue<List<String>> records,
+                       BlockingQueue<List<Book>> books, AtomicLong rejected) throws InterruptedException {
+        try {
+            List<String> batch;
+            while ((batch = records.take()) != END) {
+                List<Book> parsed = new ArrayList<>(batch.size());
+                for (String record : batch) {
+                    try {
+                        Book book = parser.parse(record).toBook();
+                        if (isBlank(book.getTitle()) || isBlank(book.getAuthor())) {
+                            throw new IllegalArgumentException("title and author are required");
+                        }
+                        parsed.add(book);
+                    } catch (RuntimeException | IOException e) {
+                        if (rejected.incrementAndGet() <= LOGGED_REJECTIONS) {
+                            log.warn("Rejected catalog record: {}", e.getMessage());
+                        }
+                    }
+                }
+                if (!parsed.isEmpty()) {
+                    books.put(parsed);
+                }
+            }
+        } finally {
+            books.put((List<Book>) END);
+        }
+    }
+
+    private BookInput parseJson(String record) throws IOException {
+        return jsonReader.readValue(record);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Groups records into batches of {@link #batchSize}, blocking while the parsers are behind.
+     * The first record is handed to the CSV parser as the header, if there is one.
+     */
+    private final class RecordBatcher implements MappedLineReader.RecordHandler {
+        private final BlockingQueue<List<String>> records;
+        private CsvRecordParser headerParser;
+        private List<String> batch = new ArrayList<>(batchSize);
+
+        private RecordBatcher(BlockingQueue<List<String>> records, CsvRecordParser headerParser) {
+            this.records = records;
+            this.headerParser = headerParser;
+        }
+
+        @Override
+        public void accept(String record) throws InterruptedException {
+            if (headerParser != null) {
+                headerParser.readHeader(record);
+                headerParser = null;
+                return;
+            }
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                records.put(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /**
+     * Parses one record into a book input.
+     */
+    @FunctionalInterface
+    private interface RecordParser {
+        BookInput parse(String record) throws IOException;
+    }
+
+    /**
+     * Parses CSV records using the column positions found in the header row.
+     */
+    private static final class CsvRecordParser implements RecordParser {
+        private volatile int[] positions;
+
+        private void readHeader(String header) {
+            List<String> names = CsvCodec.parse(header).stream()
+                    .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            int[] found = new int[CSV_COLUMNS.size()];
+            for (int i = 0; i < found.length; i++) {
+                found[i] = names.indexOf(CSV_COLUMNS.get(i));
+            }
+            if (found[0] < 0 || found[1] < 0 || found[2] < 0) {
+                throw new IllegalArgumentException("CSV header must contain title, author and publishedDate");
+            }
+            positions = found;
+        }
+
+        @Override
+        public BookInput parse(String record) {
+            List<String> fields = CsvCodec.parse(record);
+            BookInput input = new BookInput();
+            input.setTitle(field(fields, 0));
+            input.setAuthor(field(fields, 1));
+            input.setPublishedDate(field(fields, 2));
+            input.setDescription(field(fields, 3));
+            input.setImageUrl(field(fields, 4));
+            return input;
+        }
+
+        private String field(List<String> fields, int column) {
+            int position = positions[column];
+            if (position < 0 || position >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(position);
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
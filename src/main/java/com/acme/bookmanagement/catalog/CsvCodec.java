@@ -0,0 +1,75 @@
+package com.acme.bookmanagement.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV encoding and decoding of single records.
+ * Fields containing commas, quotes or line breaks are quoted and embedded quotes are doubled.
+ */
+public final class CsvCodec {
+    private CsvCodec() {
+    }
+
+    /**
+     * Splits one CSV record into its fields.
+     * @param record The record, possibly containing quoted line breaks
+     * @return The unquoted field values
+     * @throws IllegalArgumentException if a quoted field is not terminated
+     */
+    public static List<String> parse(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Appends one CSV record, without the trailing line break.
+     * @param out The target
+     * @param fields The field values; null is written as an empty field
+     */
+    public static void format(StringBuilder out, String... fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            String value = fields[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(value);
+            }
+        }
+    }
+}
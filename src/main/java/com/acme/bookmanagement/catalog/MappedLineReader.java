@@ -0,0 +1,97 @@
+package com.acme.bookmanagement.catalog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a text file record by record through memory-mapped windows.
+ * Only one window is mapped at a time, so files larger than 2 GB and larger than the heap
+ * can be read; a record spanning two windows is stitched together in a small carry buffer.
+ */
+public class MappedLineReader {
+    /** Size of each mapped window */
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Receives each record read from the file.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * @param record One record without its line terminator
+         * @throws InterruptedException if the handler was interrupted while waiting for capacity
+         */
+        void accept(String record) throws InterruptedException;
+    }
+
+    private final Path file;
+    private final boolean quoteAware;
+
+    private byte[] carry = new byte[8192];
+    private int carryLength;
+    private boolean inQuotes;
+
+    /**
+     * Creates a reader for the given file.
+     * @param file The file to read
+     * @param quoteAware If true, line breaks inside double-quoted sections do not end a record (CSV)
+     */
+    public MappedLineReader(Path file, boolean quoteAware) {
+        this.file = file;
+        this.quoteAware = quoteAware;
+    }
+
+    /**
+     * Reads the whole file, passing each non-empty record to the handler.
+     * @param handler Receives the records in file order
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedException if the handler was interrupted
+     */
+    public void read(RecordHandler handler) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += WINDOW_SIZE) {
+                int length = (int) Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int recordStart = 0;
+                for (int i = 0; i < length; i++) {
+                    byte b = window.get(i);
+                    if (quoteAware && b == '"') {
+                        inQuotes = !inQuotes;
+                    } else if (b == '\n' && !inQuotes) {
+                        append(window, recordStart, i);
+                        emit(handler);
+                        recordStart = i + 1;
+                    }
+                }
+                append(window, recordStart, length);
+            }
+            emit(handler);
+        }
+    }
+
+    private void append(MappedByteBuffer window, int from, int to) {
+        int length = to - from;
+        if (carryLength + length > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + length));
+        }
+        window.get(from, carry, carryLength, length);
+        carryLength += length;
+    }
+
+    private void emit(RecordHandler handler) throws InterruptedException {
+        int length = carryLength;
+        if (length > 0 && carry[length - 1] == '\r') {
+            length--;
+        }
+        carryLength = 0;
+        if (length > 0) {
+            handler.accept(new String(carry, 0, length, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package com.acme.bookmanagement.config;
 
+import com.acme.bookmanagement.catalog.CatalogImporter;
 import com.acme.bookmanagement.model.Book;
-import com.acme.bookmanagement.repository.BookRepository;
+import com.acme.bookmanagement.service.AuthorService;
+import com.acme.bookmanagement.store.BookStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 public class DataLoader {
 
     @Bean
-    CommandLineRunner initDatabase(BookRepository repository) {
+    CommandLineRunner initDatabase(BookStore bookStore, AuthorService authorService) {
         return args -> {
-            repository.saveAll(List.of(
+            // The catalog outlives the context when the database or the store file does, so only seed an empty one
+            if (bookStore.count() > 0) {
+                // The authors are in the database, which can be new while the store file is not
+                authorService.saveMissing(authors(bookStore.findAll()));
+                return;
+            }
+            List<Book> books = bookStore.saveAll(List.of(
                 // Morisaki Bookshop Series
                 new Book(null, 
                     "With Love from the Morisaki Bookshop",
@@ -138,6 +151,28 @@ public class DataLoader {
                     "To gain the power he needs to save his friend from a cursed spirit, Yuji Itadori swallows a piece of a demon, only to find himself caught in the midst of a horrific war of the supernatural!",
                     "https://cdn11.bigcommerce.com/s-aweq463/products/39689/images/104025/9781974700530__97853.1643894556.550.659.jpg?c=2")
             ));
+
+            // The seed books are written below the service, which otherwise creates the authors of saved books
+            authorService.saveMissing(authors(books));
         };
     }
-} 
\ No newline at end of file
+
+    /**
+     * Gets the distinct author names of the books, resolved by Book.authorDetails.
+     */
+    private static Set<String> authors(List<Book> books) {
+        return books.stream()
+            .map(Book::getAuthor)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Imports the catalog file configured with bookmanagement.import.file at startup.
+     */
+    @Bean
+    @ConditionalOnProperty("bookmanagement.import.file")
+    CommandLineRunner importCatalog(CatalogImporter catalogImporter,
+                                    @Value("${bookmanagement.import.file}") String file) {
+        return args -> catalogImporter.importFile(Paths.get(file));
+    }
+}
@@ -0,0 +1,50 @@
+package com.acme.bookmanagement.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+
+import java.util.Optional;
+
+/**
+ * R2DBC read stack of the "reactive" profile.
+ * Spring Boot's R2DBC auto-configuration is excluded in application.properties: it would register a
+ * reactive transaction manager that competes with the JPA one. Reads need no transaction manager,
+ * so only the connection factory, the entity template and the repositories are set up here.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackages = "com.acme.bookmanagement.repository.reactive")
+public class ReactiveConfig extends AbstractR2dbcConfiguration {
+    private final String url;
+
+    public ReactiveConfig(@Value("${bookmanagement.r2dbc.url}") String url) {
+        this.url = url;
+    }
+
+    @Override
+    @Bean
+    public ConnectionFactory connectionFactory() {
+        return ConnectionFactories.get(url);
+    }
+
+    /**
+     * Quotes all identifiers, since Hibernate creates the schema with quoted lowercase names
+     */
+    @Override
+    @Bean
+    public R2dbcMappingContext r2dbcMappingContext(Optional<NamingStrategy> namingStrategy,
+                                                   R2dbcCustomConversions r2dbcCustomConversions) {
+        R2dbcMappingContext context = super.r2dbcMappingContext(namingStrategy, r2dbcCustomConversions);
+        context.setForceQuote(true);
+        return context;
+    }
+}
@@ -0,0 +1,40 @@
+package com.acme.bookmanagement.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback filter that keeps only a random sample of the INFO and lower events of the application's loggers.
+ * WARN and ERROR events, events of other loggers and events carrying the {@value #ALWAYS} marker, which
+ * lifecycle logs such as startup and import summaries use, are never dropped.
+ * Configured in logback-spring.xml.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    /** Name of the marker of events that are always logged */
+    public static final String ALWAYS = "ALWAYS";
+
+    private String loggerPrefix = "";
+    private double sampleRate = 1.0;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(loggerPrefix) ||
+                (marker != null && marker.contains(ALWAYS))) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < sampleRate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
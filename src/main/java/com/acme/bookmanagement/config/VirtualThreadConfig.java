@@ -0,0 +1,62 @@
+package com.acme.bookmanagement.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling, and with it GraphQL data fetching, on virtual threads.
+ * Enabled with {@code bookmanagement.execution.mode=virtual}; the default {@code platform}
+ * mode keeps Tomcat's bounded thread pool.
+ * Since virtual threads are not bounded, JDBC access is limited to
+ * {@code bookmanagement.jdbc.max-concurrency} connections at a time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookmanagement.execution.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    /**
+     * Serves every HTTP request on a new virtual thread instead of Tomcat's worker pool
+     */
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Runs async MVC work (such as streamed responses) on virtual threads too
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Wraps the DataSource in a {@link ConcurrencyLimitingDataSource}
+     */
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        int maxConcurrency = environment.getProperty("bookmanagement.jdbc.max-concurrency", Integer.class, 10);
+        Duration timeout = environment.getProperty("bookmanagement.jdbc.acquire-timeout", Duration.class,
+                Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookChange;
+import com.acme.bookmanagement.model.BookDelta;
+import com.acme.bookmanagement.model.ChangeType;
+import com.acme.bookmanagement.service.BookChangeService;
+import com.acme.bookmanagement.service.BookService;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GraphQL Controller for keeping copies of the catalog in sync
+ * Clients either follow the change log, remembering the sequence of the last change they applied and
+ * polling or subscribing from there, or ask for the books changed since a watermark
+ */
+@Controller
+public class BookChangeController {
+    private final BookChangeService changeService;
+    private final BookService bookService;
+    private final ResolverExecutor resolverExecutor;
+
+    public BookChangeController(BookChangeService changeService, BookService bookService,
+                                ResolverExecutor resolverExecutor) {
+        this.changeService = changeService;
+        this.bookService = bookService;
+        this.resolverExecutor = resolverExecutor;
+    }
+
+    /**
+     * Lists the changes after a sequence number
+     * @param after The sequence of the last change already applied (0 lists from the start)
+     * @param limit Maximum number of changes
+     * @return List of changes in sequence order; fewer than limit means the client has caught up
+     */
+    @QueryMapping
+    public CompletableFuture<List<BookChange>> bookChangesSince(@Argument Long after, @Argument Integer limit,
+                                                                DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> changeService.findChangesSince(after, limit));
+    }
+
+    /**
+     * Lists the books created, updated or deleted since a watermark
+     * @param watermark Watermark returned by the previous call (absent starts from the beginning)
+     * @param limit Maximum number of changes
+     * @return The upserts and deletions, and the watermark to continue from
+     */
+    @QueryMapping
+    public CompletableFuture<BookDelta> booksChangedSince(@Argument String watermark, @Argument Integer limit,
+                                                          DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> bookService.findChangedSince(watermark, limit));
+    }
+
+    /**
+     * Streams catalog changes to a subscriber as they are committed
+     * @param after The sequence of the last change already applied; when given, the missed changes are
+     *              replayed first; when absent, only new changes are sent
+     * @return Flux of changes in sequence order
+     */
+    @SubscriptionMapping
+    public Flux<BookChange> bookChanged(@Argument Long after) {
+        return changeService.streamChangesSince(after);
+    }
+
+    /**
+     * Resolves the current state of the books of a list of changes with one lookup
+     * @param changes Changes whose book was selected
+     * @return Book per change; deletions and books deleted since map to null
+     */
+    @BatchMapping(typeName = "BookChange", field = "book")
+    public Map<BookChange, Book> book(List<BookChange> changes) {
+        Map<Integer, Book> booksById = bookService.findAllById(changes.stream()
+                .filter(change -> change.getType() == ChangeType.UPSERT)
+                .map(BookChange::getBookId)
+                .distinct()
+                .toList());
+        Map<BookChange, Book> books = new HashMap<>();
+        changes.forEach(change -> books.put(change, change.getType() == ChangeType.UPSERT ?
+                booksById.get(change.getBookId()) : null));
+        return books;
+    }
+}
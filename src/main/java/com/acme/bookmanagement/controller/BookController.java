@@ -1,53 +1,80 @@
 package com.acme.bookmanagement.controller;
 
+import com.acme.bookmanagement.cache.DocumentCache;
+import com.acme.bookmanagement.cache.GraphQlResponseCache;
+import com.acme.bookmanagement.model.Author;
 import com.acme.bookmanagement.model.Book;
-import com.acme.bookmanagement.model.BookPage;
+import com.acme.bookmanagement.model.BookConnection;
+import com.acme.bookmanagement.model.BookInput;
+import com.acme.bookmanagement.model.CacheStatistics;
 import com.acme.bookmanagement.model.SortField;
 import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.service.AuthorService;
 import com.acme.bookmanagement.service.BookService;
-import org.springframework.data.domain.Page;
+import com.acme.bookmanagement.service.BookWriteBehindQueue;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.data.ArgumentValue;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * GraphQL Controller for handling book-related operations
  * Provides endpoints for querying and mutating book data
+ * Queries that hit the database run on the {@link ResolverExecutor}, so the root fields of one operation
+ * are resolved concurrently; mutations stay synchronous since GraphQL runs them one after another anyway
+ * List queries only read the columns of the Book fields the client selected, see {@link BookSelection}
+ * The basic reads that have a reactive alternative live in {@link BookQueryController} and {@link ReactiveBookController}
  */
 @Controller
 public class BookController {
     private final BookService bookService;
+    private final AuthorService authorService;
+    private final ResolverExecutor resolverExecutor;
+    private final DocumentCache documentCache;
+    private final GraphQlResponseCache responseCache;
+    private final Optional<BookWriteBehindQueue> writeBehind;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, AuthorService authorService, ResolverExecutor resolverExecutor,
+                          DocumentCache documentCache, GraphQlResponseCache responseCache,
+                          Optional<BookWriteBehindQueue> writeBehind) {
         this.bookService = bookService;
+        this.authorService = authorService;
+        this.resolverExecutor = resolverExecutor;
+        this.documentCache = documentCache;
+        this.responseCache = responseCache;
+        this.writeBehind = writeBehind;
     }
 
     /**
-     * Retrieves all books in the system
-     * @return List of all books
+     * Retrieves hit/miss/eviction statistics of the server-side caches
+     * @return List of statistics, one per cache
      */
     @QueryMapping
-    public List<Book> findAllBooks() {
-        return bookService.findAll();
-    }
-
-    /**
-     * Finds a specific book by its ID
-     * @param id The book's unique identifier
-     * @return Optional containing the book if found
-     */
-    @QueryMapping
-    public Optional<Book> findBookById(@Argument Integer id) {
-        return bookService.findById(id);
+    public List<CacheStatistics> cacheStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>(bookService.cacheStatistics());
+        statistics.add(documentCache.statistics());
+        statistics.add(responseCache.statistics());
+        return statistics;
     }
 
     /**
      * Creates a new book in the system
+     * With write-behind enabled the book is queued and written with the next group commit;
+     * either way the response is only sent once the book has been committed
      * @param title Book title
      * @param author Book author
      * @param publishedDate Publication date in ISO format (yyyy-MM-dd)
@@ -56,19 +83,58 @@ public class BookController {
      * @return The created book with assigned ID
      */
     @MutationMapping
-    public Book createBook(
+    public CompletableFuture<Book> createBook(
             @Argument String title,
             @Argument String author,
             @Argument String publishedDate,
             @Argument String description,
             @Argument String imageUrl) {
-        Book book = new Book();
-        book.setTitle(title);
-        book.setAuthor(author);
-        book.setPublishedDate(LocalDate.parse(publishedDate));
-        book.setDescription(description);
-        book.setImageUrl(imageUrl);
-        return bookService.save(book);
+        Book book = toBook(title, author, publishedDate, description, imageUrl);
+        return writeBehind.isPresent() ?
+                writeBehind.get().submit(book) :
+                CompletableFuture.completedFuture(bookService.save(book));
+    }
+
+    /**
+     * Creates many books in one request, written in batched transactions
+     * @param input The books to create
+     * @return The created books with assigned IDs, in input order
+     */
+    @MutationMapping
+    public List<Book> createBooks(@Argument List<BookInput> input) {
+        return bookService.saveAll(input.stream()
+                .map(BookInput::toBook)
+                .toList());
+    }
+
+    /**
+     * Changes some attributes of a book if it is still at the version the client read
+     * Arguments that are left out keep their value; description and imageUrl can be cleared with null
+     * @param id ID of the book to update
+     * @param version Version of the book the client's change is based on
+     * @param title New title
+     * @param author New author
+     * @param publishedDate New publication date in ISO format (yyyy-MM-dd)
+     * @param description New description
+     * @param imageUrl New URL to book cover image
+     * @return The updated book with its new version, or empty if it does not exist
+     */
+    @MutationMapping
+    public Optional<Book> updateBook(
+            @Argument Integer id,
+            @Argument Long version,
+            @Argument ArgumentValue<String> title,
+            @Argument ArgumentValue<String> author,
+            @Argument ArgumentValue<String> publishedDate,
+            @Argument ArgumentValue<String> description,
+            @Argument ArgumentValue<String> imageUrl) {
+        Map<String, Object> changes = new HashMap<>();
+        putIfGiven(changes, "title", title, value -> value);
+        putIfGiven(changes, "author", author, value -> value);
+        putIfGiven(changes, "publishedDate", publishedDate, LocalDate::parse);
+        putIfGiven(changes, "description", description, value -> value);
+        putIfGiven(changes, "imageUrl", imageUrl, value -> value);
+        return bookService.update(id, version, changes);
     }
 
     /**
@@ -82,18 +148,13 @@ public class BookController {
     }
 
     /**
-     * Finds books published within a specific date range
-     * @param startDate Start date in ISO format (yyyy-MM-dd)
-     * @param endDate End date in ISO format (yyyy-MM-dd)
-     * @return List of books within the date range
+     * Deletes many books in one request
+     * @param ids IDs of the books to delete
+     * @return The IDs passed in
      */
-    @QueryMapping
-    public List<Book> findBooksByDateRange(
-            @Argument String startDate,
-            @Argument String endDate) {
-        return bookService.findByDateRange(
-                LocalDate.parse(startDate),
-                LocalDate.parse(endDate));
+    @MutationMapping
+    public List<Integer> deleteBooks(@Argument List<Integer> ids) {
+        return bookService.deleteAllById(ids);
     }
 
     /**
@@ -102,8 +163,65 @@ public class BookController {
      * @return List of matching books
      */
     @QueryMapping
-    public List<Book> findBooksByTitleContaining(@Argument String title) {
-        return bookService.findByTitleContaining(title);
+    public CompletableFuture<List<Book>> findBooksByTitleContaining(@Argument String title,
+                                                                    DataFetchingEnvironment environment) {
+        Set<String> attributes = BookSelection.attributes(environment.getSelectionSet());
+        return resolverExecutor.supply(environment, () -> bookService.findByTitleContaining(title, attributes));
+    }
+
+    /**
+     * Finds books whose title starts with a prefix, using the lowercase title index
+     * @param prefix Title prefix (case-insensitive)
+     * @param limit Maximum number of results
+     * @return List of matching books in title order
+     */
+    @QueryMapping
+    public CompletableFuture<List<Book>> findBooksByTitlePrefix(@Argument String prefix, @Argument Integer limit,
+                                                                DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> bookService.findByTitlePrefix(prefix, limit));
+    }
+
+    /**
+     * Searches for books by free text over title, author and description
+     * @param query Text to search for; the last word is matched as a prefix
+     * @param limit Maximum number of results
+     * @return List of matching books, best match first
+     */
+    @QueryMapping
+    public CompletableFuture<List<Book>> searchBooks(@Argument String query, @Argument Integer limit,
+                                                     DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> bookService.search(query, limit));
+    }
+
+    /**
+     * Retrieves the titles of all books
+     * @return List of all book titles
+     */
+    @QueryMapping
+    public CompletableFuture<List<String>> getAllBookTitles(DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, bookService::findAllTitles);
+    }
+
+    /**
+     * Suggests book titles starting with the typed prefix
+     * @param prefix Prefix typed so far (case-insensitive)
+     * @param limit Maximum number of suggestions
+     * @return List of matching titles
+     */
+    @QueryMapping
+    public List<String> suggestTitles(@Argument String prefix, @Argument Integer limit) {
+        return bookService.suggestTitles(prefix, limit);
+    }
+
+    /**
+     * Suggests author names starting with the typed prefix
+     * @param prefix Prefix typed so far (case-insensitive)
+     * @param limit Maximum number of suggestions
+     * @return List of matching author names
+     */
+    @QueryMapping
+    public List<String> suggestAuthors(@Argument String prefix, @Argument Integer limit) {
+        return bookService.suggestAuthors(prefix, limit);
     }
 
     /**
@@ -113,10 +231,12 @@ public class BookController {
      * @return Sorted list of books
      */
     @QueryMapping
-    public List<Book> findAllBooksSorted(
+    public CompletableFuture<List<Book>> findAllBooksSorted(
             @Argument SortField sortField,
-            @Argument SortOrder sortOrder) {
-        return bookService.findAllSorted(sortField, sortOrder);
+            @Argument SortOrder sortOrder,
+            DataFetchingEnvironment environment) {
+        Set<String> attributes = BookSelection.attributes(environment.getSelectionSet());
+        return resolverExecutor.supply(environment, () -> bookService.findAllSorted(sortField, sortOrder, attributes));
     }
 
     /**
@@ -125,8 +245,11 @@ public class BookController {
      * @return Sorted list of books
      */
     @QueryMapping
-    public List<Book> findAllBooksSortedByTitle(@Argument Boolean ascending) {
-        return bookService.findAllSortedByTitle(ascending);
+    public CompletableFuture<List<Book>> findAllBooksSortedByTitle(@Argument Boolean ascending,
+                                                                   DataFetchingEnvironment environment) {
+        Set<String> attributes = BookSelection.attributes(environment.getSelectionSet());
+        return resolverExecutor.supply(environment, () -> bookService.findAllSorted(
+                SortField.TITLE, ascending ? SortOrder.ASC : SortOrder.DESC, attributes));
     }
 
     /**
@@ -135,8 +258,11 @@ public class BookController {
      * @return Sorted list of books
      */
     @QueryMapping
-    public List<Book> findAllBooksSortedByDate(@Argument Boolean ascending) {
-        return bookService.findAllSortedByDate(ascending);
+    public CompletableFuture<List<Book>> findAllBooksSortedByDate(@Argument Boolean ascending,
+                                                                  DataFetchingEnvironment environment) {
+        Set<String> attributes = BookSelection.attributes(environment.getSelectionSet());
+        return resolverExecutor.supply(environment, () -> bookService.findAllSorted(
+                SortField.PUBLISHED_DATE, ascending ? SortOrder.ASC : SortOrder.DESC, attributes));
     }
 
     /**
@@ -145,36 +271,91 @@ public class BookController {
      * @return List of matching books
      */
     @QueryMapping
-    public List<Book> findBooksByAuthorContaining(@Argument String author) {
-        return bookService.findByAuthorContaining(author);
+    public CompletableFuture<List<Book>> findBooksByAuthorContaining(@Argument String author,
+                                                                     DataFetchingEnvironment environment) {
+        Set<String> attributes = BookSelection.attributes(environment.getSelectionSet());
+        return resolverExecutor.supply(environment, () -> bookService.findByAuthorContaining(author, attributes));
     }
 
     /**
-     * Retrieves a paginated and filtered list of books
-     * @param page Zero-based page number
-     * @param size Number of items per page
+     * Retrieves a cursor-paginated (keyset) and filtered slice of books.
+     * The total count is only computed when the client selects totalCount.
+     * @param first Number of books after the cursor
+     * @param after Cursor to start after
+     * @param last Number of books before the cursor
+     * @param before Cursor to end before
      * @param sortField Field to sort by
      * @param sortOrder Sort direction
      * @param titleFilter Optional title filter
      * @param authorFilter Optional author filter
-     * @return BookPage containing results and pagination metadata
+     * @param environment Used for the fields selected by the client
+     * @return BookConnection containing the slice and its cursors
      */
     @QueryMapping
-    public BookPage findAllBooksWithPagination(
-            @Argument Integer page,
-            @Argument Integer size,
+    public CompletableFuture<BookConnection> findAllBooksWithCursor(
+            @Argument Integer first,
+            @Argument String after,
+            @Argument Integer last,
+            @Argument String before,
             @Argument SortField sortField,
             @Argument SortOrder sortOrder,
             @Argument String titleFilter,
-            @Argument String authorFilter) {
-        Page<Book> bookPage = bookService.findAllWithPagination(
-                page, size, sortField, sortOrder, titleFilter, authorFilter);
-
-        return new BookPage(
-                bookPage.getContent(),
-                bookPage.getTotalElements(),
-                bookPage.getTotalPages(),
-                bookPage.getNumber(),
-                bookPage.getSize());
+            @Argument String authorFilter,
+            DataFetchingEnvironment environment) {
+        boolean includeTotalCount = environment.getSelectionSet().contains("totalCount");
+        return resolverExecutor.supply(environment, () -> bookService.findAllWithCursor(
+                first, after, last, before, sortField, sortOrder, titleFilter, authorFilter,
+                includeTotalCount));
+    }
+
+    /**
+     * Resolves the author entity of every book in a result list with one query,
+     * instead of one query per book
+     * @param books Books whose authors were selected
+     * @return Author per book; books whose author is unknown map to null
+     */
+    @BatchMapping(typeName = "Book", field = "authorDetails")
+    public Map<Book, Author> authorDetails(List<Book> books) {
+        Map<String, Author> authorsByName = authorService.findByNames(
+                books.stream().map(Book::getAuthor).collect(Collectors.toSet()));
+        Map<Book, Author> authors = new HashMap<>();
+        books.forEach(book -> authors.put(book, authorsByName.get(book.getAuthor())));
+        return authors;
+    }
+
+    /**
+     * Resolves the books of every author in a result list with one query,
+     * instead of one query per author
+     * @param authors Authors whose books were selected
+     * @return Books per author
+     */
+    @BatchMapping(typeName = "Author", field = "books")
+    public Map<Author, List<Book>> books(List<Author> authors) {
+        Map<String, List<Book>> booksByAuthor = bookService.findByAuthors(
+                authors.stream().map(Author::getName).collect(Collectors.toSet()));
+        Map<Author, List<Book>> books = new HashMap<>();
+        authors.forEach(author -> books.put(author, booksByAuthor.getOrDefault(author.getName(), List.of())));
+        return books;
+    }
+
+    /**
+     * Records an argument the client passed, including an explicit null, as a change
+     */
+    private static void putIfGiven(Map<String, Object> changes, String attribute, ArgumentValue<String> argument,
+                                   Function<String, Object> converter) {
+        if (!argument.isOmitted()) {
+            changes.put(attribute, argument.value() == null ? null : converter.apply(argument.value()));
+        }
+    }
+
+    private static Book toBook(String title, String author, String publishedDate,
+                               String description, String imageUrl) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublishedDate(LocalDate.parse(publishedDate));
+        book.setDescription(description);
+        book.setImageUrl(imageUrl);
+        return book;
     }
 }
@@ -0,0 +1,133 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookConnection;
+import com.acme.bookmanagement.model.BookEdge;
+import com.acme.bookmanagement.model.BookPage;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.service.BookService;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GraphQL Controller for the basic book reads on the blocking JPA stack
+ * Replaced by {@link ReactiveBookController} when the "reactive" profile is active
+ */
+@Controller
+@Profile("!reactive")
+public class BookQueryController {
+    /** Number of books loaded per keyset query while streaming the catalog */
+    private static final int STREAM_SLICE_SIZE = 500;
+
+    private final BookService bookService;
+    private final ResolverExecutor resolverExecutor;
+
+    public BookQueryController(BookService bookService, ResolverExecutor resolverExecutor) {
+        this.bookService = bookService;
+        this.resolverExecutor = resolverExecutor;
+    }
+
+    /**
+     * Retrieves all books in the system
+     * @return List of all books
+     */
+    @QueryMapping
+    public CompletableFuture<List<Book>> findAllBooks(DataFetchingEnvironment environment) {
+        Set<String> attributes = BookSelection.attributes(environment.getSelectionSet());
+        return resolverExecutor.supply(environment, () -> bookService.findAll(attributes));
+    }
+
+    /**
+     * Finds a specific book by its ID
+     * @param id The book's unique identifier
+     * @return Optional containing the book if found
+     */
+    @QueryMapping
+    public CompletableFuture<Optional<Book>> findBookById(@Argument Integer id, DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> bookService.findById(id));
+    }
+
+    /**
+     * Finds books published within a specific date range
+     * @param startDate Start date in ISO format (yyyy-MM-dd)
+     * @param endDate End date in ISO format (yyyy-MM-dd)
+     * @return List of books within the date range
+     */
+    @QueryMapping
+    public CompletableFuture<List<Book>> findBooksByDateRange(
+            @Argument String startDate,
+            @Argument String endDate,
+            DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> bookService.findByDateRange(
+                LocalDate.parse(startDate),
+                LocalDate.parse(endDate)));
+    }
+
+    /**
+     * Retrieves a paginated and filtered list of books
+     * @param page Zero-based page number
+     * @param size Number of items per page
+     * @param sortField Field to sort by
+     * @param sortOrder Sort direction
+     * @param titleFilter Optional title filter
+     * @param authorFilter Optional author filter
+     * @return BookPage containing results and pagination metadata
+     */
+    @QueryMapping
+    public CompletableFuture<BookPage> findAllBooksWithPagination(
+            @Argument Integer page,
+            @Argument Integer size,
+            @Argument SortField sortField,
+            @Argument SortOrder sortOrder,
+            @Argument String titleFilter,
+            @Argument String authorFilter,
+            DataFetchingEnvironment environment) {
+        return resolverExecutor.supply(environment, () -> {
+            Page<Book> bookPage = bookService.findAllWithPagination(
+                    page, size, sortField, sortOrder, titleFilter, authorFilter);
+
+            return new BookPage(
+                    bookPage.getContent(),
+                    bookPage.getTotalElements(),
+                    bookPage.getTotalPages(),
+                    bookPage.getNumber(),
+                    bookPage.getSize());
+        });
+    }
+
+    /**
+     * Streams all books in ID order to a subscriber
+     * The catalog is read in keyset slices, and the next slice is only loaded once the subscriber
+     * has requested past the current one
+     * @return Flux of all books
+     */
+    @SubscriptionMapping
+    public Flux<Book> streamAllBooks() {
+        return slice(null)
+                .expand(connection -> connection.getPageInfo().isHasNextPage() ?
+                        slice(connection.getPageInfo().getEndCursor()) : Mono.empty())
+                .concatMapIterable(BookConnection::getEdges)
+                .map(BookEdge::getNode);
+    }
+
+    private Mono<BookConnection> slice(String after) {
+        return Mono.fromCallable(() -> bookService.findAllWithCursor(
+                        STREAM_SLICE_SIZE, after, null, null, null, null, null, null, false))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
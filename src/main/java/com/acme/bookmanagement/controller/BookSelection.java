@@ -0,0 +1,42 @@
+package com.acme.bookmanagement.controller;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps the Book fields a client selected to the entity attributes that have to be loaded for them
+ */
+final class BookSelection {
+    /** Book fields backed directly by an entity attribute of the same name */
+    private static final Set<String> ATTRIBUTES =
+            Set.of("id", "title", "author", "publishedDate", "description", "imageUrl", "version", "updatedAt");
+
+    private BookSelection() {
+    }
+
+    /**
+     * Gets the attributes needed for a field that returns books
+     * @param selectionSet Selection of the field
+     * @return Names of the Book attributes to load
+     */
+    static Set<String> attributes(DataFetchingFieldSelectionSet selectionSet) {
+        return attributes(selectionSet.getImmediateFields());
+    }
+
+    private static Set<String> attributes(List<SelectedField> fields) {
+        Set<String> attributes = new HashSet<>();
+        for (SelectedField field : fields) {
+            if (ATTRIBUTES.contains(field.getName())) {
+                attributes.add(field.getName());
+            } else if ("authorDetails".equals(field.getName())) {
+                // Resolved from the author name by the batch mapping
+                attributes.add("author");
+            }
+        }
+        return attributes;
+    }
+}
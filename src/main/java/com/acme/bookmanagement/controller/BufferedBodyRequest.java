@@ -0,0 +1,140 @@
+package com.acme.bookmanagement.controller;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Request whose body has already been read into memory, used by the filters that rewrite GraphQL requests.
+ */
+class BufferedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+    private final boolean jsonPost;
+
+    /**
+     * Wraps a request, replacing its body.
+     * @param request The original request
+     * @param body The body to read instead
+     */
+    BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+        this(request, body, false);
+    }
+
+    private BufferedBodyRequest(HttpServletRequest request, byte[] body, boolean jsonPost) {
+        super(request);
+        this.body = body;
+        this.jsonPost = jsonPost;
+    }
+
+    /**
+     * Wraps a request as a POST with a JSON body, e.g. to hand a GET request to the POST-only GraphQL handler.
+     * @param request The original request
+     * @param body The JSON body
+     * @return The wrapped request
+     */
+    static BufferedBodyRequest jsonPost(HttpServletRequest request, byte[] body) {
+        return new BufferedBodyRequest(request, body, true);
+    }
+
+    @Override
+    public String getMethod() {
+        return jsonPost ? "POST" : super.getMethod();
+    }
+
+    @Override
+    public String getContentType() {
+        return jsonPost ? MediaType.APPLICATION_JSON_VALUE : super.getContentType();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return isContentType(name) ? getContentType() : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return isContentType(name) ? Collections.enumeration(List.of(getContentType())) : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        if (!jsonPost) {
+            return super.getHeaderNames();
+        }
+        Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+        names.add(HttpHeaders.CONTENT_TYPE);
+        return Collections.enumeration(names);
+    }
+
+    private boolean isContentType(String name) {
+        return jsonPost && HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return input.read(buffer, offset, length);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                // The whole body is in memory, so the listener can read all of it at once
+                try {
+                    if (!isFinished()) {
+                        listener.onDataAvailable();
+                    }
+                    listener.onAllDataRead();
+                } catch (IOException e) {
+                    listener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+}
@@ -0,0 +1,30 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.catalog.CatalogImporter;
+import com.acme.bookmanagement.model.ImportReport;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * GraphQL Controller for bulk catalog operations
+ * Provides on-demand import of catalog files
+ */
+@Controller
+public class CatalogController {
+    private final CatalogImporter catalogImporter;
+
+    public CatalogController(CatalogImporter catalogImporter) {
+        this.catalogImporter = catalogImporter;
+    }
+
+    /**
+     * Imports a CSV or JSON-lines catalog file from the server's import directory
+     * @param fileName Name of the file, relative to the import directory
+     * @return Summary of the import
+     */
+    @MutationMapping
+    public ImportReport importCatalog(@Argument String fileName) {
+        return catalogImporter.importFromDirectory(fileName);
+    }
+}
@@ -0,0 +1,52 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.catalog.CatalogExporter;
+import com.acme.bookmanagement.catalog.CatalogFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST Controller for exporting the full catalog
+ * Responses are streamed with chunked transfer encoding while the database cursor is read,
+ * so neither side has to hold the whole catalog in memory
+ */
+@RestController
+public class CatalogExportController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final CatalogExporter catalogExporter;
+
+    public CatalogExportController(CatalogExporter catalogExporter) {
+        this.catalogExporter = catalogExporter;
+    }
+
+    /**
+     * Exports all books as JSON lines, one book per line
+     * @return Streaming response body
+     */
+    @GetMapping("/export/books.ndjson")
+    public ResponseEntity<StreamingResponseBody> exportJsonLines() {
+        return export(CatalogFormat.JSON_LINES, NDJSON, "books.ndjson");
+    }
+
+    /**
+     * Exports all books as CSV with a header row
+     * @return Streaming response body
+     */
+    @GetMapping("/export/books.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return export(CatalogFormat.CSV, CSV, "books.csv");
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(CatalogFormat format, MediaType mediaType, String fileName) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(out -> catalogExporter.export(format, out));
+    }
+}
@@ -0,0 +1,59 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.store.BookVersionConflictException;
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Turns resolver failures the client can act on into GraphQL errors with a meaningful message
+ * Other exceptions keep Spring GraphQL's default INTERNAL_ERROR handling
+ */
+@Component
+public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapter {
+    private final ResolverExecutor resolverExecutor;
+
+    public GraphQlExceptionResolver(ResolverExecutor resolverExecutor) {
+        this.resolverExecutor = resolverExecutor;
+    }
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (ex instanceof TimeoutException) {
+            return error(env, ErrorType.INTERNAL_ERROR, "Request did not complete within " + resolverExecutor.getTimeout());
+        }
+        if (ex instanceof RejectedExecutionException) {
+            return error(env, ErrorType.INTERNAL_ERROR, "Server is busy, retry later");
+        }
+        if (ex instanceof BookVersionConflictException) {
+            return error(env, BookErrorType.CONFLICT, ex.getMessage());
+        }
+        if (ex instanceof IllegalArgumentException) {
+            // Thrown by the validation of client input, e.g. a malformed cursor or a missing title
+            return error(env, ErrorType.BAD_REQUEST, ex.getMessage());
+        }
+        return null;
+    }
+
+    private static GraphQLError error(DataFetchingEnvironment env, ErrorClassification errorType, String message) {
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(errorType)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Error classifications that Spring GraphQL's {@link ErrorType} does not cover
+     */
+    enum BookErrorType implements ErrorClassification {
+        /** The client's change was based on a stale version of the book */
+        CONFLICT
+    }
+}
@@ -0,0 +1,293 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.cache.DocumentCache;
+import com.acme.bookmanagement.cache.GraphQlResponseCache;
+import com.acme.bookmanagement.cache.GraphQlResponseCache.CachedResponse;
+import com.acme.bookmanagement.cache.GraphQlResponseCache.Key;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import graphql.GraphQLException;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.parser.Parser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serves GraphQL queries sent with GET and caches their serialized responses.
+ * Spring GraphQL only accepts POST, so a GET request is handed on as the equivalent JSON POST;
+ * operations other than queries are rejected with 405, since GET must not change anything.
+ * Successful responses are kept in the {@link GraphQlResponseCache} and carry an ETag derived from the
+ * catalog version, so a repeated poll is answered with 304 or the cached bytes without running any resolver.
+ * Queries selecting a field listed in bookmanagement.cache.responses.uncacheable-fields,
+ * whose result does not follow the catalog version, are executed but never cached.
+ * Runs before the {@link PersistedQueryFilter}, so hash-only persisted queries work with GET as well.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class GraphQlHttpCacheFilter extends OncePerRequestFilter {
+    /** Request attribute holding the state of a cacheable request until its response is complete */
+    private static final String PENDING = GraphQlHttpCacheFilter.class.getName() + ".PENDING";
+
+    /** Depth at which nested fragments are no longer inspected and the query is treated as uncacheable */
+    private static final int MAX_FRAGMENT_DEPTH = 10;
+
+    private final GraphQlResponseCache responseCache;
+    private final DocumentCache documentCache;
+    private final ObjectMapper objectMapper;
+    private final String graphQlPath;
+    private final Set<String> uncacheableFields;
+
+    public GraphQlHttpCacheFilter(GraphQlResponseCache responseCache,
+                                  DocumentCache documentCache,
+                                  ObjectMapper objectMapper,
+                                  @Value("${spring.graphql.path:/graphql}") String graphQlPath,
+                                  @Value("${bookmanagement.cache.responses.uncacheable-fields:cacheStatistics}")
+                                  Set<String> uncacheableFields) {
+        this.responseCache = responseCache;
+        this.documentCache = documentCache;
+        this.objectMapper = objectMapper;
+        this.graphQlPath = graphQlPath;
+        this.uncacheableFields = uncacheableFields;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getAttribute(PENDING) == null
+                && !("GET".equals(request.getMethod()) && graphQlPath.equals(request.getRequestURI()));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The GraphQL handler completes asynchronously; the response is stored when the async dispatch ends
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            chain.doFilter(request, response);
+        } else if (!handleGet(request, response, chain)) {
+            return;
+        }
+        if (!isAsyncStarted(request)) {
+            complete(request, response);
+        }
+    }
+
+    /**
+     * Answers a GET request from the cache or passes it on as a POST.
+     * @return false if the response is already complete
+     */
+    private boolean handleGet(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Key key = new Key(request.getParameter("query"), request.getParameter("operationName"),
+                request.getParameter("variables"), request.getParameter("extensions"));
+
+        // Read the version before anything else, so a concurrent write leaves the entry stale rather than wrong
+        long version = responseCache.currentVersion();
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            if (!notModified(request, response, responseCache.etag(cached.version()))) {
+                write(response, cached);
+            }
+            return false;
+        }
+
+        Cacheability cacheability = cacheability(key);
+        if (cacheability == Cacheability.NOT_A_QUERY) {
+            response.setHeader(HttpHeaders.ALLOW, "POST");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Only queries can be sent with GET");
+            return false;
+        }
+        if (cacheability == Cacheability.CACHEABLE && notModified(request, response, responseCache.etag(version))) {
+            return false;
+        }
+
+        byte[] body;
+        try {
+            body = postBody(key);
+        } catch (JsonProcessingException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "variables and extensions must be JSON objects");
+            return false;
+        }
+        if (cacheability == Cacheability.CACHEABLE) {
+            request.setAttribute(PENDING, new Pending(key, version));
+            chain.doFilter(BufferedBodyRequest.jsonPost(request, body), new ContentCachingResponseWrapper(response));
+        } else {
+            chain.doFilter(BufferedBodyRequest.jsonPost(request, body), response);
+        }
+        return true;
+    }
+
+    /**
+     * Stores the buffered response of a cacheable request and sends it to the client.
+     */
+    private void complete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Pending pending = (Pending) request.getAttribute(PENDING);
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (pending == null || wrapper == null) {
+            return;
+        }
+        request.removeAttribute(PENDING);
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && !hasErrors(body)) {
+            responseCache.put(pending.key(), new CachedResponse(pending.version(), wrapper.getContentType(), body));
+            wrapper.setHeader(HttpHeaders.ETAG, responseCache.etag(pending.version()));
+            wrapper.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static boolean notModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !ifNoneMatch.contains(etag)) {
+            return false;
+        }
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        return true;
+    }
+
+    private void write(HttpServletResponse response, CachedResponse cached) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setHeader(HttpHeaders.ETAG, responseCache.etag(cached.version()));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private byte[] postBody(Key key) throws JsonProcessingException {
+        ObjectNode body = objectMapper.createObjectNode();
+        if (key.query() != null) {
+            body.put("query", key.query());
+        }
+        if (key.operationName() != null) {
+            body.put("operationName", key.operationName());
+        }
+        if (key.variables() != null) {
+            body.set("variables", objectMapper.readTree(key.variables()));
+        }
+        if (key.extensions() != null) {
+            body.set("extensions", objectMapper.readTree(key.extensions()));
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private boolean hasErrors(byte[] body) {
+        try {
+            return objectMapper.readTree(body).has("errors");
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private Cacheability cacheability(Key key) {
+        Document document = document(key);
+        OperationDefinition operation = document == null ? null : operation(document, key.operationName());
+        if (operation == null) {
+            // Unknown persisted query or invalid document; execution answers with the error
+            return Cacheability.UNCACHEABLE;
+        }
+        if (operation.getOperation() != OperationDefinition.Operation.QUERY) {
+            return Cacheability.NOT_A_QUERY;
+        }
+        return selectsUncacheableField(document, operation.getSelectionSet(), 0)
+                ? Cacheability.UNCACHEABLE : Cacheability.CACHEABLE;
+    }
+
+    /**
+     * Looks the document up in the document cache, parsing it only if it has not been executed before.
+     */
+    private Document document(Key key) {
+        String hash = key.query() != null ? DocumentCache.hash(key.query()) : persistedQueryHash(key.extensions());
+        Document document = hash == null ? null : documentCache.cachedDocument(hash);
+        if (document == null && key.query() != null) {
+            try {
+                document = Parser.parse(key.query());
+            } catch (GraphQLException e) {
+                return null;
+            }
+        }
+        return document;
+    }
+
+    private String persistedQueryHash(String extensions) {
+        if (extensions == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(extensions).path("persistedQuery").path("sha256Hash").textValue();
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static OperationDefinition operation(Document document, String operationName) {
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName == null) {
+            return operations.size() == 1 ? operations.get(0) : null;
+        }
+        return operations.stream()
+                .filter(operation -> operationName.equals(operation.getName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean selectsUncacheableField(Document document, SelectionSet selectionSet, int depth) {
+        if (depth > MAX_FRAGMENT_DEPTH) {
+            return true;
+        }
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field field && uncacheableFields.contains(field.getName())) {
+                return true;
+            }
+            if (selection instanceof InlineFragment fragment
+                    && selectsUncacheableField(document, fragment.getSelectionSet(), depth + 1)) {
+                return true;
+            }
+            if (selection instanceof FragmentSpread spread) {
+                FragmentDefinition fragment = document.getDefinitionsOfType(FragmentDefinition.class).stream()
+                        .filter(definition -> definition.getName().equals(spread.getName()))
+                        .findFirst()
+                        .orElse(null);
+                if (fragment == null || selectsUncacheableField(document, fragment.getSelectionSet(), depth + 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private enum Cacheability {
+        CACHEABLE,
+        UNCACHEABLE,
+        NOT_A_QUERY
+    }
+
+    private record Pending(Key key, long version) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.acme.bookmanagement.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets Automatic Persisted Query requests through the GraphQL HTTP endpoint.
+ * Spring GraphQL rejects a request without a query before graphql-java sees it, so a POST that only
+ * carries {@code extensions.persistedQuery} gets graphql-java's persisted query marker as its query;
+ * the {@link com.acme.bookmanagement.cache.DocumentCache} then resolves the document from the hash.
+ */
+@Component
+public class PersistedQueryFilter extends OncePerRequestFilter {
+    private final ObjectMapper objectMapper;
+    private final String graphQlPath;
+
+    public PersistedQueryFilter(ObjectMapper objectMapper,
+                                @Value("${spring.graphql.path:/graphql}") String graphQlPath) {
+        this.objectMapper = objectMapper;
+        this.graphQlPath = graphQlPath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !graphQlPath.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        chain.doFilter(new BufferedBodyRequest(request, withMarkerQuery(body)), response);
+    }
+
+    private byte[] withMarkerQuery(byte[] body) {
+        try {
+            if (objectMapper.readTree(body) instanceof ObjectNode request
+                    && !request.hasNonNull("query")
+                    && request.path("extensions").has("persistedQuery")) {
+                request.put("query", PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+                return objectMapper.writeValueAsBytes(request);
+            }
+        } catch (JsonProcessingException e) {
+            // Not our concern; Spring GraphQL answers malformed requests itself
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,95 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookPage;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.service.ReactiveBookService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * GraphQL Controller for the basic book reads on the non-blocking R2DBC stack
+ * Active with the "reactive" profile, in place of {@link BookQueryController}
+ */
+@Controller
+@Profile("reactive")
+public class ReactiveBookController {
+    private final ReactiveBookService bookService;
+
+    public ReactiveBookController(ReactiveBookService bookService) {
+        this.bookService = bookService;
+    }
+
+    /**
+     * Retrieves all books in the system
+     * @return Flux of all books
+     */
+    @QueryMapping
+    public Flux<Book> findAllBooks() {
+        return bookService.findAll();
+    }
+
+    /**
+     * Finds a specific book by its ID
+     * @param id The book's unique identifier
+     * @return Mono of the book, empty if not found
+     */
+    @QueryMapping
+    public Mono<Book> findBookById(@Argument Integer id) {
+        return bookService.findById(id);
+    }
+
+    /**
+     * Finds books published within a specific date range
+     * @param startDate Start date in ISO format (yyyy-MM-dd)
+     * @param endDate End date in ISO format (yyyy-MM-dd)
+     * @return Flux of books within the date range
+     */
+    @QueryMapping
+    public Flux<Book> findBooksByDateRange(
+            @Argument String startDate,
+            @Argument String endDate) {
+        return bookService.findByDateRange(
+                LocalDate.parse(startDate),
+                LocalDate.parse(endDate));
+    }
+
+    /**
+     * Retrieves a paginated and filtered list of books
+     * @param page Zero-based page number
+     * @param size Number of items per page
+     * @param sortField Field to sort by
+     * @param sortOrder Sort direction
+     * @param titleFilter Optional title filter
+     * @param authorFilter Optional author filter
+     * @return Mono of the BookPage containing results and pagination metadata
+     */
+    @QueryMapping
+    public Mono<BookPage> findAllBooksWithPagination(
+            @Argument Integer page,
+            @Argument Integer size,
+            @Argument SortField sortField,
+            @Argument SortOrder sortOrder,
+            @Argument String titleFilter,
+            @Argument String authorFilter) {
+        return bookService.findAllWithPagination(page, size, sortField, sortOrder, titleFilter, authorFilter);
+    }
+
+    /**
+     * Streams all books in ID order to a subscriber
+     * Rows are pulled from the database cursor only as fast as the subscriber requests them
+     * @return Flux of all books
+     */
+    @SubscriptionMapping
+    public Flux<Book> streamAllBooks() {
+        return bookService.streamAll();
+    }
+}
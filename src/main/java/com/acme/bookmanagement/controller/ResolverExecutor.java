@@ -0,0 +1,92 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.metrics.SqlStatistics;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking resolvers on a bounded pool, so graphql-java can resolve the independent
+ * root fields of one operation concurrently: the operation then takes as long as its slowest field.
+ * In the virtual thread execution mode each resolver gets a virtual thread of its own instead, and
+ * database access is bounded by the JDBC concurrency limit rather than by the number of threads.
+ * All async fields of a request share one deadline, counted from the first of them.
+ */
+@Component
+public class ResolverExecutor implements DisposableBean {
+    /** GraphQLContext key of the request's deadline, in {@link System#nanoTime()} units */
+    static final String DEADLINE = ResolverExecutor.class.getName() + ".deadline";
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    /**
+     * Constructs a new ResolverExecutor.
+     * @param executionMode The request execution mode; virtual runs every resolver on its own virtual thread
+     * @param poolSize Number of resolver threads in platform mode, by default the size of the JDBC pool,
+     *                 since more threads only add waiting
+     * @param queueCapacity Number of resolvers allowed to wait for a thread before new ones are rejected
+     * @param timeout Time a request's async resolvers may take in total
+     */
+    public ResolverExecutor(@Value("${bookmanagement.execution.mode:platform}") String executionMode,
+                            @Value("${bookmanagement.graphql.async.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+                            int poolSize,
+                            @Value("${bookmanagement.graphql.async.queue-capacity:1000}") int queueCapacity,
+                            @Value("${bookmanagement.graphql.async.timeout:10s}") Duration timeout) {
+        this.executor = "virtual".equals(executionMode) ?
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("graphql-resolver-", 0).factory()) :
+                new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("graphql-resolver-"));
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs a resolver on the pool.
+     * The caller's {@link SqlStatistics} stay bound while the resolver runs and while its result is completed.
+     * @param environment Environment of the field being resolved
+     * @param resolver The blocking resolver
+     * @return Future of the resolver's result; fails with a TimeoutException once the request's deadline
+     * has passed and with a RejectedExecutionException if the platform pool is saturated
+     */
+    public <T> CompletableFuture<T> supply(DataFetchingEnvironment environment, Supplier<T> resolver) {
+        long deadline = environment.getGraphQlContext().computeIfAbsent(DEADLINE, key -> System.nanoTime() + timeout.toNanos());
+        SqlStatistics sql = SqlStatistics.current();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                SqlStatistics previous = SqlStatistics.bind(sql);
+                try {
+                    future.complete(resolver.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    SqlStatistics.bind(previous);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future.orTimeout(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
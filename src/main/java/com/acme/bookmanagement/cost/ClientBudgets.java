@@ -0,0 +1,64 @@
+package com.acme.bookmanagement.cost;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets of query cost.
+ * Every client starts with a full bucket of {@code capacity} units that refills at a steady rate;
+ * an operation is only executed if its estimated cost can be taken from the bucket. A client can
+ * burst up to the capacity, but cannot sustain more than the refill rate, however cheap each query is.
+ * Buckets of clients that have been idle for longer than a full refill are dropped.
+ */
+public class ClientBudgets {
+    private final long capacity;
+    private final double refillPerNano;
+    private final Cache<String, TokenBucket> buckets;
+
+    /**
+     * Constructs a new ClientBudgets.
+     * @param capacity Maximum cost a client can spend in a burst
+     * @param refillPerSecond Cost a client can spend per second in the long run
+     */
+    public ClientBudgets(long capacity, long refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(Math.max(1, capacity / Math.max(1, refillPerSecond))))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Takes the cost of an operation from the client's bucket if it holds enough.
+     * @param clientId The client executing the operation
+     * @param cost The estimated cost of the operation
+     * @return Zero if the cost was taken, otherwise the time until the bucket will hold enough
+     */
+    public Duration tryConsume(String clientId, long cost) {
+        return buckets.get(clientId, key -> new TokenBucket(capacity)).tryConsume(Math.min(cost, capacity));
+    }
+
+    private final class TokenBucket {
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(long tokens) {
+            this.tokens = tokens;
+        }
+
+        private synchronized Duration tryConsume(long cost) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+            if (tokens >= cost) {
+                tokens -= cost;
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos((long) Math.ceil((cost - tokens) / refillPerNano));
+        }
+    }
+}
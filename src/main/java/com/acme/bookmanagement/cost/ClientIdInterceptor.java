@@ -0,0 +1,48 @@
+package com.acme.bookmanagement.cost;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Identifies the client of every GraphQL request for the {@link ClientBudgets}.
+ * A client is its authenticated principal, or else its remote address. Nothing the client declares
+ * about itself is used, since a caller could otherwise get a fresh budget with every request.
+ * Behind a proxy, the remote address is only the client's if forwarded headers are applied
+ * (server.forward-headers-strategy).
+ */
+@Component
+public class ClientIdInterceptor implements WebGraphQlInterceptor {
+    /** Key of the client ID in the GraphQLContext */
+    public static final String CLIENT_ID = "clientId";
+
+    /** Client ID of requests whose origin is unknown */
+    public static final String ANONYMOUS = "anonymous";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        // The interceptor chain is entered on the servlet thread, where the request is still bound
+        String clientId = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes ?
+                clientId(attributes.getRequest()) : ANONYMOUS;
+        request.configureExecutionInput((input, builder) -> builder.graphQLContext(Map.of(CLIENT_ID, clientId)).build());
+        return chain.next(request);
+    }
+
+    /**
+     * Gets the ID a request's cost is charged to.
+     * @param request The HTTP request
+     * @return The principal's name if the request is authenticated, otherwise its remote address
+     */
+    static String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,140 @@
+package com.acme.bookmanagement.cost;
+
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the cost of a GraphQL operation before any resolver runs.
+ * Every field costs one unit plus the cost of its selections, multiplied by the number of
+ * items the field is expected to return:
+ * <ul>
+ *     <li>the value of a size, first, last or limit argument on the field or, for the lists of a page
+ *     or a delta, on its parent</li>
+ *     <li>the estimated book count times a selectivity for the unbounded root list fields</li>
+ *     <li>the average number of books per author for {@code Author.books}</li>
+ *     <li>one for anything else</li>
+ * </ul>
+ * So {@code findAllBooks { id title }} costs 3 per book in the catalog, and a page of 20 costs
+ * about 20 times its selection, independent of the catalog size.
+ */
+public final class QueryCostCalculator {
+    /** Arguments that bound the number of returned items */
+    private static final Set<String> LIMIT_ARGUMENTS = Set.of("size", "first", "last", "limit");
+
+    /** List fields of a page or delta, bounded by the limit argument of the field that returned it */
+    private static final Set<String> PAGE_LISTS = Set.of("content", "edges", "upserts", "deletions");
+
+    /** Page size of the cursor connection when neither first nor last is given */
+    private static final long DEFAULT_PAGE_SIZE = 10;
+
+    /** Expected fraction of the catalog returned by the unbounded root list fields */
+    private static final Map<String, Double> SELECTIVITY = Map.of(
+            "findAllBooks", 1.0,
+            "findAllBooksSorted", 1.0,
+            "findAllBooksSortedByTitle", 1.0,
+            "findAllBooksSortedByDate", 1.0,
+            "getAllBookTitles", 1.0,
+            "findBooksByDateRange", 0.25,
+            "findBooksByTitleContaining", 0.1,
+            "findBooksByAuthorContaining", 0.1);
+
+    private QueryCostCalculator() {
+    }
+
+    /**
+     * Estimates the cost of one operation of a document.
+     * @param schema The schema the document was validated against
+     * @param document The parsed document
+     * @param operationName The operation to estimate (can be null if the document has only one)
+     * @param variables The coerced variables of the request
+     * @param statistics Row count estimates of the catalog tables
+     * @return The estimated cost and the largest requested page
+     */
+    public static QueryCost estimate(GraphQLSchema schema, Document document, String operationName,
+                                     CoercedVariables variables, TableStatistics.Snapshot statistics) {
+        // Costs of the selections of each field, keyed by the field's environment; the root fields use the null key
+        Map<QueryVisitorFieldEnvironment, Long> selectionCosts = new HashMap<>();
+        long[] largestPage = {0};
+        QueryTraverser.newQueryTraverser()
+                .schema(schema)
+                .document(document)
+                .operationName(operationName)
+                .coercedVariables(variables)
+                .build()
+                .visitPostOrder(new QueryVisitorStub() {
+                    @Override
+                    public void visitField(QueryVisitorFieldEnvironment environment) {
+                        Long limit = limit(environment.getArguments());
+                        if (limit != null) {
+                            largestPage[0] = Math.max(largestPage[0], limit);
+                        }
+                        long items = items(environment, limit, statistics);
+                        long cost = multiply(items, add(1, selectionCosts.getOrDefault(environment, 0L)));
+                        selectionCosts.merge(environment.getParentEnvironment(), cost, QueryCostCalculator::add);
+                    }
+                });
+        return new QueryCost(selectionCosts.getOrDefault(null, 0L), largestPage[0]);
+    }
+
+    private static long items(QueryVisitorFieldEnvironment environment, Long limit,
+                              TableStatistics.Snapshot statistics) {
+        if (!(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()) instanceof GraphQLList)) {
+            return 1;
+        }
+        if (limit != null) {
+            return Math.max(0, limit);
+        }
+        String name = environment.getFieldDefinition().getName();
+        QueryVisitorFieldEnvironment parent = environment.getParentEnvironment();
+        if (parent == null) {
+            return Math.max(1, Math.round(statistics.books() * SELECTIVITY.getOrDefault(name, 0.0)));
+        }
+        if (PAGE_LISTS.contains(name)) {
+            Long parentLimit = limit(parent.getArguments());
+            return parentLimit != null ? Math.max(0, parentLimit) : DEFAULT_PAGE_SIZE;
+        }
+        if ("Author".equals(environment.getFieldsContainer().getName()) && "books".equals(name)) {
+            return Math.max(1, (statistics.books() + statistics.authors() - 1) / Math.max(1, statistics.authors()));
+        }
+        return 1;
+    }
+
+    private static Long limit(Map<String, Object> arguments) {
+        Long limit = null;
+        for (String argument : LIMIT_ARGUMENTS) {
+            if (arguments.get(argument) instanceof Number value) {
+                limit = Math.max(limit != null ? limit : 0, value.longValue());
+            }
+        }
+        return limit;
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    /**
+     * Estimated cost of an operation.
+     * @param cost Estimated cost in units of one resolved field
+     * @param largestPage Largest value of any size, first, last or limit argument, or 0 if there is none
+     */
+    public record QueryCost(long cost, long largestPage) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.acme.bookmanagement.cost;
+
+import com.acme.bookmanagement.cost.QueryCostCalculator.QueryCost;
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Rejects operations before execution that would be too expensive to run.
+ * An operation is aborted if it requests a page larger than the maximum page size, if its estimated
+ * cost (see {@link QueryCostCalculator}) exceeds the maximum per operation, or if the client's
+ * budget does not cover it. The first two are fixed limits; the last one adapts to how much the client
+ * has recently spent, so one heavy caller is slowed down without affecting anyone else.
+ */
+@Component
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    private final ObjectProvider<TableStatistics> tableStatistics;
+    private final ClientBudgets clientBudgets;
+    private final long maxOperationCost;
+    private final long maxPageSize;
+
+    /**
+     * Constructs a new QueryCostInstrumentation.
+     * @param tableStatistics Row count estimates; operations are priced as if the catalog were empty when there are
+     *                        none, as in slice tests
+     * @param maxOperationCost Maximum estimated cost of a single operation
+     * @param maxPageSize Maximum value of a size, first, last or limit argument
+     * @param clientBudget Maximum cost a client can spend in a burst
+     * @param clientRefillPerSecond Cost a client can spend per second in the long run
+     */
+    public QueryCostInstrumentation(ObjectProvider<TableStatistics> tableStatistics,
+                                    @Value("${bookmanagement.cost.max-operation-cost:100000}") long maxOperationCost,
+                                    @Value("${bookmanagement.cost.max-page-size:100}") long maxPageSize,
+                                    @Value("${bookmanagement.cost.client-budget:500000}") long clientBudget,
+                                    @Value("${bookmanagement.cost.client-refill-per-second:50000}")
+                                    long clientRefillPerSecond) {
+        this.tableStatistics = tableStatistics;
+        this.clientBudgets = new ClientBudgets(clientBudget, clientRefillPerSecond);
+        this.maxOperationCost = maxOperationCost;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        TableStatistics statistics = tableStatistics.getIfAvailable();
+        QueryCost cost = QueryCostCalculator.estimate(context.getGraphQLSchema(), context.getDocument(),
+                context.getOperationDefinition().getName(), context.getCoercedVariables(),
+                statistics != null ? statistics.current() : TableStatistics.Snapshot.EMPTY);
+
+        if (cost.largestPage() > maxPageSize) {
+            throw new AbortExecutionException("Page size " + cost.largestPage()
+                    + " exceeds the maximum of " + maxPageSize);
+        }
+        if (cost.cost() > maxOperationCost) {
+            throw new AbortExecutionException("Estimated query cost " + cost.cost()
+                    + " exceeds the maximum of " + maxOperationCost
+                    + "; page through large results with findAllBooksWithCursor");
+        }
+        String clientId = context.getGraphQLContext().getOrDefault(ClientIdInterceptor.CLIENT_ID,
+                ClientIdInterceptor.ANONYMOUS);
+        Duration retryAfter = clientBudgets.tryConsume(clientId, cost.cost());
+        if (!retryAfter.isZero()) {
+            throw new AbortExecutionException("Query budget exhausted; retry in "
+                    + Math.max(1, retryAfter.toMillis()) + " ms");
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+}
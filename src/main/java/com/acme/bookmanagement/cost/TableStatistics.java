@@ -0,0 +1,77 @@
+package com.acme.bookmanagement.cost;
+
+import com.acme.bookmanagement.store.BookStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Row count estimates of the catalog, used to price list fields before they are resolved.
+ * The books are counted by the {@link BookStore}, whichever engine keeps them; the authors are read from the
+ * database's own table statistics rather than with COUNT(*). Both are refreshed at most once per refresh
+ * interval, so pricing a query costs no SQL on the hot path.
+ */
+@Component
+public class TableStatistics {
+    private final BookStore bookStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final long refreshNanos;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs a new TableStatistics.
+     * @param bookStore Used to count the books
+     * @param jdbcTemplate Used to read the statistics of the author table
+     * @param refreshInterval Time after which the estimates are read again
+     */
+    public TableStatistics(BookStore bookStore,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${bookmanagement.cost.statistics-refresh:1m}") Duration refreshInterval) {
+        this.bookStore = bookStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Gets the current estimates, reading them again if they are older than the refresh interval.
+     * @return Row count estimates
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.readAt() > refreshNanos) {
+            current = new Snapshot(bookStore.count(), estimateRows("author"), System.nanoTime());
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private long estimateRows(String table) {
+        try {
+            Long rows = jdbcTemplate.queryForObject(
+                    "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES "
+                            + "where TABLE_SCHEMA = CURRENT_SCHEMA and TABLE_NAME = ?",
+                    Long.class, table);
+            if (rows != null) {
+                return rows;
+            }
+        } catch (DataAccessException e) {
+            // No such statistics column on this database; fall back to counting
+        }
+        Long rows = jdbcTemplate.queryForObject("select count(*) from \"" + table + "\"", Long.class);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Row count estimates at one point in time.
+     * @param books Estimated number of books
+     * @param authors Estimated number of authors
+     * @param readAt Value of {@link System#nanoTime()} when the estimates were read
+     */
+    public record Snapshot(long books, long authors, long readAt) {
+        /** Estimates used when no statistics are available, e.g. in slice tests */
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0);
+    }
+}
@@ -0,0 +1,145 @@
+package com.acme.bookmanagement.metrics;
+
+import com.acme.bookmanagement.model.BookConnection;
+import com.acme.bookmanagement.model.BookPage;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per-request SQL metrics and the number of rows returned by every root field.
+ * Resolver latency itself is measured by the {@code graphql.datafetcher} observation that
+ * Spring Boot registers; this adds what only the application can count:
+ * <ul>
+ *     <li>{@code graphql.request.sql.statements}: SQL statements per operation</li>
+ *     <li>{@code graphql.request.sql.time}: time spent executing them</li>
+ *     <li>{@code graphql.request.sql.connection.wait}: time spent acquiring JDBC connections</li>
+ *     <li>{@code graphql.field.rows}: rows returned per root field</li>
+ * </ul>
+ * The request metrics are tagged with the operation type (query, mutation or subscription, or unknown for
+ * requests that fail before execution) rather than the operation name, which clients choose freely and would
+ * register new meters without bound.
+ */
+@Component
+public class GraphQlMetricsInstrumentation extends SimplePerformantInstrumentation {
+    private final MeterRegistry registry;
+
+    /**
+     * Constructs a new GraphQlMetricsInstrumentation.
+     * @param registry The application's registry; the global one is used when there is none, as in slice tests
+     */
+    public GraphQlMetricsInstrumentation(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new RequestState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        RequestState request = (RequestState) state;
+        SqlStatistics sql = request.sql;
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> {
+            String operation = request.operationType;
+            DistributionSummary.builder("graphql.request.sql.statements")
+                    .description("SQL statements executed per GraphQL operation")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(sql.getStatements());
+            Timer.builder("graphql.request.sql.time")
+                    .description("Time spent executing SQL per GraphQL operation")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(sql.getExecutionNanos(), TimeUnit.NANOSECONDS);
+            Timer.builder("graphql.request.sql.connection.wait")
+                    .description("Time spent waiting for JDBC connections per GraphQL operation")
+                    .tag("operation", operation)
+                    .register(registry)
+                    .record(sql.getConnectionAcquisitionNanos(), TimeUnit.NANOSECONDS);
+        });
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        // Synchronous resolvers and batch loaders all run before the operation is dispatched,
+        // on the thread that started it
+        RequestState request = (RequestState) state;
+        request.operationType = parameters.getExecutionContext().getOperationDefinition().getOperation().name()
+                .toLowerCase(Locale.ROOT);
+        SqlStatistics previous = SqlStatistics.bind(request.sql);
+        return new InstrumentationContext<>() {
+            @Override
+            public void onDispatched(CompletableFuture<ExecutionResult> result) {
+                SqlStatistics.bind(previous);
+            }
+
+            @Override
+            public void onCompleted(ExecutionResult result, Throwable t) {
+            }
+        };
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters,
+                                                          InstrumentationState state) {
+        if (parameters.getExecutionStepInfo().getPath().getLevel() != 1) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        String field = parameters.getExecutionStepInfo().getField().getName();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> {
+            if (throwable == null) {
+                DistributionSummary.builder("graphql.field.rows")
+                        .description("Rows returned by a GraphQL root field")
+                        .tag("field", field)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(rows(result));
+            }
+        });
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof BookPage page) {
+            return page.getContent().size();
+        }
+        if (result instanceof BookConnection connection) {
+            return connection.getEdges().size();
+        }
+        return result != null ? 1 : 0;
+    }
+
+    private static final class RequestState implements InstrumentationState {
+        private final SqlStatistics sql = new SqlStatistics();
+        private volatile String operationType = "unknown";
+    }
+}
@@ -0,0 +1,60 @@
+package com.acme.bookmanagement.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements executed on behalf of one GraphQL request, and the time spent on them.
+ * The statistics of the running request are bound to the executing thread, where
+ * {@link SqlStatisticsListener} picks them up; threads running async resolvers must bind them too.
+ */
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+    private final LongAdder connectionAcquisitionNanos = new LongAdder();
+
+    /**
+     * Gets the statistics bound to the current thread.
+     * @return The bound statistics, or null outside a request
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds statistics to the current thread.
+     * @param statistics The statistics to bind, or null to unbind
+     * @return The previously bound statistics, to restore afterwards
+     */
+    public static SqlStatistics bind(SqlStatistics statistics) {
+        SqlStatistics previous = CURRENT.get();
+        if (statistics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics);
+        }
+        return previous;
+    }
+
+    void recordStatement(long nanos) {
+        statements.increment();
+        executionNanos.add(nanos);
+    }
+
+    void recordConnectionAcquisition(long nanos) {
+        connectionAcquisitionNanos.add(nanos);
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos.sum();
+    }
+
+    public long getConnectionAcquisitionNanos() {
+        return connectionAcquisitionNanos.sum();
+    }
+}
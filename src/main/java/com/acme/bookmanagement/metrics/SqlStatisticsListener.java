@@ -0,0 +1,53 @@
+package com.acme.bookmanagement.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener feeding {@link SqlStatistics}.
+ * Registered through {@code hibernate.session.events.auto}, so Hibernate creates one per session;
+ * a session is only used by one thread at a time, which makes the start timestamps safe to keep in fields.
+ */
+public class SqlStatisticsListener extends BaseSessionEventListener {
+    private long statementStart;
+    private long batchStart;
+    private long acquisitionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(System.nanoTime() - statementStart);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(System.nanoTime() - batchStart);
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordConnectionAcquisition(System.nanoTime() - acquisitionStart);
+        }
+    }
+}
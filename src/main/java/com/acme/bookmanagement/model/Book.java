@@ -4,17 +4,40 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Where;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import jakarta.persistence.Column;
 
 /**
  * Entity class representing a book in the book management system.
  * This class maps to the book table in the database.
+ * The schema, including the indexes listed here, is created by the Flyway migrations in db/migration.
+ * Deleted books are kept as tombstones so that mirrors of the catalog can learn about the deletion;
+ * every entity query filters them out, only {@code BookRepository.findChangedSince} returns them.
  */
 @Entity
+@Table(name = "book", indexes = {
+    @Index(name = "idx_book_published_date", columnList = "published_date, id"),
+    @Index(name = "idx_book_title", columnList = "title, id"),
+    @Index(name = "idx_book_author", columnList = "author, id"),
+    @Index(name = "idx_book_title_lower", columnList = "title_lower, id"),
+    @Index(name = "idx_book_author_lower", columnList = "author_lower, id"),
+    @Index(name = "idx_book_updated_at", columnList = "updated_at, id")
+})
+@Where(clause = "\"deleted\" = false")
 public class Book {
+    /** Assigned from a pooled sequence, so inserts need one sequence call per allocation block */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Integer id;
     
     /** Title of the book, required field */
@@ -26,7 +49,7 @@ public class Book {
     private String author;
     
     /** Publication date of the book, required field */
-    @Column(nullable = false)
+    @Column(name = "published_date", nullable = false)
     private LocalDate publishedDate;
     
     /** Book description, limited to 2000 characters */
@@ -37,6 +60,26 @@ public class Book {
     @Column(length = 1000)
     private String imageUrl;
 
+    /** Lowercase title, generated by the database and only used in queries */
+    @Column(name = "title_lower", insertable = false, updatable = false)
+    private String titleLower;
+
+    /** Lowercase author, generated by the database and only used in queries */
+    @Column(name = "author_lower", insertable = false, updatable = false)
+    private String authorLower;
+
+    /** Optimistic lock version, incremented on every update including the deletion */
+    @Version
+    private Long version;
+
+    /** Time of the last change in UTC, including the deletion; the watermark of the delta sync */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /** Tombstone flag, set instead of deleting the row */
+    @Column(nullable = false)
+    private boolean deleted;
+
     /**
      * Default constructor required by JPA
      */
@@ -170,5 +213,62 @@ public class Book {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
-}
 
+    /**
+     * Gets the book's version
+     * @return The optimistic lock version, null until the book is first saved
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the book's version
+     * @param version The version the book was read at
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets the time of the book's last change
+     * @return The time of the last change in UTC
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time of the book's last change
+     * @param updatedAt The time of the change in UTC
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Checks whether the book is a tombstone
+     * @return True if the book has been deleted
+     */
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Sets the tombstone flag
+     * @param deleted True if the book has been deleted
+     */
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * Stamps books inserted without going through the writer, which sets the time itself
+     */
+    @PrePersist
+    void stampUpdatedAt() {
+        if (updatedAt == null) {
+            updatedAt = LocalDateTime.now(ZoneOffset.UTC);
+        }
+    }
+}
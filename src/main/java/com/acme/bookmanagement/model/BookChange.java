@@ -0,0 +1,94 @@
+package com.acme.bookmanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing one entry of the catalog change log.
+ * This class maps to the book_change table, which is only ever appended to.
+ * Entries are written in the same transaction as the book change they describe.
+ */
+@Entity
+@Table(name = "book_change")
+public class BookChange {
+    /** Position in the log; consumers resume from the last sequence they have seen */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_change_seq")
+    @SequenceGenerator(name = "book_change_seq", sequenceName = "book_change_seq", allocationSize = 50)
+    private Long sequence;
+
+    /** ID of the changed book */
+    @Column(name = "book_id", nullable = false)
+    private Integer bookId;
+
+    /** Whether the book was created or updated, or deleted */
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private ChangeType type;
+
+    /** Time of the change, in UTC */
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    /**
+     * Default constructor required by JPA
+     */
+    public BookChange() {
+    }
+
+    /**
+     * Creates a new, not yet persisted change log entry
+     * @param bookId The ID of the changed book
+     * @param type The kind of change
+     * @param changedAt The time of the change, in UTC
+     */
+    public BookChange(Integer bookId, ChangeType type, LocalDateTime changedAt) {
+        this.bookId = bookId;
+        this.type = type;
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * Gets the entry's position in the log
+     * @return The sequence number, assigned on insert
+     */
+    public Long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the ID of the changed book
+     * @return The book ID
+     */
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    /**
+     * Gets the kind of change
+     * @return UPSERT or DELETE
+     */
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the time of the change
+     * @return The time of the change, in UTC
+     */
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
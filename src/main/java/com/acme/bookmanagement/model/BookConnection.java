@@ -0,0 +1,55 @@
+package com.acme.bookmanagement.model;
+
+import java.util.List;
+
+/**
+ * Represents a cursor-paginated (Relay-style) result of books.
+ * Unlike {@link BookPage}, the total count is optional and only
+ * computed when the client asks for it.
+ */
+public class BookConnection {
+    /** Books of the current slice, each with its cursor */
+    private final List<BookEdge> edges;
+
+    /** Cursor and navigation information for the current slice */
+    private final PageInfo pageInfo;
+
+    /** Total number of matching books, null unless requested */
+    private final Long totalCount;
+
+    /**
+     * Creates a new BookConnection
+     * @param edges Books of the current slice with their cursors
+     * @param pageInfo Navigation information for the current slice
+     * @param totalCount Total number of matching books (can be null)
+     */
+    public BookConnection(List<BookEdge> edges, PageInfo pageInfo, Long totalCount) {
+        this.edges = edges;
+        this.pageInfo = pageInfo;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Gets the edges of the current slice
+     * @return List of edges in sort order
+     */
+    public List<BookEdge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * Gets the pagination metadata
+     * @return PageInfo for the current slice
+     */
+    public PageInfo getPageInfo() {
+        return pageInfo;
+    }
+
+    /**
+     * Gets the total number of matching books
+     * @return Total count, or null if it was not requested
+     */
+    public Long getTotalCount() {
+        return totalCount;
+    }
+}
@@ -0,0 +1,140 @@
+package com.acme.bookmanagement.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque position in a sorted list of books used for keyset pagination.
+ * A cursor carries the value of the sort key together with the book id,
+ * so the next slice can be fetched with a seek predicate instead of an OFFSET.
+ * It also records the sort order and a hash of the filters of the list it was issued for,
+ * so that it can be rejected by a query over a different list instead of seeking in it.
+ */
+public final class BookCursor {
+    private static final String UNSORTED = "ID";
+    private static final String SEPARATOR = "|";
+
+    private final SortField sortField;
+    private final SortOrder sortOrder;
+    private final int filterHash;
+    private final Integer id;
+    private final String key;
+
+    private BookCursor(SortField sortField, SortOrder sortOrder, int filterHash, Integer id, String key) {
+        this.sortField = sortField;
+        this.sortOrder = sortOrder;
+        this.filterHash = filterHash;
+        this.id = id;
+        this.key = key;
+    }
+
+    /**
+     * Creates the cursor pointing at the given book.
+     * @param sortField Field the list is sorted by (can be null for id order)
+     * @param sortOrder Order the list is sorted in
+     * @param filterHash Hash of the list's filters, see {@link #filterHash(String, String)}
+     * @param book The book to point at
+     * @return Cursor for the book's position
+     */
+    public static BookCursor of(SortField sortField, SortOrder sortOrder, int filterHash, Book book) {
+        String key = sortField == null ? "" : switch (sortField) {
+            case TITLE -> book.getTitle();
+            case AUTHOR -> book.getAuthor();
+            case PUBLISHED_DATE -> book.getPublishedDate().toString();
+        };
+        return new BookCursor(sortField, sortOrder, filterHash, book.getId(), key);
+    }
+
+    /**
+     * Hashes the filters of a list; filters that match the same books, such as null and empty or
+     * differently cased ones, hash alike.
+     * @param titleFilter Title filter (can be null)
+     * @param authorFilter Author filter (can be null)
+     * @return The hash
+     */
+    public static int filterHash(String titleFilter, String authorFilter) {
+        return (normalize(titleFilter) + SEPARATOR + normalize(authorFilter)).hashCode();
+    }
+
+    private static String normalize(String filter) {
+        return filter == null ? "" : filter.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     * @param cursor The opaque cursor string
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static BookCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 5);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            SortField sortField = UNSORTED.equals(parts[0]) ? null : SortField.valueOf(parts[0]);
+            BookCursor decoded = new BookCursor(sortField, SortOrder.valueOf(parts[1]),
+                    Integer.parseUnsignedInt(parts[2], 16), Integer.valueOf(parts[3]), parts[4]);
+            decoded.keyValue();
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Encodes this cursor into an opaque, URL-safe string.
+     * @return The encoded cursor
+     */
+    public String encode() {
+        String raw = (sortField == null ? UNSORTED : sortField.name())
+                + SEPARATOR + sortOrder.name()
+                + SEPARATOR + Integer.toHexString(filterHash)
+                + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The field the cursor was issued for, null for id order
+     */
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    /**
+     * @return The order the cursor was issued for
+     */
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * @return The hash of the filters the cursor was issued for
+     */
+    public int getFilterHash() {
+        return filterHash;
+    }
+
+    /**
+     * @return The id of the book the cursor points at
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Gets the sort key value typed like the entity attribute it came from.
+     * @return The sort key value, or null for id order
+     */
+    public Comparable<?> keyValue() {
+        if (sortField == null) {
+            return null;
+        }
+        return sortField == SortField.PUBLISHED_DATE ? LocalDate.parse(key) : key;
+    }
+}
@@ -0,0 +1,68 @@
+package com.acme.bookmanagement.model;
+
+import java.util.List;
+
+/**
+ * Represents one batch of the delta sync: the books changed since a watermark.
+ * A client applies the upserts and deletions to its copy of the catalog and asks again
+ * with the new watermark until hasMore is false.
+ */
+public class BookDelta {
+    /** Books created or updated since the watermark, in their current state */
+    private final List<Book> upserts;
+
+    /** IDs of the books deleted since the watermark */
+    private final List<Integer> deletions;
+
+    /** Watermark to pass with the next request */
+    private final String watermark;
+
+    /** Whether more changes follow this batch */
+    private final boolean hasMore;
+
+    /**
+     * Creates a new BookDelta
+     * @param upserts Books created or updated since the watermark
+     * @param deletions IDs of the books deleted since the watermark
+     * @param watermark Watermark to pass with the next request
+     * @param hasMore Whether more changes follow this batch
+     */
+    public BookDelta(List<Book> upserts, List<Integer> deletions, String watermark, boolean hasMore) {
+        this.upserts = upserts;
+        this.deletions = deletions;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Gets the books created or updated since the watermark
+     * @return List of books in their current state
+     */
+    public List<Book> getUpserts() {
+        return upserts;
+    }
+
+    /**
+     * Gets the IDs of the books deleted since the watermark
+     * @return List of book IDs
+     */
+    public List<Integer> getDeletions() {
+        return deletions;
+    }
+
+    /**
+     * Gets the watermark to pass with the next request
+     * @return The watermark after the last change of this batch, or the given one if there were no changes
+     */
+    public String getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Checks whether more changes follow this batch
+     * @return True if the client should ask again right away
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
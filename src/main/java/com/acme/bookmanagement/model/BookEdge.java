@@ -0,0 +1,39 @@
+package com.acme.bookmanagement.model;
+
+/**
+ * Represents a single book in a cursor-paginated result together with
+ * the opaque cursor pointing at its position in the sort order.
+ */
+public class BookEdge {
+    /** Opaque cursor identifying the position of this book */
+    private final String cursor;
+
+    /** The book at this position */
+    private final Book node;
+
+    /**
+     * Creates a new BookEdge
+     * @param cursor Opaque cursor for this position
+     * @param node The book at this position
+     */
+    public BookEdge(String cursor, Book node) {
+        this.cursor = cursor;
+        this.node = node;
+    }
+
+    /**
+     * Gets the cursor of this edge
+     * @return Opaque cursor that can be passed as after/before
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Gets the book of this edge
+     * @return The book at this position
+     */
+    public Book getNode() {
+        return node;
+    }
+}
@@ -0,0 +1,109 @@
+package com.acme.bookmanagement.model;
+
+import java.time.LocalDate;
+
+/**
+ * Input for creating a book in bulk.
+ * Mirrors the arguments of the single-row createBook mutation.
+ */
+public class BookInput {
+    /** Title of the book, required */
+    private String title;
+
+    /** Author of the book, required */
+    private String author;
+
+    /** Publication date in ISO format (yyyy-MM-dd), required */
+    private String publishedDate;
+
+    /** Optional book description */
+    private String description;
+
+    /** Optional URL to the book cover image */
+    private String imageUrl;
+
+    /**
+     * @return The title of the book
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @param title The title to set
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * @return The author of the book
+     */
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * @param author The author to set
+     */
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    /**
+     * @return The publication date in ISO format (yyyy-MM-dd)
+     */
+    public String getPublishedDate() {
+        return publishedDate;
+    }
+
+    /**
+     * @param publishedDate The publication date to set, in ISO format (yyyy-MM-dd)
+     */
+    public void setPublishedDate(String publishedDate) {
+        this.publishedDate = publishedDate;
+    }
+
+    /**
+     * @return The description of the book
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @param description The description to set
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return The URL to the book cover image
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    /**
+     * @param imageUrl The image URL to set
+     */
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    /**
+     * Creates a new, unsaved Book from this input
+     * @return Book without ID
+     * @throws java.time.format.DateTimeParseException if the publication date is not in ISO format
+     */
+    public Book toBook() {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublishedDate(LocalDate.parse(publishedDate));
+        book.setDescription(description);
+        book.setImageUrl(imageUrl);
+        return book;
+    }
+}
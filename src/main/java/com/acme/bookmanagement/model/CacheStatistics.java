@@ -0,0 +1,81 @@
+package com.acme.bookmanagement.model;
+
+/**
+ * Snapshot of the hit/miss/eviction counters of one cache.
+ */
+public class CacheStatistics {
+    /** Name identifying the cache */
+    private final String name;
+
+    /** Approximate number of entries currently cached */
+    private final long size;
+
+    /** Number of lookups served from the cache */
+    private final long hitCount;
+
+    /** Number of lookups that had to load the value */
+    private final long missCount;
+
+    /** Number of entries evicted because of size or expiry */
+    private final long evictionCount;
+
+    /**
+     * Creates a new CacheStatistics snapshot
+     * @param name Name identifying the cache
+     * @param size Approximate number of cached entries
+     * @param hitCount Number of cache hits
+     * @param missCount Number of cache misses
+     * @param evictionCount Number of evicted entries
+     */
+    public CacheStatistics(String name, long size, long hitCount, long missCount, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * @return Name identifying the cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Approximate number of cached entries
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return Number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the ratio of hits to lookups
+     * @return Hit rate between 0 and 1, or 1 if there were no lookups
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,9 @@
+package com.acme.bookmanagement.model;
+
+/**
+ * Enum representing the kinds of change recorded in the catalog change log.
+ */
+public enum ChangeType {
+    UPSERT,
+    DELETE
+}
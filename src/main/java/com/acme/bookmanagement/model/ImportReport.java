@@ -0,0 +1,56 @@
+package com.acme.bookmanagement.model;
+
+/**
+ * Summary of a finished catalog import.
+ */
+public class ImportReport {
+    /** Number of books written to the database */
+    private final long rowsImported;
+
+    /** Number of records skipped because they could not be parsed or were incomplete */
+    private final long rowsRejected;
+
+    /** Wall-clock duration of the import in milliseconds */
+    private final long elapsedMillis;
+
+    /**
+     * Creates a new ImportReport
+     * @param rowsImported Number of books written
+     * @param rowsRejected Number of records skipped
+     * @param elapsedMillis Duration of the import in milliseconds
+     */
+    public ImportReport(long rowsImported, long rowsRejected, long elapsedMillis) {
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return Number of books written to the database
+     */
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * @return Number of records skipped
+     */
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    /**
+     * @return Duration of the import in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the import throughput
+     * @return Imported rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported : rowsImported * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,61 @@
+package com.acme.bookmanagement.model;
+
+/**
+ * Pagination metadata for a cursor-paginated result.
+ */
+public class PageInfo {
+    /** Whether more books follow the last edge */
+    private final boolean hasNextPage;
+
+    /** Whether more books precede the first edge */
+    private final boolean hasPreviousPage;
+
+    /** Cursor of the first edge, null if the result is empty */
+    private final String startCursor;
+
+    /** Cursor of the last edge, null if the result is empty */
+    private final String endCursor;
+
+    /**
+     * Creates a new PageInfo
+     * @param hasNextPage Whether more books follow the last edge
+     * @param hasPreviousPage Whether more books precede the first edge
+     * @param startCursor Cursor of the first edge (can be null)
+     * @param endCursor Cursor of the last edge (can be null)
+     */
+    public PageInfo(boolean hasNextPage, boolean hasPreviousPage,
+                    String startCursor, String endCursor) {
+        this.hasNextPage = hasNextPage;
+        this.hasPreviousPage = hasPreviousPage;
+        this.startCursor = startCursor;
+        this.endCursor = endCursor;
+    }
+
+    /**
+     * @return true if more books follow the last edge
+     */
+    public boolean isHasNextPage() {
+        return hasNextPage;
+    }
+
+    /**
+     * @return true if more books precede the first edge
+     */
+    public boolean isHasPreviousPage() {
+        return hasPreviousPage;
+    }
+
+    /**
+     * @return Cursor of the first edge, or null if there are no edges
+     */
+    public String getStartCursor() {
+        return startCursor;
+    }
+
+    /**
+     * @return Cursor of the last edge, or null if there are no edges
+     */
+    public String getEndCursor() {
+        return endCursor;
+    }
+}
@@ -4,7 +4,21 @@ package com.acme.bookmanagement.model;
  * Enum representing the available fields for sorting books in the book management system.
  */
 public enum SortField {
-    TITLE,
-    AUTHOR,
-    PUBLISHED_DATE
-} 
\ No newline at end of file
+    TITLE("title"),
+    AUTHOR("author"),
+    PUBLISHED_DATE("publishedDate");
+
+    private final String attribute;
+
+    SortField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    /**
+     * Gets the Book attribute this field sorts by.
+     * @return The attribute name
+     */
+    public String attribute() {
+        return attribute;
+    }
+}
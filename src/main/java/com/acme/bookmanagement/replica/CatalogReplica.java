@@ -0,0 +1,93 @@
+package com.acme.bookmanagement.replica;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.service.BookChangeListener;
+import com.acme.bookmanagement.store.BookStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-process, read-only replica of the catalog used by BookService for sorted and filtered reads.
+ * Holds the current {@link CatalogSnapshot} and replaces it copy-on-write: writes reported through
+ * {@link BookChangeListener} are collected, and the next read builds a new snapshot with all of them
+ * applied before publishing it, so a burst of writes costs one rebuild and readers never see a
+ * snapshot that is being modified. The snapshot is loaded once the application is ready;
+ * until then {@link #snapshot()} is empty and reads go to the store.
+ * Only created when bookmanagement.replica.enabled is true.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanagement.replica.enabled", havingValue = "true")
+public class CatalogReplica implements BookChangeListener {
+    /** Attributes read from the store to build the snapshot */
+    private static final Set<String> COLUMNS = Set.of("title", "author", "publishedDate");
+
+    private final BookStore bookStore;
+
+    /** Changes not yet applied to the snapshot, keyed by book ID; null values are deletions */
+    private final Map<Integer, CatalogSnapshot.Row> pending = new HashMap<>();
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean dirty;
+
+    /**
+     * Constructs a new CatalogReplica.
+     * @param bookStore The store used to load the initial snapshot
+     */
+    public CatalogReplica(BookStore bookStore) {
+        this.bookStore = bookStore;
+    }
+
+    /**
+     * Loads the snapshot from the store.
+     * Runs after startup so that books loaded by command line runners are included. Changes reported while
+     * loading are applied on top; applying a change the query already saw is harmless.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<CatalogSnapshot.Row> rows = bookStore.findAllProjected(null, Sort.by("id"), COLUMNS).stream()
+                .map(CatalogSnapshot.Row::of)
+                .toList();
+        CatalogSnapshot loaded = CatalogSnapshot.of(rows);
+        synchronized (this) {
+            snapshot = loaded;
+        }
+    }
+
+    /**
+     * Gets the current snapshot, first applying any pending changes.
+     * @return The snapshot, or empty if it has not been loaded yet
+     */
+    public Optional<CatalogSnapshot> snapshot() {
+        if (dirty) {
+            synchronized (this) {
+                if (dirty && snapshot != null) {
+                    snapshot = snapshot.with(pending);
+                    pending.clear();
+                    dirty = false;
+                }
+            }
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    @Override
+    public synchronized void onBookSaved(Book book) {
+        pending.put(book.getId(), CatalogSnapshot.Row.of(book));
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void onBookDeleted(Integer id) {
+        pending.put(id, null);
+        dirty = true;
+    }
+}
@@ -0,0 +1,296 @@
+package com.acme.bookmanagement.replica;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, column-oriented copy of the sortable book attributes.
+ * Rows are stored in ID order as parallel primitive arrays: the publication date as an epoch day,
+ * title and author as codes into sorted dictionaries of their distinct values, so comparing two codes
+ * compares the strings. For every {@link SortField} a permutation array holds the row positions in
+ * ascending (value, id) order; sorted reads are array slices, descending ones walk the slice backwards,
+ * and date ranges are found by binary search over the date permutation.
+ * A snapshot is never modified; {@link #with(Map)} builds a new one.
+ */
+public final class CatalogSnapshot {
+    private final int[] ids;
+    private final int[] publishedDays;
+    private final int[] titleCodes;
+    private final int[] authorCodes;
+    private final String[] titles;
+    private final String[] authors;
+    private final int[] byId;
+    private final int[] byTitle;
+    private final int[] byAuthor;
+    private final int[] byPublishedDate;
+
+    private CatalogSnapshot(int[] ids, int[] publishedDays, int[] titleCodes, int[] authorCodes,
+                            String[] titles, String[] authors) {
+        this.ids = ids;
+        this.publishedDays = publishedDays;
+        this.titleCodes = titleCodes;
+        this.authorCodes = authorCodes;
+        this.titles = titles;
+        this.authors = authors;
+        this.byId = new int[ids.length];
+        Arrays.setAll(byId, position -> position);
+        this.byTitle = permutation(titleCodes);
+        this.byAuthor = permutation(authorCodes);
+        this.byPublishedDate = permutation(publishedDays);
+    }
+
+    /**
+     * Builds a snapshot of the given rows.
+     * @param rows The rows; IDs must be unique
+     * @return The snapshot
+     */
+    public static CatalogSnapshot of(Collection<Row> rows) {
+        Row[] sorted = rows.toArray(Row[]::new);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.id(), b.id()));
+        String[] titles = dictionary(sorted, Row::title);
+        String[] authors = dictionary(sorted, Row::author);
+
+        int[] ids = new int[sorted.length];
+        int[] publishedDays = new int[sorted.length];
+        int[] titleCodes = new int[sorted.length];
+        int[] authorCodes = new int[sorted.length];
+        for (int position = 0; position < sorted.length; position++) {
+            Row row = sorted[position];
+            ids[position] = row.id();
+            publishedDays[position] = row.publishedDay();
+            titleCodes[position] = Arrays.binarySearch(titles, row.title());
+            authorCodes[position] = Arrays.binarySearch(authors, row.author());
+        }
+        return new CatalogSnapshot(ids, publishedDays, titleCodes, authorCodes, titles, authors);
+    }
+
+    /**
+     * Builds a new snapshot with changes applied; this snapshot is left untouched.
+     * @param changes New state per book ID; a null value removes the book
+     * @return The new snapshot
+     */
+    public CatalogSnapshot with(Map<Integer, Row> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Map<Integer, Row> rows = new HashMap<>(ids.length + changes.size());
+        for (int position = 0; position < ids.length; position++) {
+            rows.put(ids[position], row(position));
+        }
+        changes.forEach((id, row) -> {
+            if (row == null) {
+                rows.remove(id);
+            } else {
+                rows.put(id, row);
+            }
+        });
+        return of(rows.values());
+    }
+
+    /**
+     * Gets the number of books in the snapshot.
+     * @return The number of rows
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Gets the ID of the book at a row position.
+     * @param position The row position
+     * @return The book ID
+     */
+    public int id(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Materializes the book at a row position with the attributes held by the snapshot;
+     * description and imageUrl are not set.
+     * @param position The row position
+     * @return A new, partially populated book
+     */
+    public Book book(int position) {
+        return new Book(ids[position], titles[titleCodes[position]], authors[authorCodes[position]],
+                LocalDate.ofEpochDay(publishedDays[position]));
+    }
+
+    /**
+     * Lists all row positions in sort order; ties are broken by ID in the same direction.
+     * @param sortField The field to sort by (null sorts by ID)
+     * @param sortOrder The sort direction (null means ascending)
+     * @return Row positions in order
+     */
+    public int[] sorted(SortField sortField, SortOrder sortOrder) {
+        int[] permutation = permutation(sortField);
+        return sortOrder == SortOrder.DESC ? reversed(permutation) : permutation.clone();
+    }
+
+    /**
+     * Finds the books published within a date range, inclusive, by binary search on the date permutation.
+     * @param startDate The start of the range
+     * @param endDate The end of the range
+     * @return Row positions in publication date order
+     */
+    public int[] publishedBetween(LocalDate startDate, LocalDate endDate) {
+        int from = firstDateAtLeast(startDate.toEpochDay());
+        int to = firstDateAtLeast(endDate.toEpochDay() + 1);
+        return from < to ? Arrays.copyOfRange(byPublishedDate, from, to) : new int[0];
+    }
+
+    /**
+     * Filters and sorts the books and returns one page of them.
+     * Filters match case-insensitive substrings, like the database queries; each filter is evaluated
+     * once per distinct value rather than once per book.
+     * @param offset Number of matching books to skip
+     * @param limit Maximum number of books to return
+     * @param sortField The field to sort by (null sorts by ID)
+     * @param sortOrder The sort direction (null means ascending)
+     * @param titleFilter Optional title filter (can be null)
+     * @param authorFilter Optional author filter (can be null)
+     * @return The row positions of the page and the total number of matches
+     */
+    public Slice slice(long offset, int limit, SortField sortField, SortOrder sortOrder,
+                       String titleFilter, String authorFilter) {
+        int[] permutation = permutation(sortField);
+        boolean descending = sortOrder == SortOrder.DESC;
+        boolean[] titleMatches = matches(titles, titleFilter);
+        boolean[] authorMatches = matches(authors, authorFilter);
+
+        if (titleMatches == null && authorMatches == null) {
+            int from = (int) Math.min(offset, permutation.length);
+            int to = (int) Math.min((long) from + limit, permutation.length);
+            int[] page = new int[to - from];
+            for (int i = from; i < to; i++) {
+                page[i - from] = permutation[descending ? permutation.length - 1 - i : i];
+            }
+            return new Slice(page, permutation.length);
+        }
+
+        List<Integer> page = new ArrayList<>(limit);
+        long total = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            int position = permutation[descending ? permutation.length - 1 - i : i];
+            if ((titleMatches == null || titleMatches[titleCodes[position]])
+                    && (authorMatches == null || authorMatches[authorCodes[position]])) {
+                if (total >= offset && page.size() < limit) {
+                    page.add(position);
+                }
+                total++;
+            }
+        }
+        return new Slice(page.stream().mapToInt(Integer::intValue).toArray(), total);
+    }
+
+    private Row row(int position) {
+        return new Row(ids[position], titles[titleCodes[position]], authors[authorCodes[position]],
+                publishedDays[position]);
+    }
+
+    private int[] permutation(SortField sortField) {
+        if (sortField == null) {
+            return byId;
+        }
+        return switch (sortField) {
+            case TITLE -> byTitle;
+            case AUTHOR -> byAuthor;
+            case PUBLISHED_DATE -> byPublishedDate;
+        };
+    }
+
+    private int firstDateAtLeast(long epochDay) {
+        int low = 0;
+        int high = byPublishedDate.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (publishedDays[byPublishedDate[middle]] < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts row positions by key, then position (which is ID order), as one primitive sort over packed longs.
+     */
+    private static int[] permutation(int[] keys) {
+        long[] packed = new long[keys.length];
+        for (int position = 0; position < keys.length; position++) {
+            packed[position] = ((long) keys[position] << 32) | position;
+        }
+        Arrays.sort(packed);
+        int[] permutation = new int[keys.length];
+        for (int i = 0; i < packed.length; i++) {
+            permutation[i] = (int) packed[i];
+        }
+        return permutation;
+    }
+
+    private static int[] reversed(int[] permutation) {
+        int[] reversed = new int[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            reversed[i] = permutation[permutation.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    private static String[] dictionary(Row[] rows, Function<Row, String> column) {
+        return Arrays.stream(rows).map(column).distinct().sorted().toArray(String[]::new);
+    }
+
+    /**
+     * Evaluates a substring filter once per dictionary entry.
+     * @return Match flag per code, or null if there is no filter
+     */
+    private static boolean[] matches(String[] dictionary, String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        String needle = filter.toLowerCase(Locale.ROOT);
+        boolean[] matches = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            matches[code] = dictionary[code].toLowerCase(Locale.ROOT).contains(needle);
+        }
+        return matches;
+    }
+
+    /**
+     * The sortable attributes of one book.
+     * @param id The book ID
+     * @param title The title
+     * @param author The author
+     * @param publishedDay The publication date as days since the epoch
+     */
+    public record Row(int id, String title, String author, int publishedDay) {
+        /**
+         * Extracts the sortable attributes of a book.
+         * @param book The book
+         * @return The row
+         */
+        public static Row of(Book book) {
+            return new Row(book.getId(), book.getTitle(), book.getAuthor(),
+                    (int) book.getPublishedDate().toEpochDay());
+        }
+    }
+
+    /**
+     * One page of a filtered, sorted read.
+     * @param positions Row positions of the page, in order
+     * @param total Number of matching books across all pages
+     */
+    public record Slice(int[] positions, long total) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.acme.bookmanagement.repository;
+
+import com.acme.bookmanagement.model.Author;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing Author entities in the database.
+ */
+public interface AuthorRepository extends JpaRepository<Author, Integer> {
+    /**
+     * Finds the authors with any of the given names in a single IN (...) query.
+     * @param names The author names to look up
+     * @return List of matching authors
+     */
+    List<Author> findByNameIn(Collection<String> names);
+}
@@ -0,0 +1,28 @@
+package com.acme.bookmanagement.repository;
+
+import com.acme.bookmanagement.model.BookChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the catalog change log.
+ */
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+    /**
+     * Reads the log between two positions, as a range scan of the primary key.
+     * @param sequence The last sequence already seen
+     * @param horizon The last sequence that may be read
+     * @param pageable Limit and order (by sequence) of the entries
+     * @return List of the following entries up to the horizon
+     */
+    List<BookChange> findBySequenceGreaterThanAndSequenceLessThanEqual(Long sequence, Long horizon, Pageable pageable);
+
+    /**
+     * Finds the newest entry of the log.
+     * @return Optional containing the entry with the highest sequence, empty if the log is empty
+     */
+    Optional<BookChange> findTopByOrderBySequenceDesc();
+}
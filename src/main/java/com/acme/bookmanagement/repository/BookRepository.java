@@ -1,17 +1,28 @@
 package com.acme.bookmanagement.repository;
 
 import com.acme.bookmanagement.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing Book entities in the database.
- * Extends JpaRepository for basic CRUD operations and JpaSpecificationExecutor for complex queries.
+ * Extends JpaRepository for basic CRUD operations, JpaSpecificationExecutor for complex queries
+ * and BookRepositoryCustom for keyset slices.
  */
-public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
     /**
      * Finds books published between two dates, inclusive.
      * @param startDate The start date of the date range
@@ -34,6 +45,37 @@ public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecifi
      */
     List<Book> findByAuthorContainingIgnoreCase(String author);
 
+    /**
+     * Searches for books where the lowercase title contains the specified lowercase string.
+     * Compares the generated title_lower column instead of applying LOWER() to every row.
+     * @param title The lowercase title substring to search for
+     * @return List of books matching the title criteria
+     */
+    List<Book> findByTitleLowerContaining(String title);
+
+    /**
+     * Searches for books where the lowercase author contains the specified lowercase string.
+     * @param author The lowercase author substring to search for
+     * @return List of books matching the author criteria
+     */
+    List<Book> findByAuthorLowerContaining(String author);
+
+    /**
+     * Finds books whose lowercase title starts with the specified lowercase prefix,
+     * with a range scan on the title_lower index.
+     * @param prefix The lowercase title prefix
+     * @param pageable Limit and order of the results
+     * @return List of matching books
+     */
+    List<Book> findByTitleLowerStartingWith(String prefix, Pageable pageable);
+
+    /**
+     * Finds the books written by any of the given authors in a single IN (...) query.
+     * @param authors The exact author names
+     * @return List of books by those authors
+     */
+    List<Book> findByAuthorIn(Collection<String> authors);
+
     /**
      * Retrieves all books sorted by title in ascending order.
      * @return List of books sorted by title (A-Z)
@@ -69,5 +111,54 @@ public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecifi
      * @return List of books sorted by published date (newest first)
      */
     List<Book> findAllByOrderByPublishedDateDesc();
-}
 
+    /**
+     * Streams all books in ID order without materializing them in a list.
+     * Rows are fetched from the JDBC cursor in blocks of the configured fetch size
+     * and loaded read-only, so Hibernate keeps no snapshots for dirty checking.
+     * Must be called inside a (read-only) transaction and the stream must be closed.
+     * @return Stream of all books ordered by ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAllBy();
+
+    /**
+     * Retrieves the titles of all books without loading the full entities.
+     * @return List of titles sorted alphabetically
+     */
+    @Query("select b.title from Book b order by b.title")
+    List<String> findAllTitles();
+
+    /**
+     * Turns books into tombstones in a single UPDATE ... WHERE id IN (...), bumping their version.
+     * Books that are already deleted or do not exist are left alone.
+     * @param ids The IDs of the books to delete
+     * @param updatedAt The time of the deletion in UTC
+     * @return Number of books deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.deleted = true, b.updatedAt = :updatedAt, b.version = b.version + 1 " +
+            "where b.id in :ids and b.deleted = false")
+    int softDeleteAllById(Collection<Integer> ids, LocalDateTime updatedAt);
+
+    /**
+     * Finds the books changed after a position in (updated_at, id) order, tombstones included,
+     * with a range scan on the updated_at index.
+     * Native, because every entity query leaves out the tombstones.
+     * @param updatedAt The change time of the last book already seen
+     * @param id The ID of the last book already seen
+     * @param limit Maximum number of books
+     * @return List of the following books, live and deleted
+     */
+    @Query(value = """
+            select * from "book"
+            where "updated_at" >= :updatedAt and ("updated_at" > :updatedAt or "id" > :id)
+            order by "updated_at", "id"
+            limit :limit
+            """, nativeQuery = true)
+    List<Book> findChangedSince(LocalDateTime updatedAt, Integer id, int limit);
+}
@@ -0,0 +1,51 @@
+package com.acme.bookmanagement.repository;
+
+import com.acme.bookmanagement.model.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom repository fragment for queries that Spring Data cannot derive.
+ * Implemented by {@link BookRepositoryCustomImpl}.
+ */
+public interface BookRepositoryCustom {
+    /**
+     * Fetches at most {@code limit} books matching the specification in the given order.
+     * Unlike {@code findAll(Specification, Pageable)} this neither applies an OFFSET
+     * nor issues a COUNT query, which makes it suitable for keyset pagination.
+     * @param spec Filter and seek predicates (can be null)
+     * @param sort Order of the results
+     * @param limit Maximum number of books to return
+     * @return List of at most {@code limit} books
+     */
+    List<Book> findSlice(Specification<Book> spec, Sort sort, int limit);
+
+    /**
+     * Fetches only the given attributes of the books matching the specification,
+     * so unselected columns such as the description are never read.
+     * The books returned are plain objects rather than managed entities; attributes not fetched are null.
+     * @param spec Filter predicates (can be null)
+     * @param sort Order of the results
+     * @param attributes Names of the Book attributes to fetch; the id is always fetched
+     * @return List of partially populated books
+     */
+    List<Book> findAllProjected(Specification<Book> spec, Sort sort, Collection<String> attributes);
+
+    /**
+     * Updates the given attributes of a book if it is still at the expected version, in a single
+     * UPDATE ... SET (changed columns) WHERE id = ? AND version = ?, without reading the book first.
+     * The version is incremented and the change time set. Must be called inside a transaction.
+     * @param id The ID of the book
+     * @param version The version the caller read the book at
+     * @param changes New values by attribute name: title, author, publishedDate, description or imageUrl
+     * @param updatedAt The time of the change in UTC
+     * @return 1 if the book was updated, 0 if it does not exist, is deleted or is at another version
+     * @throws IllegalArgumentException if an attribute cannot be updated
+     */
+    int updateIfVersion(Integer id, long version, Map<String, Object> changes, LocalDateTime updatedAt);
+}
@@ -0,0 +1,124 @@
+package com.acme.bookmanagement.repository;
+
+import com.acme.bookmanagement.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Criteria API implementation of {@link BookRepositoryCustom}.
+ */
+@Transactional(readOnly = true)
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    /** Setters of the attributes that can be projected, by attribute name */
+    private static final Map<String, BiConsumer<Book, Object>> SETTERS = Map.of(
+            "id", (book, value) -> book.setId((Integer) value),
+            "title", (book, value) -> book.setTitle((String) value),
+            "author", (book, value) -> book.setAuthor((String) value),
+            "publishedDate", (book, value) -> book.setPublishedDate((LocalDate) value),
+            "description", (book, value) -> book.setDescription((String) value),
+            "imageUrl", (book, value) -> book.setImageUrl((String) value));
+
+    /** Attributes a client may change through {@link #updateIfVersion} */
+    private static final Set<String> UPDATABLE = Set.of("title", "author", "publishedDate", "description", "imageUrl");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Book> findSlice(Specification<Book> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Book> findAllProjected(Specification<Book> spec, Sort sort, Collection<String> attributes) {
+        List<String> selected = new ArrayList<>();
+        selected.add("id");
+        attributes.stream()
+                .filter(attribute -> !selected.contains(attribute) && SETTERS.containsKey(attribute))
+                .forEach(selected::add);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.multiselect(selected.stream().<Selection<?>>map(root::get).toList())
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> {
+                    Book book = new Book();
+                    for (int i = 0; i < selected.size(); i++) {
+                        SETTERS.get(selected.get(i)).accept(book, tuple.get(i));
+                    }
+                    return book;
+                })
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int updateIfVersion(Integer id, long version, Map<String, Object> changes, LocalDateTime updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Book> update = cb.createCriteriaUpdate(Book.class);
+        Root<Book> root = update.from(Book.class);
+
+        changes.forEach((attribute, value) -> {
+            if (!UPDATABLE.contains(attribute)) {
+                throw new IllegalArgumentException("Attribute cannot be updated: " + attribute);
+            }
+            update.set(root.get(attribute), value);
+        });
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L))
+                .set(root.<LocalDateTime>get("updatedAt"), updatedAt)
+                .where(cb.equal(root.get("id"), id),
+                        cb.equal(root.get("version"), version),
+                        cb.isFalse(root.<Boolean>get("deleted")));
+
+        // Like @Modifying(flushAutomatically = true, clearAutomatically = true): write pending changes first,
+        // and drop managed copies that the UPDATE makes stale
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
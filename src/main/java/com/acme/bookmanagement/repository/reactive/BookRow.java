@@ -0,0 +1,37 @@
+package com.acme.bookmanagement.repository.reactive;
+
+import com.acme.bookmanagement.model.Book;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC mapping of the book table, which is owned by the JPA {@link Book} entity.
+ * @param id The unique identifier of the book
+ * @param title The title of the book
+ * @param author The author of the book
+ * @param publishedDate The date when the book was published
+ * @param description A detailed description of the book
+ * @param imageUrl URL to the book's cover image
+ * @param version The optimistic lock version
+ * @param updatedAt Time of the last change in UTC
+ * @param deleted Whether the row is a tombstone; every query of the reactive path must exclude these
+ */
+@Table("book")
+public record BookRow(@Id Integer id, String title, String author, LocalDate publishedDate,
+                      String description, String imageUrl, Long version, LocalDateTime updatedAt,
+                      boolean deleted) {
+
+    /**
+     * Converts the row to the Book model returned by the GraphQL layer.
+     * @return A new detached Book
+     */
+    public Book toBook() {
+        Book book = new Book(id, title, author, publishedDate, description, imageUrl);
+        book.setVersion(version);
+        book.setUpdatedAt(updatedAt);
+        return book;
+    }
+}
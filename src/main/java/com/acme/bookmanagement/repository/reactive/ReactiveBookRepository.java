@@ -0,0 +1,42 @@
+package com.acme.bookmanagement.repository.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking R2DBC repository over the book table, used by the "reactive" profile.
+ * Rows are emitted as the database produces them and only as fast as subscribers request them.
+ * Unlike the JPA entity, rows are not filtered implicitly, so every query here excludes the tombstones;
+ * the inherited find methods would return them.
+ */
+public interface ReactiveBookRepository extends ReactiveCrudRepository<BookRow, Integer> {
+    /**
+     * Retrieves all books that are not deleted.
+     * @return Flux of all books
+     */
+    Flux<BookRow> findAllByDeletedFalse();
+
+    /**
+     * Finds a book by its ID unless it is deleted.
+     * @param id The ID of the book
+     * @return Mono of the book, empty if not found or deleted
+     */
+    Mono<BookRow> findByIdAndDeletedFalse(Integer id);
+
+    /**
+     * Finds books published between two dates, inclusive.
+     * @param startDate The start date of the date range
+     * @param endDate The end date of the date range
+     * @return Flux of books published within the specified date range
+     */
+    Flux<BookRow> findByPublishedDateBetweenAndDeletedFalse(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Retrieves all books in ID order.
+     * @return Flux of all books ordered by ID
+     */
+    Flux<BookRow> findAllByDeletedFalseOrderById();
+}
@@ -0,0 +1,83 @@
+package com.acme.bookmanagement.search;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.service.BookChangeListener;
+import com.acme.bookmanagement.store.BookStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text index over the title, author and description of every book.
+ * The index is built once the application is ready and then maintained
+ * incrementally through {@link BookChangeListener} callbacks.
+ * A rebuild fills a new index off to the side and swaps it in, so searches keep using the previous one
+ * meanwhile; the callbacks wait for it, so a change made during the rebuild is applied on top of it.
+ */
+@Component
+public class BookSearchIndex implements BookChangeListener {
+    /** Field boosts: a match in the title counts more than one in the description */
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final BookStore bookStore;
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    /**
+     * Constructs a new BookSearchIndex.
+     * @param bookStore The store used to (re)build the index
+     */
+    public BookSearchIndex(BookStore bookStore) {
+        this.bookStore = bookStore;
+    }
+
+    /**
+     * Rebuilds the index from the store.
+     * Runs after startup so that books loaded by command line runners are included.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        InvertedIndex rebuilt = new InvertedIndex();
+        bookStore.findAll().forEach(book -> rebuilt.put(book.getId(), termWeights(book)));
+        index = rebuilt;
+    }
+
+    /**
+     * Searches books by free text, treating the last word as a prefix.
+     * @param query The text typed by the user
+     * @param limit Maximum number of results
+     * @return IDs of the matching books, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        return index.search(TextAnalyzer.tokenizeQuery(query), limit);
+    }
+
+    @Override
+    public synchronized void onBookSaved(Book book) {
+        index.put(book.getId(), termWeights(book));
+    }
+
+    @Override
+    public synchronized void onBookDeleted(Integer id) {
+        index.remove(id);
+    }
+
+    private static Map<String, Float> termWeights(Book book) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addTerms(termWeights, book.getTitle(), TITLE_WEIGHT);
+        addTerms(termWeights, book.getAuthor(), AUTHOR_WEIGHT);
+        addTerms(termWeights, book.getDescription(), DESCRIPTION_WEIGHT);
+        return termWeights;
+    }
+
+    private static void addTerms(Map<String, Float> termWeights, String text, float weight) {
+        for (String term : TextAnalyzer.tokenize(text)) {
+            termWeights.merge(term, weight, Float::sum);
+        }
+    }
+}
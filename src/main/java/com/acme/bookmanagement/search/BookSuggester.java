@@ -0,0 +1,88 @@
+package com.acme.bookmanagement.search;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.service.BookChangeListener;
+import com.acme.bookmanagement.store.BookStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead suggestions for book titles and author names.
+ * Backed by one {@link PrefixTrie} per field; authors with more books rank higher.
+ * The tries are built once the application is ready and then maintained
+ * incrementally through {@link BookChangeListener} callbacks.
+ */
+@Component
+public class BookSuggester implements BookChangeListener {
+    private final BookStore bookStore;
+    private final PrefixTrie titles = new PrefixTrie();
+    private final PrefixTrie authors = new PrefixTrie();
+
+    /** Title and author last indexed for each book, needed to undo them on update or delete */
+    private final Map<Integer, Indexed> indexedBooks = new HashMap<>();
+
+    /**
+     * Constructs a new BookSuggester.
+     * @param bookStore The store used to (re)build the tries
+     */
+    public BookSuggester(BookStore bookStore) {
+        this.bookStore = bookStore;
+    }
+
+    /**
+     * Rebuilds both tries from the store.
+     * Runs after startup so that books loaded by command line runners are included.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        titles.clear();
+        authors.clear();
+        indexedBooks.clear();
+        bookStore.findAll().forEach(this::onBookSaved);
+    }
+
+    /**
+     * Suggests book titles starting with the given prefix.
+     * @param prefix The prefix typed so far
+     * @param limit Maximum number of suggestions
+     * @return Matching titles
+     */
+    public List<String> suggestTitles(String prefix, int limit) {
+        return titles.suggest(prefix, limit);
+    }
+
+    /**
+     * Suggests author names starting with the given prefix.
+     * @param prefix The prefix typed so far
+     * @param limit Maximum number of suggestions
+     * @return Matching author names, most prolific first
+     */
+    public List<String> suggestAuthors(String prefix, int limit) {
+        return authors.suggest(prefix, limit);
+    }
+
+    @Override
+    public synchronized void onBookSaved(Book book) {
+        onBookDeleted(book.getId());
+        titles.add(book.getTitle());
+        authors.add(book.getAuthor());
+        indexedBooks.put(book.getId(), new Indexed(book.getTitle(), book.getAuthor()));
+    }
+
+    @Override
+    public synchronized void onBookDeleted(Integer id) {
+        Indexed previous = indexedBooks.remove(id);
+        if (previous != null) {
+            titles.remove(previous.title());
+            authors.remove(previous.author());
+        }
+    }
+
+    private record Indexed(String title, String author) {
+    }
+}
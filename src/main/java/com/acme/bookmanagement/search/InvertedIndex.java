@@ -0,0 +1,180 @@
+package com.acme.bookmanagement.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory inverted index from terms to weighted document postings.
+ * Terms are kept in a sorted map so the last query term can be matched as a prefix,
+ * which gives search-as-you-type behaviour without storing n-grams.
+ * Query cost is proportional to the size of the posting lists involved, not to the number of documents.
+ */
+public class InvertedIndex {
+    /** term -> (document id -> accumulated field weight) */
+    private final NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+
+    /** document id -> terms, used to remove a document without scanning all postings */
+    private final Map<Integer, Collection<String>> termsByDocument = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces a document.
+     * @param id The document id
+     * @param termWeights Weight of each term in the document, e.g. occurrences times field boost
+     */
+    public void put(Integer id, Map<String, Float> termWeights) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            termsByDocument.put(id, new ArrayList<>(termWeights.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document, if present.
+     * @param id The document id
+     */
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all documents.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByDocument.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed documents.
+     * @return Document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByDocument.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents containing every term, the last one matched as a prefix,
+     * ranked by the sum of term weight times inverse document frequency.
+     * @param terms Normalized query terms
+     * @param limit Maximum number of ids to return
+     * @return Document ids, best match first
+     */
+    public List<Integer> search(List<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documents = termsByDocument.size();
+            List<Map<Integer, Float>> scoredTerms = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<Integer, Float> scores = prefix ?
+                        prefixScores(terms.get(i), documents) :
+                        exactScores(terms.get(i), documents);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+                scoredTerms.add(scores);
+            }
+
+            // Drive the intersection from the most selective term
+            scoredTerms.sort(Comparator.comparingInt(Map::size));
+            PriorityQueue<Map.Entry<Integer, Float>> top = new PriorityQueue<>(
+                    Map.Entry.<Integer, Float>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+            candidates:
+            for (Map.Entry<Integer, Float> candidate : scoredTerms.get(0).entrySet()) {
+                float score = candidate.getValue();
+                for (int i = 1; i < scoredTerms.size(); i++) {
+                    Float termScore = scoredTerms.get(i).get(candidate.getKey());
+                    if (termScore == null) {
+                        continue candidates;
+                    }
+                    score += termScore;
+                }
+                top.add(Map.entry(candidate.getKey(), score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Integer> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(0, top.poll().getKey());
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Float> exactScores(String term, int documents) {
+        Map<Integer, Float> posting = postings.get(term);
+        if (posting == null) {
+            return Map.of();
+        }
+        Map<Integer, Float> scores = new HashMap<>(posting.size() * 2);
+        addScores(scores, posting, documents);
+        return scores;
+    }
+
+    private Map<Integer, Float> prefixScores(String prefix, int documents) {
+        Map<Integer, Float> scores = new HashMap<>();
+        for (Map<Integer, Float> posting : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            addScores(scores, posting, documents);
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Integer, Float> scores, Map<Integer, Float> posting, int documents) {
+        float idf = (float) Math.log(1.0 + (double) documents / posting.size());
+        posting.forEach((id, weight) -> scores.merge(id, weight * idf, Float::sum));
+    }
+
+    private void removeInternal(Integer id) {
+        Collection<String> terms = termsByDocument.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Integer, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
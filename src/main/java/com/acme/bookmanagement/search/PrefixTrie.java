@@ -0,0 +1,288 @@
+package com.acme.bookmanagement.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe radix trie over normalized strings with precomputed top-k completions.
+ * Every node caches the best {@link #MAX_SUGGESTIONS} entries of its subtree, ranked by
+ * how many times the string was added, so a lookup is a walk down the prefix followed by
+ * a copy of the cached list, independent of how many strings share the prefix.
+ * Writes recompute the cache only along the path of the changed key.
+ */
+public class PrefixTrie {
+    /** Upper bound for the number of completions returned by {@link #suggest(String, int)} */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::count).reversed()
+            .thenComparing(Entry::value);
+
+    private final Node root = new Node("");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds one occurrence of a string.
+     * @param value The string as it should be displayed (can be null, ignored)
+     */
+    public void add(String value) {
+        String key = TextAnalyzer.normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = insert(key, path);
+            node.value = value;
+            node.count++;
+            refresh(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes one occurrence of a string, dropping it once no occurrence is left.
+     * @param value The string previously passed to {@link #add(String)} (can be null, ignored)
+     */
+    public void remove(String value) {
+        String key = TextAnalyzer.normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = find(key, true, path);
+            if (node == null || node.count == 0) {
+                return;
+            }
+            if (--node.count == 0) {
+                node.value = null;
+                prune(path);
+            }
+            refresh(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all strings.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children = NO_CHILDREN;
+            root.top = NO_ENTRIES;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most frequent strings starting with the given prefix.
+     * @param prefix The prefix typed so far, matched case- and accent-insensitively
+     * @param limit Maximum number of completions, capped at {@link #MAX_SUGGESTIONS}
+     * @return Completions, most frequent first, ties in alphabetical order
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = TextAnalyzer.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = find(key, false, null);
+            if (node == null) {
+                return List.of();
+            }
+            Entry[] top = node.top;
+            int size = Math.min(Math.min(limit, MAX_SUGGESTIONS), top.length);
+            List<String> suggestions = new ArrayList<>(Math.max(size, 0));
+            for (int i = 0; i < size; i++) {
+                suggestions.add(top[i].value());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the node whose path covers the key. Unless {@code exact} is set, the key may
+     * end in the middle of the returned node's edge, which is what a prefix lookup needs.
+     */
+    private Node find(String key, boolean exact, List<Node> path) {
+        Node node = root;
+        if (path != null) {
+            path.add(node);
+        }
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.edge, key, position);
+            if (common < child.edge.length() && (exact || position + common < key.length())) {
+                return null;
+            }
+            position += common;
+            node = child;
+            if (path != null) {
+                path.add(node);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the node for the key, creating and splitting nodes as needed.
+     */
+    private Node insert(String key, List<Node> path) {
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                Node leaf = new Node(key.substring(position));
+                node.addChild(leaf);
+                path.add(leaf);
+                return leaf;
+            }
+            int common = commonPrefix(child.edge, key, position);
+            if (common < child.edge.length()) {
+                // Split the edge: node -> middle -> child
+                Node middle = new Node(child.edge.substring(0, common));
+                node.replaceChild(child, middle);
+                child.edge = child.edge.substring(common);
+                middle.addChild(child);
+                middle.top = child.top;
+                child = middle;
+            }
+            position += common;
+            node = child;
+            path.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Removes empty leaves and merges single-child pass-through nodes on the path.
+     */
+    private void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.count > 0) {
+                break;
+            }
+            if (node.children.length == 0) {
+                parent.removeChild(node);
+                path.remove(i);
+            } else if (node.children.length == 1) {
+                Node onlyChild = node.children[0];
+                onlyChild.edge = node.edge + onlyChild.edge;
+                parent.replaceChild(node, onlyChild);
+                path.set(i, onlyChild);
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Recomputes the cached completions bottom-up along the path.
+     */
+    private static void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>();
+            if (node.count > 0) {
+                candidates.add(new Entry(node.value, node.count));
+            }
+            for (Node child : node.children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            node.top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size()))
+                    .toArray(NO_ENTRIES);
+        }
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /** A completion with the number of times it was added */
+    private record Entry(String value, int count) {
+    }
+
+    /** A trie node; children are kept in a small array sorted by the first character of their edge */
+    private static final class Node {
+        private String edge;
+        private Node[] children = NO_CHILDREN;
+        private String value;
+        private int count;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int insertAt = -(indexOf(child.edge.charAt(0)) + 1);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+        }
+
+        private void replaceChild(Node current, Node replacement) {
+            children[indexOf(current.edge.charAt(0))] = replacement;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.edge.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].edge.charAt(0);
+                if (midChar < first) {
+                    low = mid + 1;
+                } else if (midChar > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
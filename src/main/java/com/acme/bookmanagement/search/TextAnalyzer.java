@@ -0,0 +1,72 @@
+package com.acme.bookmanagement.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free text into normalized search terms.
+ * Terms are lower-cased, stripped of diacritics and split on anything that is not a letter or digit,
+ * so "Kimetsu no Yaiba, Vol. 12" and "kimetsu YAIBA" produce matching terms.
+ */
+public final class TextAnalyzer {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ENDS_IN_WORD = Pattern.compile("[\\p{L}\\p{N}]$");
+
+    /** Words too common to be useful in a posting list */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "its", "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Normalizes text for case- and accent-insensitive comparison.
+     * @param text The text to normalize (can be null)
+     * @return Lower-cased text without diacritics, empty for null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits text into normalized terms, dropping stop words.
+     * @param text The text to tokenize (can be null)
+     * @return Terms in the order they appear, duplicates included
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(normalize(text), false);
+    }
+
+    /**
+     * Splits a query being typed into normalized terms, dropping stop words except the last word if the query
+     * ends in it: that word is matched as a prefix and may be the start of a longer one, as "the" of "theory".
+     * @param query The query text (can be null)
+     * @return Terms in the order they appear, duplicates included
+     */
+    public static List<String> tokenizeQuery(String query) {
+        String normalized = normalize(query);
+        return tokenize(normalized, ENDS_IN_WORD.matcher(normalized).find());
+    }
+
+    private static List<String> tokenize(String normalized, boolean keepLast) {
+        String[] words = SEPARATORS.split(normalized);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            String term = words[i];
+            if (!term.isEmpty() && (!STOP_WORDS.contains(term) || (keepLast && i == words.length - 1))) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,80 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Author;
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.repository.AuthorRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class that handles business logic for Author operations.
+ * Authors are derived from the author names of the books: whenever a book is saved with a name that
+ * has no author row yet, one is created, so Book.authorDetails also resolves for books written after startup.
+ * Author rows are not removed when their last book is renamed or deleted.
+ */
+@Service
+public class AuthorService implements BookChangeListener {
+    private final AuthorRepository authorRepository;
+
+    /** Names known to have an author row, so that saving a book by a known author needs no query */
+    private final Set<String> knownNames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new AuthorService with the required repository.
+     * @param authorRepository The repository for author operations
+     */
+    public AuthorService(AuthorRepository authorRepository) {
+        this.authorRepository = authorRepository;
+    }
+
+    /**
+     * Looks up many authors by name with a single query.
+     * @param names The author names to look up
+     * @return Map of the authors found, keyed by name
+     */
+    public Map<String, Author> findByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        return authorRepository.findByNameIn(names).stream()
+            .collect(Collectors.toMap(Author::getName, Function.identity(), (first, duplicate) -> first));
+    }
+
+    /**
+     * Creates an author row for every name that does not have one yet.
+     * Serialized, so that concurrent writers of books by the same new author create a single row.
+     * @param names The author names of saved books
+     */
+    public synchronized void saveMissing(Collection<String> names) {
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(knownNames);
+        if (missing.isEmpty()) {
+            return;
+        }
+        Set<String> existing = findByNames(missing).keySet();
+        authorRepository.saveAll(missing.stream()
+            .filter(name -> !existing.contains(name))
+            .map(name -> new Author(null, name))
+            .toList());
+        knownNames.addAll(missing);
+    }
+
+    @Override
+    public void onBookSaved(Book book) {
+        if (!knownNames.contains(book.getAuthor())) {
+            saveMissing(Set.of(book.getAuthor()));
+        }
+    }
+
+    @Override
+    public void onBookDeleted(Integer id) {
+        // Authors are kept, see the class comment
+    }
+}
@@ -0,0 +1,21 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+
+/**
+ * Callback for components that keep derived state (indexes, caches) in sync with the catalog.
+ * Every bean implementing this interface is notified by {@link BookService} after each write.
+ */
+public interface BookChangeListener {
+    /**
+     * Called after a book has been created or updated.
+     * @param book The saved book, including its assigned ID
+     */
+    void onBookSaved(Book book);
+
+    /**
+     * Called after a book has been deleted.
+     * @param id The ID of the deleted book
+     */
+    void onBookDeleted(Integer id);
+}
@@ -0,0 +1,107 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.BookChange;
+import com.acme.bookmanagement.repository.BookChangeRepository;
+import com.acme.bookmanagement.store.BookStore;
+import com.acme.bookmanagement.store.VisibilityHorizon;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads the catalog change log written by the {@link BookStore}, both as pages and as a live stream.
+ * Reads stop at the {@link VisibilityHorizon}, so an entry is only returned once no running write can still
+ * commit one with a lower sequence.
+ * The stream is driven by the table, not by the notifications: after each write has ended subscribers are only
+ * woken up, and each reads the entries following the last one it has emitted. A subscriber therefore
+ * sees every entry exactly once and in sequence order, however far behind it starts, and a burst of
+ * writes costs one read per subscriber rather than one per write.
+ */
+@Service
+public class BookChangeService {
+    /** Number of entries read per query while a subscriber catches up */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final BookChangeRepository changeRepository;
+    private final VisibilityHorizon horizon;
+
+    /** Wake-up signals; a new subscriber receives the latest one at once, so it reads the log when it starts */
+    private final Sinks.Many<Long> commits = Sinks.many().replay().latest();
+    private long commitCount;
+
+    /**
+     * Constructs a new BookChangeService.
+     * @param changeRepository The repository of the change log
+     * @param horizon The horizon up to which the log may be read, which reports every ended write
+     */
+    public BookChangeService(BookChangeRepository changeRepository, VisibilityHorizon horizon) {
+        this.changeRepository = changeRepository;
+        this.horizon = horizon;
+        commits.tryEmitNext(commitCount);
+        // The log may already hold entries of an earlier run
+        horizon.observeSequence(changeRepository.findTopByOrderBySequenceDesc().map(BookChange::getSequence).orElse(0L));
+        horizon.onAdvance(this::notifySubscribers);
+    }
+
+    /**
+     * Reads the change log after a position.
+     * @param after The last sequence already seen (0 reads from the start)
+     * @param limit Maximum number of entries
+     * @return List of the following entries up to the horizon, in sequence order
+     */
+    public List<BookChange> findChangesSince(long after, int limit) {
+        return changeRepository.findBySequenceGreaterThanAndSequenceLessThanEqual(after, horizon.sequenceHorizon(),
+                PageRequest.of(0, limit, Sort.by("sequence")));
+    }
+
+    /**
+     * Streams the change log: first the entries after a position, then every new entry as it is committed.
+     * @param after The last sequence already seen; null streams only the changes made from now on
+     * @return Infinite Flux of changes in sequence order
+     */
+    public Flux<BookChange> streamChangesSince(Long after) {
+        Mono<Long> start = after != null ?
+                Mono.just(after) :
+                Mono.fromCallable(() -> Math.min(horizon.sequenceHorizon(),
+                                changeRepository.findTopByOrderBySequenceDesc()
+                                        .map(BookChange::getSequence)
+                                        .orElse(0L)))
+                        .subscribeOn(Schedulers.boundedElastic());
+        return start.flatMapMany(from -> {
+            AtomicLong last = new AtomicLong(from);
+            return commits.asFlux()
+                    .onBackpressureLatest()
+                    .concatMap(commit -> drain(last), 1);
+        });
+    }
+
+    /**
+     * Reads all entries after the last emitted one, in batches, and advances the position.
+     */
+    private Flux<BookChange> drain(AtomicLong last) {
+        return Mono.defer(() -> batch(last.get()))
+                .expand(changes -> changes.size() < STREAM_BATCH_SIZE ?
+                        Mono.empty() : batch(changes.get(changes.size() - 1).getSequence()))
+                .concatMapIterable(changes -> changes)
+                .doOnNext(change -> last.set(change.getSequence()));
+    }
+
+    private Mono<List<BookChange>> batch(long after) {
+        return Mono.fromCallable(() -> findChangesSince(after, STREAM_BATCH_SIZE))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Called after each write has ended, from the writing thread; emissions into the sink must not overlap.
+     */
+    private synchronized void notifySubscribers() {
+        commits.tryEmitNext(++commitCount);
+    }
+}
@@ -1,82 +1,294 @@
 package com.acme.bookmanagement.service;
 
+import com.acme.bookmanagement.cache.BookCache;
+import com.acme.bookmanagement.cache.BookQueryCache;
 import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookConnection;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.BookDelta;
+import com.acme.bookmanagement.model.BookEdge;
+import com.acme.bookmanagement.model.CacheStatistics;
+import com.acme.bookmanagement.model.PageInfo;
 import com.acme.bookmanagement.model.SortField;
 import com.acme.bookmanagement.model.SortOrder;
-import com.acme.bookmanagement.repository.BookRepository;
+import com.acme.bookmanagement.replica.CatalogReplica;
+import com.acme.bookmanagement.replica.CatalogSnapshot;
+import com.acme.bookmanagement.search.BookSearchIndex;
+import com.acme.bookmanagement.search.BookSuggester;
+import com.acme.bookmanagement.store.BookFilter;
+import com.acme.bookmanagement.store.BookStore;
+import com.acme.bookmanagement.store.BookVersionConflictException;
+import com.acme.bookmanagement.store.VisibilityHorizon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service class that handles business logic for Book operations.
  * Provides methods for CRUD operations, searching, sorting, and pagination of books.
+ * The books are kept by the configured {@link BookStore}; the caches, indexes and listeners here work the same
+ * whichever engine it is.
+ * When the {@link CatalogReplica} is enabled, sorted, date range and paginated reads are answered
+ * from its columnar snapshot and only the books themselves are loaded, through the entity cache.
  */
 @Service
 public class BookService {
-    private final BookRepository bookRepository;
+    private static final Logger log = LoggerFactory.getLogger(BookService.class);
+
+    /** Slice size used by cursor pagination when neither first nor last is given */
+    private static final int DEFAULT_SLICE_SIZE = 10;
+
+    /** Maximum number of IDs per IN (...) query when loading cache misses */
+    private static final int ID_BATCH_SIZE = 1000;
+
+    /**
+     * Book attributes that are only loaded for list results when the client selected them: the large ones,
+     * and the bookkeeping ones, which the replica's columns do not hold
+     */
+    private static final Set<String> LARGE_ATTRIBUTES = Set.of("description", "imageUrl", "version", "updatedAt");
+
+    /** Book attributes that cannot be set to null by an update */
+    private static final Set<String> REQUIRED_ATTRIBUTES = Set.of("title", "author", "publishedDate");
+
+    private final BookStore bookStore;
+    private final BookSearchIndex searchIndex;
+    private final BookSuggester suggester;
+    private final BookCache bookCache;
+    private final BookQueryCache queryCache;
+    private final List<BookChangeListener> listeners;
+    private final Optional<CatalogReplica> replica;
+    private final VisibilityHorizon horizon;
 
     /**
-     * Constructs a new BookService with the required repository.
-     * @param bookRepository The repository for book operations
+     * Constructs a new BookService.
+     * @param bookStore The storage engine holding the books, which also appends every write to the change log
+     * @param searchIndex The full-text index used by {@link #search(String, int)}
+     * @param suggester The typeahead tries used by the suggest methods
+     * @param bookCache The read-through cache in front of {@link #findById(Integer)}
+     * @param queryCache The result cache in front of the sorted and date range queries
+     * @param listeners Components notified after every write
+     * @param replica The in-memory replica for sorted and filtered reads, if enabled
+     * @param horizon The horizon up to which the delta sync may read
      */
-    public BookService(BookRepository bookRepository) {
-        this.bookRepository = bookRepository;
+    public BookService(BookStore bookStore, BookSearchIndex searchIndex, BookSuggester suggester,
+                       BookCache bookCache, BookQueryCache queryCache,
+                       List<BookChangeListener> listeners, Optional<CatalogReplica> replica,
+                       VisibilityHorizon horizon) {
+        this.bookStore = bookStore;
+        this.searchIndex = searchIndex;
+        this.suggester = suggester;
+        this.bookCache = bookCache;
+        this.queryCache = queryCache;
+        this.listeners = listeners;
+        this.replica = replica;
+        this.horizon = horizon;
     }
 
     /**
-     * Retrieves all books from the database.
+     * Retrieves all books from the store.
      * @return List of all books
      */
     public List<Book> findAll() {
-        return bookRepository.findAll();
+        return bookStore.findAll();
+    }
+
+    /**
+     * Retrieves all books, reading only the given attributes unless a large one is among them.
+     * @param attributes Book attributes the caller needs
+     * @return List of all books, possibly partially populated
+     */
+    public List<Book> findAll(Set<String> attributes) {
+        return isProjectable(attributes) ?
+            bookStore.findAllProjected(null, Sort.unsorted(), attributes) :
+            findAll();
     }
 
     /**
      * Finds a book by its ID.
+     * Served from the entity cache when possible; misses are loaded from the store and cached.
      * @param id The ID of the book to find
      * @return Optional containing the book if found, empty otherwise
      */
     public Optional<Book> findById(Integer id) {
-        return bookRepository.findById(id);
+        return bookCache.get(id, bookStore::findById);
+    }
+
+    /**
+     * Gets the hit/miss/eviction statistics of the service's caches.
+     * @return List of statistics, one per cache
+     */
+    public List<CacheStatistics> cacheStatistics() {
+        return List.of(bookCache.statistics(), queryCache.statistics());
     }
 
     /**
-     * Saves a book to the database.
+     * Saves a book to the store and records the change in the change log.
      * @param book The book to save
      * @return The saved book with updated information
      */
     public Book save(Book book) {
-        // Add debug logging
-        System.out.println("Saving book with description: " + book.getDescription());
-        System.out.println("Saving book with imageUrl: " + book.getImageUrl());
-        
-        Book savedBook = bookRepository.save(book);
-        
-        // Verify saved data
-        System.out.println("Saved book description: " + savedBook.getDescription());
-        System.out.println("Saved book imageUrl: " + savedBook.getImageUrl());
-        
+        Book savedBook = bookStore.save(book);
+        listeners.forEach(listener -> listener.onBookSaved(savedBook));
+        log.debug("Saved book {} with description {} and imageUrl {}",
+                savedBook.getId(), savedBook.getDescription(), savedBook.getImageUrl());
         return savedBook;
     }
 
     /**
-     * Deletes a book by its ID.
+     * Changes some attributes of a book, provided nobody else has changed it since the caller read it.
+     * Only the given attributes are written, in one conditional UPDATE, so concurrent editors never wait for
+     * each other; the one that loses gets a {@link BookVersionConflictException} instead of overwriting.
+     * @param id The ID of the book to update
+     * @param version The version the caller read the book at
+     * @param changes New values by attribute name (title, author, publishedDate, description, imageUrl);
+     *                attributes that are absent keep their value
+     * @return Optional containing the updated book, empty if it does not exist
+     * @throws BookVersionConflictException if the book has been changed since that version
+     * @throws IllegalArgumentException if an attribute cannot be updated or a required one is set to null
+     */
+    public Optional<Book> update(Integer id, long version, Map<String, Object> changes) {
+        for (String required : REQUIRED_ATTRIBUTES) {
+            if (changes.containsKey(required) && changes.get(required) == null) {
+                throw new IllegalArgumentException(required + " cannot be null");
+            }
+        }
+        Optional<Book> updatedBook = bookStore.update(id, version, changes);
+        updatedBook.ifPresent(book -> listeners.forEach(listener -> listener.onBookSaved(book)));
+        return updatedBook;
+    }
+
+    /**
+     * Deletes a book by its ID, leaving a tombstone for the delta sync, and records the change in the change log.
      * @param id The ID of the book to delete
      * @return The ID of the deleted book
      */
     public Integer deleteById(Integer id) {
-        bookRepository.deleteById(id);
+        bookStore.deleteById(id);
+        listeners.forEach(listener -> listener.onBookDeleted(id));
         return id;
     }
 
+    /**
+     * Saves many books at once, in chunks written atomically.
+     * @param books The books to save
+     * @return The saved books with their assigned IDs, in input order
+     */
+    public List<Book> saveAll(List<Book> books) {
+        List<Book> savedBooks = bookStore.saveAll(books);
+        savedBooks.forEach(savedBook -> listeners.forEach(listener -> listener.onBookSaved(savedBook)));
+        return savedBooks;
+    }
+
+    /**
+     * Deletes many books at once, in chunks.
+     * @param ids The IDs of the books to delete
+     * @return The IDs passed in
+     */
+    public List<Integer> deleteAllById(List<Integer> ids) {
+        bookStore.deleteAllById(ids);
+        ids.forEach(id -> listeners.forEach(listener -> listener.onBookDeleted(id)));
+        return ids;
+    }
+
+    /**
+     * Finds books by ID, from the entity cache where possible.
+     * @param ids The IDs of the books to find
+     * @return Map of the books found, keyed by ID; IDs that do not exist are absent
+     */
+    public Map<Integer, Book> findAllById(Collection<Integer> ids) {
+        return ids.isEmpty() ? Map.of() : bookCache.getAll(ids, this::loadAllById);
+    }
+
+    /**
+     * Lists the books changed since a watermark, for clients that keep a copy of the catalog.
+     * Changes are returned in the order they were made, at most limit per call; a client applies them and
+     * calls again with the returned watermark until hasMore is false, so a refresh reads only what changed.
+     * @param watermark Watermark returned by the previous call (null starts from the beginning)
+     * @param limit Maximum number of changes
+     * @return The upserts and deletions, and the watermark to continue from
+     * @throws IllegalArgumentException if the watermark is malformed or the limit is not positive
+     */
+    public BookDelta findChangedSince(String watermark, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        BookWatermark from = watermark == null ? BookWatermark.START : BookWatermark.decode(watermark);
+        LocalDateTime visibleBefore = horizon.timeHorizon();
+        List<Book> changed = new ArrayList<>(
+            bookStore.findChangedSince(from.getUpdatedAt(), from.getId(), limit + 1));
+        boolean hasMore = changed.size() > limit;
+        if (hasMore) {
+            changed.remove(limit);
+        }
+        // A write still running may commit books before the ones changed since it began, so those wait for the next call
+        if (changed.removeIf(book -> !book.getUpdatedAt().isBefore(visibleBefore))) {
+            hasMore = false;
+        }
+        List<Book> upserts = changed.stream().filter(book -> !book.isDeleted()).toList();
+        List<Integer> deletions = changed.stream().filter(Book::isDeleted).map(Book::getId).toList();
+        String next = changed.isEmpty() ? watermark : BookWatermark.of(changed.get(changed.size() - 1)).encode();
+        return new BookDelta(upserts, deletions, next, hasMore);
+    }
+
+    /**
+     * Searches books by free text over title, author and description.
+     * Served from the in-memory inverted index; the last word is matched as a prefix.
+     * @param query The text to search for
+     * @param limit Maximum number of results
+     * @return List of matching books, best match first
+     */
+    public List<Book> search(String query, int limit) {
+        return findAllByIdInOrder(searchIndex.search(query, limit));
+    }
+
+    /**
+     * Suggests book titles for typeahead.
+     * @param prefix The prefix typed so far (case-insensitive)
+     * @param limit Maximum number of suggestions
+     * @return List of matching titles
+     */
+    public List<String> suggestTitles(String prefix, int limit) {
+        return suggester.suggestTitles(prefix, limit);
+    }
+
+    /**
+     * Suggests author names for typeahead.
+     * @param prefix The prefix typed so far (case-insensitive)
+     * @param limit Maximum number of suggestions
+     * @return List of matching author names, most prolific first
+     */
+    public List<String> suggestAuthors(String prefix, int limit) {
+        return suggester.suggestAuthors(prefix, limit);
+    }
+
+    /**
+     * Retrieves the titles of all books without loading the full entities.
+     * @return List of all book titles in alphabetical order
+     */
+    public List<String> findAllTitles() {
+        return bookStore.findAllTitles();
+    }
+
     /**
      * Finds books published within a specific date range.
      * @param startDate The start date of the range
@@ -84,7 +296,13 @@ public class BookService {
      * @return List of books published between the specified dates
      */
     public List<Book> findByDateRange(LocalDate startDate, LocalDate endDate) {
-        return bookRepository.findByPublishedDateBetween(startDate, endDate);
+        Optional<CatalogSnapshot> snapshot = snapshot();
+        if (snapshot.isPresent()) {
+            return findAllByIdInOrder(ids(snapshot.get(), snapshot.get().publishedBetween(startDate, endDate)));
+        }
+        return queryCache.get(new DateRangeQuery(startDate, endDate),
+            () -> bookStore.findByPublishedDateBetween(startDate, endDate),
+            this::findAllByIdInOrder);
     }
 
     /**
@@ -93,7 +311,43 @@ public class BookService {
      * @return List of books matching the title criteria
      */
     public List<Book> findByTitleContaining(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+        return bookStore.findByTitleContaining(title);
+    }
+
+    /**
+     * Searches for books by title (case-insensitive partial match), reading only the given attributes
+     * unless a large one is among them.
+     * @param title The title to search for
+     * @param attributes Book attributes the caller needs
+     * @return List of books matching the title criteria, possibly partially populated
+     */
+    public List<Book> findByTitleContaining(String title, Set<String> attributes) {
+        return isProjectable(attributes) ?
+            bookStore.findAllProjected(new BookFilter(title, null), Sort.unsorted(), attributes) :
+            findByTitleContaining(title);
+    }
+
+    /**
+     * Finds books whose title starts with a prefix (case-insensitive), in title order.
+     * @param prefix The title prefix
+     * @param limit Maximum number of results
+     * @return List of matching books
+     */
+    public List<Book> findByTitlePrefix(String prefix, int limit) {
+        return bookStore.findByTitlePrefix(prefix, limit);
+    }
+
+    /**
+     * Finds the books of many authors with a single query.
+     * @param authors The exact author names
+     * @return Map of books keyed by author name; authors without books are absent
+     */
+    public Map<String, List<Book>> findByAuthors(Collection<String> authors) {
+        if (authors.isEmpty()) {
+            return Map.of();
+        }
+        return bookStore.findByAuthorIn(authors).stream()
+            .collect(Collectors.groupingBy(Book::getAuthor));
     }
 
     /**
@@ -103,17 +357,37 @@ public class BookService {
      * @return List of sorted books
      */
     public List<Book> findAllSorted(SortField sortField, SortOrder sortOrder) {
-        return switch (sortField) {
-            case TITLE -> sortOrder == SortOrder.ASC ? 
-                bookRepository.findAllByOrderByTitleAsc() : 
-                bookRepository.findAllByOrderByTitleDesc();
-            case AUTHOR -> sortOrder == SortOrder.ASC ? 
-                bookRepository.findAllByOrderByAuthorAsc() : 
-                bookRepository.findAllByOrderByAuthorDesc();
-            case PUBLISHED_DATE -> sortOrder == SortOrder.ASC ? 
-                bookRepository.findAllByOrderByPublishedDateAsc() : 
-                bookRepository.findAllByOrderByPublishedDateDesc();
-        };
+        Optional<CatalogSnapshot> snapshot = snapshot();
+        if (snapshot.isPresent()) {
+            return findAllByIdInOrder(ids(snapshot.get(), snapshot.get().sorted(sortField, sortOrder)));
+        }
+        return queryCache.get(new SortedQuery(sortField, sortOrder),
+            () -> bookStore.findAllSorted(sortField, sortOrder),
+            this::findAllByIdInOrder);
+    }
+
+    /**
+     * Retrieves all books sorted by specified field and order, reading only the given attributes.
+     * Projected results bypass the caches, which hold full entities, and are built straight from the
+     * replica's columns when it is enabled; when a large attribute is needed
+     * this is {@link #findAllSorted(SortField, SortOrder)}.
+     * @param sortField The field to sort by
+     * @param sortOrder The sort direction
+     * @param attributes Book attributes the caller needs
+     * @return Sorted list of books, possibly partially populated
+     */
+    public List<Book> findAllSorted(SortField sortField, SortOrder sortOrder, Set<String> attributes) {
+        if (!isProjectable(attributes)) {
+            return findAllSorted(sortField, sortOrder);
+        }
+        Optional<CatalogSnapshot> snapshot = snapshot();
+        if (snapshot.isPresent()) {
+            CatalogSnapshot columns = snapshot.get();
+            return Arrays.stream(columns.sorted(sortField, sortOrder)).mapToObj(columns::book).toList();
+        }
+        Sort.Direction direction = sortOrder == SortOrder.ASC ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return bookStore.findAllProjected(null,
+            Sort.by(direction, sortField.attribute()).and(Sort.by(direction, "id")), attributes);
     }
 
     /**
@@ -122,9 +396,7 @@ public class BookService {
      * @return List of books sorted by title
      */
     public List<Book> findAllSortedByTitle(Boolean ascending) {
-        return ascending ? 
-            bookRepository.findAllByOrderByTitleAsc() : 
-            bookRepository.findAllByOrderByTitleDesc();
+        return findAllSorted(SortField.TITLE, ascending ? SortOrder.ASC : SortOrder.DESC);
     }
 
     /**
@@ -133,9 +405,7 @@ public class BookService {
      * @return List of books sorted by date
      */
     public List<Book> findAllSortedByDate(Boolean ascending) {
-        return ascending ? 
-            bookRepository.findAllByOrderByPublishedDateAsc() : 
-            bookRepository.findAllByOrderByPublishedDateDesc();
+        return findAllSorted(SortField.PUBLISHED_DATE, ascending ? SortOrder.ASC : SortOrder.DESC);
     }
 
     /**
@@ -144,7 +414,20 @@ public class BookService {
      * @return List of books matching the author criteria
      */
     public List<Book> findByAuthorContaining(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+        return bookStore.findByAuthorContaining(author);
+    }
+
+    /**
+     * Searches for books by author (case-insensitive partial match), reading only the given attributes
+     * unless a large one is among them.
+     * @param author The author name to search for
+     * @param attributes Book attributes the caller needs
+     * @return List of books matching the author criteria, possibly partially populated
+     */
+    public List<Book> findByAuthorContaining(String author, Set<String> attributes) {
+        return isProjectable(attributes) ?
+            bookStore.findAllProjected(new BookFilter(null, author), Sort.unsorted(), attributes) :
+            findByAuthorContaining(author);
     }
 
     /**
@@ -165,32 +448,163 @@ public class BookService {
         String titleFilter,
         String authorFilter
     ) {
+        Optional<CatalogSnapshot> snapshot = snapshot();
+        if (snapshot.isPresent()) {
+            return findAllWithPagination(snapshot.get(), page, size, sortField, sortOrder, titleFilter, authorFilter);
+        }
         Sort sort = Sort.unsorted();
         if (sortField != null && sortOrder != null) {
-            String fieldName = switch (sortField) {
-                case TITLE -> "title";
-                case AUTHOR -> "author";
-                case PUBLISHED_DATE -> "publishedDate";
-            };
+            String fieldName = sortField.attribute();
             sort = Sort.by(sortOrder == SortOrder.ASC ? 
                 Sort.Direction.ASC : Sort.Direction.DESC, fieldName);
         }
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        
-        Specification<Book> spec = Specification.where(null);
-        if (titleFilter != null && !titleFilter.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.like(cb.lower(root.get("title")), 
-                    "%" + titleFilter.toLowerCase() + "%"));
+
+        return bookStore.findAll(new BookFilter(titleFilter, authorFilter), pageable);
+    }
+
+    private Page<Book> findAllWithPagination(CatalogSnapshot snapshot, int page, int size, SortField sortField,
+                                             SortOrder sortOrder, String titleFilter, String authorFilter) {
+        // Like the database path, sorting needs both a field and an order
+        boolean sorted = sortField != null && sortOrder != null;
+        CatalogSnapshot.Slice slice = snapshot.slice((long) page * size, size,
+            sorted ? sortField : null, sorted ? sortOrder : null, titleFilter, authorFilter);
+        Sort sort = sorted ?
+            Sort.by(sortOrder == SortOrder.ASC ? Sort.Direction.ASC : Sort.Direction.DESC, sortField.attribute()) :
+            Sort.unsorted();
+        return new PageImpl<>(findAllByIdInOrder(ids(snapshot, slice.positions())),
+            PageRequest.of(page, size, sort), slice.total());
+    }
+
+    /**
+     * Retrieves a cursor-paginated (keyset) and filtered slice of books.
+     * Instead of an OFFSET, the slice is located with a seek predicate on
+     * (sort key, id), so deep slices cost the same as the first one.
+     * Pass {@code first}/{@code after} to page forward or {@code last}/{@code before} to page backward.
+     * @param first Number of books after the cursor (can be null)
+     * @param after Cursor to start after (can be null)
+     * @param last Number of books before the cursor (can be null)
+     * @param before Cursor to end before (can be null)
+     * @param sortField Field to sort by (can be null, sorts by id)
+     * @param sortOrder Sort direction (can be null, defaults to ASC)
+     * @param titleFilter Optional title filter (can be null)
+     * @param authorFilter Optional author filter (can be null)
+     * @param includeTotalCount Whether to run the COUNT query for the total number of matches
+     * @return Connection containing the slice and its cursors
+     * @throws IllegalArgumentException if the arguments or cursors are invalid
+     */
+    public BookConnection findAllWithCursor(
+        Integer first,
+        String after,
+        Integer last,
+        String before,
+        SortField sortField,
+        SortOrder sortOrder,
+        String titleFilter,
+        String authorFilter,
+        boolean includeTotalCount
+    ) {
+        if (first != null && last != null) {
+            throw new IllegalArgumentException("Only one of first and last may be given");
+        }
+        boolean backward = last != null || (first == null && before != null);
+        int size = backward ? (last != null ? last : DEFAULT_SLICE_SIZE) : (first != null ? first : DEFAULT_SLICE_SIZE);
+        if (size <= 0) {
+            throw new IllegalArgumentException("Slice size must be positive");
+        }
+        String cursor = backward ? before : after;
+
+        // Paging backward walks the index in the opposite direction and reverses the result
+        SortOrder order = sortOrder != null ? sortOrder : SortOrder.ASC;
+        boolean ascending = (order == SortOrder.ASC) != backward;
+        BookFilter filter = new BookFilter(titleFilter, authorFilter);
+        int filterHash = BookCursor.filterHash(titleFilter, authorFilter);
+        BookCursor position = null;
+        if (cursor != null) {
+            position = BookCursor.decode(cursor);
+            if (position.getSortField() != sortField) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort field");
+            }
+            if (position.getSortOrder() != order) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            if (position.getFilterHash() != filterHash) {
+                throw new IllegalArgumentException("Cursor was issued for different filters");
+            }
+        }
+
+        List<Book> books = new ArrayList<>(bookStore.findSlice(filter, sortField, ascending, position, size + 1));
+        boolean hasMore = books.size() > size;
+        if (hasMore) {
+            books.remove(size);
         }
-        if (authorFilter != null && !authorFilter.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.like(cb.lower(root.get("author")), 
-                    "%" + authorFilter.toLowerCase() + "%"));
+        if (backward) {
+            Collections.reverse(books);
         }
 
-        return bookRepository.findAll(spec, pageable);
+        List<BookEdge> edges = books.stream()
+            .map(book -> new BookEdge(BookCursor.of(sortField, order, filterHash, book).encode(), book))
+            .toList();
+        PageInfo pageInfo = new PageInfo(
+            backward ? before != null : hasMore,
+            backward ? hasMore : after != null,
+            edges.isEmpty() ? null : edges.get(0).getCursor(),
+            edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor());
+        Long totalCount = includeTotalCount ? bookStore.count(filter) : null;
+
+        return new BookConnection(edges, pageInfo, totalCount);
+    }
+
+    /**
+     * Loads the books with the given IDs, preserving the order of the IDs.
+     * Books are taken from the entity cache; misses are loaded in batched IN (...) queries.
+     * IDs that no longer exist are skipped.
+     */
+    private List<Book> findAllByIdInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Book> booksById = bookCache.getAll(ids, this::loadAllById);
+        return ids.stream()
+            .map(booksById::get)
+            .filter(Objects::nonNull)
+            .toList();
     }
-}
 
+    private Map<Integer, Book> loadAllById(Set<? extends Integer> ids) {
+        List<Integer> pending = new ArrayList<>(ids);
+        Map<Integer, Book> booksById = new HashMap<>(pending.size() * 2);
+        for (int from = 0; from < pending.size(); from += ID_BATCH_SIZE) {
+            List<Integer> batch = pending.subList(from, Math.min(from + ID_BATCH_SIZE, pending.size()));
+            bookStore.findAllById(batch).forEach(book -> booksById.put(book.getId(), book));
+        }
+        return booksById;
+    }
+
+    /**
+     * Gets the replica's current snapshot, if the replica is enabled and loaded.
+     */
+    private Optional<CatalogSnapshot> snapshot() {
+        return replica.flatMap(CatalogReplica::snapshot);
+    }
+
+    private static List<Integer> ids(CatalogSnapshot snapshot, int[] positions) {
+        return IntStream.of(positions).mapToObj(snapshot::id).toList();
+    }
+
+    /**
+     * Whether the attributes can be read with a projection, i.e. none of the large columns is needed.
+     */
+    private static boolean isProjectable(Set<String> attributes) {
+        return Collections.disjoint(attributes, LARGE_ATTRIBUTES);
+    }
+
+    /** Cache key of {@link #findAllSorted(SortField, SortOrder)} */
+    private record SortedQuery(SortField sortField, SortOrder sortOrder) {
+    }
+
+    /** Cache key of {@link #findByDateRange(LocalDate, LocalDate)} */
+    private record DateRangeQuery(LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in the change order of the catalog used by the delta sync.
+ * A watermark carries the change time and ID of the last book a client has seen;
+ * books are changed with strictly increasing times, so everything after it is new to the client.
+ */
+public final class BookWatermark {
+    /** Position before the first change */
+    public static final BookWatermark START = new BookWatermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime updatedAt;
+    private final Integer id;
+
+    private BookWatermark(LocalDateTime updatedAt, Integer id) {
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+
+    /**
+     * Creates the watermark just after the given book's change.
+     * @param book The last book seen
+     * @return Watermark for the book's position
+     */
+    public static BookWatermark of(Book book) {
+        return new BookWatermark(book.getUpdatedAt(), book.getId());
+    }
+
+    /**
+     * Decodes a watermark previously produced by {@link #encode()}.
+     * @param watermark The opaque watermark string
+     * @return The decoded watermark
+     * @throws IllegalArgumentException if the watermark is malformed
+     */
+    public static BookWatermark decode(String watermark) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid watermark: " + watermark);
+            }
+            return new BookWatermark(LocalDateTime.parse(parts[0]), Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid watermark: " + watermark, e);
+        }
+    }
+
+    /**
+     * Encodes this watermark into an opaque, URL-safe string.
+     * @return The encoded watermark
+     */
+    public String encode() {
+        String raw = updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The change time of the last book seen, in UTC
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * @return The ID of the last book seen
+     */
+    public Integer getId() {
+        return id;
+    }
+}
@@ -0,0 +1,189 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for single book inserts under bursty load.
+ * Books submitted by concurrent requests are queued and written by one flusher thread as group commits:
+ * a group is closed after {@code max-batch-rows} books or {@code flush-interval} after its first book,
+ * whichever comes first, and saved with {@link BookService#saveAll(List)} in one transaction.
+ * Each submitter's future completes with the saved book once that transaction has committed, so an
+ * acknowledged book is durable; what is saved is the number of commits, not the wait for one.
+ * When the queue is full, submitters wait up to {@code offer-timeout} for room and are then rejected,
+ * which pushes back on clients instead of buffering without bound. On shutdown the queue stops accepting
+ * books and everything already queued is written before the context closes.
+ * Only created when bookmanagement.write-behind.enabled is true.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanagement.write-behind.enabled", havingValue = "true")
+public class BookWriteBehindQueue implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(BookWriteBehindQueue.class);
+
+    /** How often the waiting flusher checks whether it has been stopped */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final BookService bookService;
+    private final BlockingQueue<PendingBook> queue;
+    private final Duration flushInterval;
+    private final int maxBatchRows;
+    private final Duration offerTimeout;
+    private final Thread flusher;
+
+    private volatile boolean accepting = true;
+
+    /**
+     * Constructs a new BookWriteBehindQueue and starts its flusher thread.
+     * @param bookService The service the groups are saved with
+     * @param flushInterval Longest time a queued book waits for its group to fill up
+     * @param maxBatchRows Largest number of books written in one group commit; capped at the batch chunk size,
+     *                     so that a group is always a single transaction
+     * @param chunkSize Number of rows the book store writes per transaction
+     * @param queueCapacity Number of books that may wait to be written
+     * @param offerTimeout Time a submitter waits for room in a full queue before it is rejected
+     */
+    public BookWriteBehindQueue(BookService bookService,
+                                @Value("${bookmanagement.write-behind.flush-interval:10ms}") Duration flushInterval,
+                                @Value("${bookmanagement.write-behind.max-batch-rows:500}") int maxBatchRows,
+                                @Value("${bookmanagement.batch.chunk-size:1000}") int chunkSize,
+                                @Value("${bookmanagement.write-behind.queue-capacity:10000}") int queueCapacity,
+                                @Value("${bookmanagement.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.bookService = bookService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushInterval = flushInterval;
+        this.maxBatchRows = Math.min(maxBatchRows, chunkSize);
+        this.offerTimeout = offerTimeout;
+        this.flusher = new CustomizableThreadFactory("book-write-behind-").newThread(this::run);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues a book to be inserted with the next group commit.
+     * @param book The book to save
+     * @return Future of the saved book with its assigned ID, completed after the commit; fails with a
+     * RejectedExecutionException if the queue stayed full or is shut down
+     */
+    public CompletableFuture<Book> submit(Book book) {
+        PendingBook pending = new PendingBook(book, new CompletableFuture<>());
+        try {
+            if (!accepting || !queue.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                pending.saved().completeExceptionally(new RejectedExecutionException(
+                        accepting ? "Write queue is full" : "Write queue is shut down"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.saved().completeExceptionally(new RejectedExecutionException("Interrupted while queueing", e));
+        }
+        return pending.saved();
+    }
+
+    /**
+     * Gets the number of books waiting to be written.
+     * @return The queue depth
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting books and writes everything already queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        accepting = false;
+        flusher.join();
+        // A submitter that passed the check just before it changed may have queued after the flusher's last poll
+        List<PendingBook> rest = new ArrayList<>();
+        while (queue.drainTo(rest, maxBatchRows) > 0) {
+            flush(rest);
+            rest.clear();
+        }
+    }
+
+    private void run() {
+        List<PendingBook> group = new ArrayList<>(maxBatchRows);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingBook first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (group.size() < maxBatchRows) {
+                    long remaining = deadline - System.nanoTime();
+                    // Once shutting down, the group is written with what is there instead of waiting for more
+                    if (remaining <= 0 || !accepting) {
+                        queue.drainTo(group, maxBatchRows - group.size());
+                        break;
+                    }
+                    PendingBook next = queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS)),
+                            TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        group.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Only destroy() ends the flusher, and only once the queue has been drained
+            }
+            if (!group.isEmpty()) {
+                flush(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Saves a group in one transaction. If it fails, the books are saved one by one,
+     * so one bad book only fails its own submitter.
+     */
+    private void flush(List<PendingBook> group) {
+        try {
+            List<Book> saved = bookService.saveAll(group.stream().map(PendingBook::book).toList());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).saved().complete(saved.get(i));
+            }
+        } catch (RuntimeException groupFailure) {
+            log.warn("Group commit of {} books failed, saving them one by one", group.size(), groupFailure);
+            for (PendingBook pending : group) {
+                try {
+                    pending.saved().complete(bookService.save(unsaved(pending.book())));
+                } catch (RuntimeException e) {
+                    pending.saved().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a book without the ID and version the rolled back group commit assigned to it,
+     * so that it is inserted rather than merged.
+     */
+    private static Book unsaved(Book book) {
+        return new Book(null, book.getTitle(), book.getAuthor(), book.getPublishedDate(),
+                book.getDescription(), book.getImageUrl());
+    }
+
+    /**
+     * A queued book and the future of its submitter.
+     * @param book The book to save
+     * @param saved Completed with the saved book after the commit
+     */
+    private record PendingBook(Book book, CompletableFuture<Book> saved) {
+    }
+}
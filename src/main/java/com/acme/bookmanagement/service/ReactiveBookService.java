@@ -0,0 +1,128 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookPage;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.repository.reactive.BookRow;
+import com.acme.bookmanagement.repository.reactive.ReactiveBookRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the read methods of {@link BookService}, active in the "reactive" profile.
+ * Reads go straight to the database over R2DBC; the caches of the JPA path are not consulted.
+ * Tombstones of deleted books are excluded explicitly, as the JPA entity does implicitly.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBookService {
+    private final ReactiveBookRepository bookRepository;
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Constructs a new ReactiveBookService.
+     * @param bookRepository The reactive repository for simple reads
+     * @param template Used for the dynamically filtered and sorted pages
+     */
+    public ReactiveBookService(ReactiveBookRepository bookRepository, R2dbcEntityTemplate template) {
+        this.bookRepository = bookRepository;
+        this.template = template;
+    }
+
+    /**
+     * Retrieves all books.
+     * @return Flux of all books
+     */
+    public Flux<Book> findAll() {
+        return bookRepository.findAllByDeletedFalse().map(BookRow::toBook);
+    }
+
+    /**
+     * Finds a book by its ID.
+     * @param id The ID of the book to find
+     * @return Mono of the book, empty if not found
+     */
+    public Mono<Book> findById(Integer id) {
+        return bookRepository.findByIdAndDeletedFalse(id).map(BookRow::toBook);
+    }
+
+    /**
+     * Finds books published within a date range.
+     * @param startDate The start date of the range
+     * @param endDate The end date of the range
+     * @return Flux of books within the date range
+     */
+    public Flux<Book> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return bookRepository.findByPublishedDateBetweenAndDeletedFalse(startDate, endDate).map(BookRow::toBook);
+    }
+
+    /**
+     * Streams all books in ID order, fetching rows only as fast as the subscriber consumes them.
+     * @return Flux of all books
+     */
+    public Flux<Book> streamAll() {
+        return bookRepository.findAllByDeletedFalseOrderById().map(BookRow::toBook);
+    }
+
+    /**
+     * Retrieves a paginated and filtered list of books with sorting options,
+     * with the same semantics as {@link BookService#findAllWithPagination}.
+     * The page and the total count are queried concurrently.
+     * @param page Zero-based page index
+     * @param size Number of items per page
+     * @param sortField Field to sort by (can be null)
+     * @param sortOrder Sort direction (can be null)
+     * @param titleFilter Optional title filter (can be null)
+     * @param authorFilter Optional author filter (can be null)
+     * @return Mono of the page of books matching the criteria
+     */
+    public Mono<BookPage> findAllWithPagination(
+        Integer page,
+        Integer size,
+        SortField sortField,
+        SortOrder sortOrder,
+        String titleFilter,
+        String authorFilter
+    ) {
+        Sort sort = Sort.unsorted();
+        if (sortField != null && sortOrder != null) {
+            sort = Sort.by(sortOrder == SortOrder.ASC ?
+                Sort.Direction.ASC : Sort.Direction.DESC, sortField.attribute());
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        Criteria criteria = Criteria.where("deleted").isFalse();
+        if (titleFilter != null && !titleFilter.isEmpty()) {
+            criteria = criteria.and(Criteria.where("title").like("%" + titleFilter + "%").ignoreCase(true));
+        }
+        if (authorFilter != null && !authorFilter.isEmpty()) {
+            criteria = criteria.and(Criteria.where("author").like("%" + authorFilter + "%").ignoreCase(true));
+        }
+
+        Mono<List<Book>> content = template.select(Query.query(criteria).with(pageable), BookRow.class)
+                .map(BookRow::toBook)
+                .collectList();
+        Mono<Long> total = template.count(Query.query(criteria), BookRow.class);
+        return Mono.zip(content, total)
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()))
+                .map(bookPage -> new BookPage(
+                        bookPage.getContent(),
+                        bookPage.getTotalElements(),
+                        bookPage.getTotalPages(),
+                        bookPage.getNumber(),
+                        bookPage.getSize()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookChange;
+import com.acme.bookmanagement.model.ChangeType;
+import com.acme.bookmanagement.repository.BookChangeRepository;
+import com.acme.bookmanagement.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Writes books and records every write in the change log (the book_change table) in the same transaction,
+ * so a change is logged if and only if it is committed.
+ * Large numbers of books are written in fixed-size chunks, one transaction per chunk.
+ * Each chunk is flushed as JDBC batches (see hibernate.jdbc.batch_size) and its
+ * persistence context is discarded on commit, so memory stays bounded and a failure
+ * only rolls back the current chunk.
+ * Write transactions run concurrently; conditional updates are guarded by their version check alone.
+ * Each transaction stamps its books with a change time strictly after that of the previous one to begin,
+ * and takes its change log sequences from the database sequence. Since transactions may commit out of that
+ * order, they are registered with the {@link VisibilityHorizon}, which keeps readers of the log and of the
+ * delta sync from passing an entry a running transaction may still commit behind them.
+ * Deletions leave tombstones: the row is flagged as deleted rather than removed.
+ */
+@Component
+public class BookBatchWriter {
+    private final BookRepository bookRepository;
+    private final BookChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final VisibilityHorizon horizon;
+
+    /**
+     * Constructs a new BookBatchWriter.
+     * @param bookRepository The repository for book operations
+     * @param changeRepository The repository of the change log
+     * @param transactionManager The transaction manager used for each chunk
+     * @param chunkSize Number of rows written per transaction
+     * @param horizon Hands out the change times and tracks the transactions in flight
+     */
+    public BookBatchWriter(BookRepository bookRepository,
+                           BookChangeRepository changeRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bookmanagement.batch.chunk-size:1000}") int chunkSize,
+                           VisibilityHorizon horizon) {
+        this.bookRepository = bookRepository;
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Saves one book.
+     * @param book The book to save
+     * @return The saved book
+     */
+    public Book save(Book book) {
+        return write(write -> {
+            book.setUpdatedAt(write.changeTime());
+            Book saved = bookRepository.save(book);
+            log(write, List.of(new BookChange(saved.getId(), ChangeType.UPSERT, write.changeTime())));
+            return saved;
+        });
+    }
+
+    /**
+     * Updates attributes of one book if it is still at the version the caller read.
+     * The book is only read after the conditional UPDATE has succeeded, to return it; on a conflict
+     * nothing is written and nothing is retried.
+     * @param id The ID of the book
+     * @param version The version the caller read the book at
+     * @param changes New values of the changed attributes only
+     * @return The updated book, or empty if it does not exist or is deleted
+     * @throws BookVersionConflictException if the book is at another version
+     */
+    public Optional<Book> update(Integer id, long version, Map<String, Object> changes) {
+        return write(write -> {
+            if (bookRepository.updateIfVersion(id, version, changes, write.changeTime()) == 0) {
+                if (bookRepository.existsById(id)) {
+                    throw new BookVersionConflictException(id, version);
+                }
+                return Optional.<Book>empty();
+            }
+            log(write, List.of(new BookChange(id, ChangeType.UPSERT, write.changeTime())));
+            return bookRepository.findById(id);
+        });
+    }
+
+    /**
+     * Deletes one book, leaving a tombstone. An ID that does not exist is ignored, but still logged.
+     * @param id The ID of the book to delete
+     */
+    public void deleteById(Integer id) {
+        write(write -> {
+            bookRepository.softDeleteAllById(List.of(id), write.changeTime());
+            log(write, List.of(new BookChange(id, ChangeType.DELETE, write.changeTime())));
+            return null;
+        });
+    }
+
+    /**
+     * Saves the books chunk by chunk.
+     * @param books The books to save
+     * @return The saved books with their assigned IDs, in input order
+     */
+    public List<Book> saveAll(List<Book> books) {
+        List<Book> saved = new ArrayList<>(books.size());
+        for (List<Book> chunk : chunks(books)) {
+            saved.addAll(write(write -> {
+                chunk.forEach(book -> book.setUpdatedAt(write.changeTime()));
+                List<Book> savedChunk = bookRepository.saveAll(chunk);
+                log(write, savedChunk.stream()
+                        .map(book -> new BookChange(book.getId(), ChangeType.UPSERT, write.changeTime()))
+                        .toList());
+                return savedChunk;
+            }));
+        }
+        return saved;
+    }
+
+    /**
+     * Deletes the books chunk by chunk, leaving tombstones, one UPDATE ... WHERE id IN (...) per chunk.
+     * IDs that do not exist are ignored, but still logged.
+     * @param ids The IDs of the books to delete
+     */
+    public void deleteAllById(List<Integer> ids) {
+        for (List<Integer> chunk : chunks(ids)) {
+            write(write -> {
+                bookRepository.softDeleteAllById(chunk, write.changeTime());
+                log(write, chunk.stream()
+                        .map(id -> new BookChange(id, ChangeType.DELETE, write.changeTime()))
+                        .toList());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs one write transaction, registered with the horizon until it has committed or rolled back.
+     */
+    private <T> T write(Function<VisibilityHorizon.Write, T> work) {
+        VisibilityHorizon.Write write = horizon.begin();
+        try {
+            return transactionTemplate.execute(status -> work.apply(write));
+        } finally {
+            horizon.end(write);
+        }
+    }
+
+    /**
+     * Appends entries to the change log; their sequences are assigned on insert.
+     */
+    private void log(VisibilityHorizon.Write write, List<BookChange> changes) {
+        changeRepository.saveAll(changes).forEach(change -> write.logged(change.getSequence()));
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,36 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+
+import java.util.Locale;
+
+/**
+ * Case-insensitive partial match on title and author, used by the filtered queries of {@link BookStore}.
+ * @param title Part of the title to match (null or empty matches every title)
+ * @param author Part of the author name to match (null or empty matches every author)
+ */
+public record BookFilter(String title, String author) {
+    /**
+     * Checks a book against the filter.
+     * @param book The book to check
+     * @return True if both the title and the author match
+     */
+    public boolean matches(Book book) {
+        return matches(book.getTitle(), book.getAuthor());
+    }
+
+    /**
+     * Checks a title and author against the filter.
+     * @param bookTitle The title of the book
+     * @param bookAuthor The author of the book
+     * @return True if both the title and the author match
+     */
+    public boolean matches(String bookTitle, String bookAuthor) {
+        return contains(bookTitle, title) && contains(bookAuthor, author);
+    }
+
+    private static boolean contains(String value, String part) {
+        return part == null || part.isEmpty() ||
+                (value != null && value.toLowerCase(Locale.ROOT).contains(part.toLowerCase(Locale.ROOT)));
+    }
+}
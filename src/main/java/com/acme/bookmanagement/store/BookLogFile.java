@@ -0,0 +1,686 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.SortField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of book records in a memory-mapped file, with an in-memory index of the latest record per ID.
+ * The index also keeps the records in (change time, ID) order and the live ones in (sort key, ID) order for every
+ * {@link SortField}, with the titles and authors they filter on, so the delta sync and keyset slices walk from a
+ * position instead of decoding and sorting every record.
+ * The file starts with a header (magic number and format version) followed by records of
+ * {@code length:int, crc32:int, payload}; the payload holds a flags byte and the full state of one book.
+ * A write appends the new state of every book it changes and forces the records to disk, then does the same
+ * with a last record flagged as a commit before the index points at them; the caller can commit elsewhere in
+ * between, and discard the write if that fails. On opening, the file is replayed up to the last commit whose
+ * records all pass their checksum, so a write torn by a crash is discarded as a whole, and the bytes after it
+ * are cleared.
+ * Records never change once written, so readers decode them without holding a lock while writes go on.
+ * Superseded records stay in the file until {@link #compact()} rewrites it with the latest record per ID.
+ * Writers must be serialized by the caller. Offsets are ints, which limits the file to 2 GB.
+ */
+final class BookLogFile implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(BookLogFile.class);
+    private static final Marker ALWAYS = MarkerFactory.getMarker("ALWAYS");
+
+    /** "BKL1" */
+    private static final int MAGIC = 0x424B4C31;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    /** Length and checksum in front of each payload */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /** Flags, id, version, change time (seconds and nanos), deleted flag and published date */
+    private static final int FIXED_PAYLOAD_SIZE = 1 + 4 + 8 + 8 + 4 + 1 + 8;
+
+    /** Flag of the last record of a write */
+    private static final byte COMMIT = 1;
+
+    /** Published date of a book that has none */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    /** Size the file is mapped at when it is created; it doubles whenever a write does not fit */
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private final Path file;
+
+    /** Guards the indexes, the mapping and the counters; held by readers only to look up records */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Integer, Slot> index = new TreeMap<>();
+
+    /** Latest records, tombstones included, in (change time, ID) order */
+    private final NavigableMap<SortKey, Slot> changes = new TreeMap<>();
+
+    /** Live records in ID order */
+    private final NavigableMap<SortKey, Slot> liveById = new TreeMap<>();
+
+    /** Live records in (sort key, ID) order, by sort field */
+    private final Map<SortField, NavigableMap<SortKey, Slot>> liveBySortKey = new EnumMap<>(SortField.class);
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /** Offset following the last committed record */
+    private int end;
+
+    /** Bytes of records superseded by a later record of the same book */
+    private long deadBytes;
+    private int liveCount;
+    private int maxId;
+    private LocalDateTime lastChangeTime = LocalDateTime.MIN;
+
+    /**
+     * Opens the log file, creating it if it does not exist, and replays it into the index.
+     * @param file The log file
+     * @throws IOException if the file cannot be opened or is not a log file of this format
+     */
+    BookLogFile(Path file) throws IOException {
+        this.file = file;
+        for (SortField sortField : SortField.values()) {
+            liveBySortKey.put(sortField, new TreeMap<>());
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = map(channel, Math.max(channel.size(), INITIAL_CAPACITY));
+        if (buffer.getInt(0) == 0) {
+            buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION);
+            buffer.force(0, HEADER_SIZE);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Not a book log file of format " + FORMAT_VERSION + ": " + file);
+        }
+        recover();
+    }
+
+    /**
+     * Gets the latest record of a book.
+     * @param id The ID of the book
+     * @return The record, a tombstone if the book is deleted, or null if the book never existed
+     */
+    Slot slot(int id) {
+        lock.readLock().lock();
+        try {
+            return index.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the latest state of a book.
+     * @param id The ID of the book
+     * @return The book, a tombstone if it is deleted, or null if it never existed
+     */
+    Book find(int id) {
+        Slot slot;
+        ByteBuffer source;
+        lock.readLock().lock();
+        try {
+            slot = index.get(id);
+            source = buffer;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return slot == null ? null : read(source, slot);
+    }
+
+    /**
+     * Takes a consistent view of the latest records, which stays readable while later writes and compactions go on.
+     * @return The records in ID order, and the mapping they are read from
+     */
+    View view() {
+        lock.readLock().lock();
+        try {
+            return new View(buffer, new ArrayList<>(index.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the live records following a position in (sort key, ID) order, walking the index from the position.
+     * Records the filter rejects are skipped without being decoded; a selective filter walks further.
+     * @param sortField Field to sort by (null sorts by ID)
+     * @param ascending Direction of the walk
+     * @param afterKey Sort key of the position to start after, typed like the attribute (ignored in ID order)
+     * @param afterId ID of the position to start after (null starts at the beginning)
+     * @param filter Records to take
+     * @param limit Maximum number of records
+     * @return The records in walk order, and the mapping they are read from
+     */
+    View slice(SortField sortField, boolean ascending, Comparable<?> afterKey, Integer afterId,
+               Predicate<Slot> filter, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<SortKey, Slot> order = sortField == null ? liveById : liveBySortKey.get(sortField);
+            if (afterId != null) {
+                SortKey after = new SortKey(afterKey, afterId);
+                order = ascending ? order.tailMap(after, false) : order.headMap(after, false);
+            }
+            return new View(buffer, take(ascending ? order : order.descendingMap(), filter, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the records changed after a position in (change time, ID) order, tombstones included.
+     * @param updatedAt Change time of the position to start after
+     * @param id ID of the position to start after
+     * @param limit Maximum number of records
+     * @return The records in change order, and the mapping they are read from
+     */
+    View changedSince(LocalDateTime updatedAt, int id, int limit) {
+        lock.readLock().lock();
+        try {
+            return new View(buffer, take(changes.tailMap(new SortKey(updatedAt, id), false), slot -> true, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the live records matching a filter, without decoding them.
+     * @param filter Records to count
+     * @return Number of matching records
+     */
+    long count(Predicate<Slot> filter) {
+        lock.readLock().lock();
+        try {
+            return liveById.values().stream().filter(filter).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the new states of the books written by one write, as one commit.
+     * Once this returns the records are on disk and visible to readers.
+     * @param books The books, with their IDs, versions and change time assigned
+     * @throws IOException if the file cannot hold the records; nothing is written then
+     */
+    void append(List<Book> books) throws IOException {
+        commit(prepare(books));
+    }
+
+    /**
+     * Writes the records of one write but its commit record, and forces them to disk. Until {@link #commit} writes
+     * the commit record they are invisible to readers and discarded by recovery; {@link #abort} clears them.
+     * Only one write may be prepared at a time.
+     * @param books The books, with their IDs, versions and change time assigned
+     * @return The prepared write
+     * @throws IOException if the file cannot hold the records; nothing is written then
+     */
+    Append prepare(List<Book> books) throws IOException {
+        List<byte[]> records = new ArrayList<>(books.size());
+        long total = 0;
+        for (int i = 0; i < books.size(); i++) {
+            byte[] record = encode(books.get(i), i == books.size() - 1);
+            records.add(record);
+            total += record.length;
+        }
+        ensureCapacity(end + total);
+
+        int position = end;
+        try {
+            for (byte[] record : records.subList(0, Math.max(records.size() - 1, 0))) {
+                buffer.put(position, record);
+                position += record.length;
+            }
+            buffer.force(end, position - end);
+        } catch (RuntimeException e) {
+            clear(end, position);
+            throw e;
+        }
+        return new Append(books, records, position);
+    }
+
+    /**
+     * Writes the commit record of a prepared write and forces it to disk, then makes the write visible to readers.
+     * @param append The write returned by {@link #prepare}
+     * @throws IOException if the commit record cannot be written; the write is discarded then
+     */
+    void commit(Append append) throws IOException {
+        if (append.books().isEmpty()) {
+            return;
+        }
+        byte[] record = append.records().get(append.records().size() - 1);
+        try {
+            buffer.put(append.commitOffset(), record);
+            buffer.force(append.commitOffset(), record.length);
+        } catch (RuntimeException e) {
+            // A later, shorter write must not leave this one's commit record behind it for recovery to find
+            clear(end, append.commitOffset() + record.length);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int position = end;
+            for (int i = 0; i < append.books().size(); i++) {
+                index(Slot.of(append.books().get(i), position, append.records().get(i).length));
+                position += append.records().get(i).length;
+            }
+            end = position;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Discards a prepared write.
+     * @param append The write returned by {@link #prepare}
+     */
+    void abort(Append append) {
+        clear(end, append.commitOffset());
+    }
+
+    /**
+     * Checks whether enough of the file is taken by superseded records for a compaction to pay off.
+     * @param threshold Fraction of the records' bytes that may be superseded
+     * @param minimumSize Size below which the file is never compacted
+     * @return True if the file should be compacted
+     */
+    boolean shouldCompact(double threshold, long minimumSize) {
+        lock.readLock().lock();
+        try {
+            return end >= minimumSize && deadBytes > threshold * (end - HEADER_SIZE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the latest record of each book, tombstones included, in ID order.
+     * The new file is written and forced next to the old one and then moved over it, so a crash during compaction
+     * leaves either the old file or the new one. Readers keep decoding from the old mapping meanwhile.
+     * @throws IOException if the new file cannot be written; the old one is kept then
+     */
+    void compact() throws IOException {
+        List<Slot> slots = new ArrayList<>(index.values());
+        long size = HEADER_SIZE + slots.stream().mapToLong(Slot::size).sum();
+
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        FileChannel target = FileChannel.open(compacted,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer out;
+        List<Slot> moved = new ArrayList<>(slots.size());
+        int position = HEADER_SIZE;
+        try {
+            out = map(target, Math.max(size, INITIAL_CAPACITY));
+            out.putInt(0, MAGIC).putInt(4, FORMAT_VERSION);
+            for (Slot slot : slots) {
+                // Each record becomes a commit of its own, so it is re-encoded with the flag set
+                byte[] record = encode(read(buffer, slot), true);
+                out.put(position, record);
+                moved.add(slot.movedTo(position, record.length));
+                position += record.length;
+            }
+            out.force();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+
+        FileChannel replaced = channel;
+        long before = end;
+        lock.writeLock().lock();
+        try {
+            channel = target;
+            buffer = out;
+            index.clear();
+            changes.clear();
+            liveById.clear();
+            liveBySortKey.values().forEach(Map::clear);
+            deadBytes = 0;
+            liveCount = 0;
+            moved.forEach(this::index);
+            end = position;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        replaced.close();
+        log.info(ALWAYS, "Compacted {} from {} to {} bytes", file, before, position);
+    }
+
+    /**
+     * Gets the number of books that are not deleted.
+     * @return The number of live books
+     */
+    int liveCount() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the highest ID in the log, tombstones included.
+     * @return The highest ID, 0 if the log is empty
+     */
+    int maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the latest change time in the log.
+     * @return The latest change time, LocalDateTime.MIN if the log is empty
+     */
+    LocalDateTime lastChangeTime() {
+        lock.readLock().lock();
+        try {
+            return lastChangeTime;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the file; every committed write is already on disk.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Replays the committed records into the index and clears whatever follows the last commit.
+     */
+    private void recover() {
+        List<Slot> uncommitted = new ArrayList<>();
+        int position = HEADER_SIZE;
+        end = HEADER_SIZE;
+        while (position <= buffer.capacity() - RECORD_HEADER_SIZE) {
+            int length = buffer.getInt(position);
+            if (length < FIXED_PAYLOAD_SIZE || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_SIZE, payload);
+            if (checksum(payload, 0, length) != buffer.getInt(position + 4)) {
+                break;
+            }
+            uncommitted.add(Slot.of(decode(payload), position, RECORD_HEADER_SIZE + length));
+            position += RECORD_HEADER_SIZE + length;
+            if ((payload[0] & COMMIT) != 0) {
+                uncommitted.forEach(this::index);
+                uncommitted.clear();
+                end = position;
+            }
+        }
+        if (end <= buffer.capacity() - 4 && buffer.getInt(end) != 0) {
+            log.warn("Discarding an incomplete write at offset {} of {}", end, file);
+            clear(end, buffer.capacity());
+            buffer.force();
+        }
+    }
+
+    /**
+     * Records a book's latest record in the index; called with the write lock held, or before the file is shared.
+     */
+    private void index(Slot slot) {
+        Slot previous = index.put(slot.id(), slot);
+        if (previous != null) {
+            deadBytes += previous.size();
+            changes.remove(previous.changeKey());
+            if (!previous.deleted()) {
+                liveCount--;
+                liveById.remove(previous.sortKey(null));
+                liveBySortKey.forEach((sortField, live) -> live.remove(previous.sortKey(sortField)));
+            }
+        }
+        changes.put(slot.changeKey(), slot);
+        if (!slot.deleted()) {
+            liveCount++;
+            liveById.put(slot.sortKey(null), slot);
+            liveBySortKey.forEach((sortField, live) -> live.put(slot.sortKey(sortField), slot));
+        }
+        maxId = Math.max(maxId, slot.id());
+        if (slot.updatedAt().isAfter(lastChangeTime)) {
+            lastChangeTime = slot.updatedAt();
+        }
+    }
+
+    private static List<Slot> take(NavigableMap<SortKey, Slot> order, Predicate<Slot> filter, int limit) {
+        List<Slot> slots = new ArrayList<>(Math.min(limit, 1024));
+        for (Slot slot : order.values()) {
+            if (slots.size() >= limit) {
+                break;
+            }
+            if (filter.test(slot)) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Grows the mapping, doubling it, until it can hold the given number of bytes.
+     */
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Book log file is full: " + file);
+        }
+        MappedByteBuffer grown = map(channel, Math.min(Math.max(required, 2L * buffer.capacity()), Integer.MAX_VALUE));
+        lock.writeLock().lock();
+        try {
+            buffer = grown;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear(int from, int to) {
+        byte[] zeros = new byte[64 * 1024];
+        for (int position = from; position < to; position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, to - position));
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long capacity) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Encodes a book into a record, checksum included.
+     */
+    static byte[] encode(Book book, boolean commit) {
+        byte[][] strings = {
+                utf8(book.getTitle()), utf8(book.getAuthor()), utf8(book.getDescription()), utf8(book.getImageUrl())};
+        int length = FIXED_PAYLOAD_SIZE;
+        for (byte[] string : strings) {
+            length += 4 + (string == null ? 0 : string.length);
+        }
+        LocalDateTime updatedAt = book.getUpdatedAt();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length)
+                .putInt(length)
+                .putInt(0)
+                .put(commit ? COMMIT : 0)
+                .putInt(book.getId())
+                .putLong(book.getVersion())
+                .putLong(updatedAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(updatedAt.getNano())
+                .put((byte) (book.isDeleted() ? 1 : 0))
+                .putLong(book.getPublishedDate() == null ? NO_DATE : book.getPublishedDate().toEpochDay());
+        for (byte[] string : strings) {
+            if (string == null) {
+                record.putInt(-1);
+            } else {
+                record.putInt(string.length).put(string);
+            }
+        }
+        record.putInt(4, checksum(record.array(), RECORD_HEADER_SIZE, length));
+        return record.array();
+    }
+
+    /**
+     * Decodes the payload of a record.
+     */
+    static Book decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        in.get();
+        int id = in.getInt();
+        long version = in.getLong();
+        LocalDateTime updatedAt = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        boolean deleted = in.get() != 0;
+        long publishedDate = in.getLong();
+        Book book = new Book(id, string(in), string(in),
+                publishedDate == NO_DATE ? null : LocalDate.ofEpochDay(publishedDate), string(in), string(in));
+        book.setVersion(version);
+        book.setUpdatedAt(updatedAt);
+        book.setDeleted(deleted);
+        return book;
+    }
+
+    private static Book read(ByteBuffer source, Slot slot) {
+        byte[] payload = new byte[slot.size() - RECORD_HEADER_SIZE];
+        source.get(slot.offset() + RECORD_HEADER_SIZE, payload);
+        return decode(payload);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Location of the latest record of a book, with the fields that reads filter and sort on without decoding it.
+     * @param id The ID of the book
+     * @param offset Offset of the record in the file
+     * @param size Size of the record in bytes
+     * @param version Version of the book
+     * @param updatedAt Change time of the book
+     * @param deleted Whether the record is a tombstone
+     * @param title Title of the book
+     * @param author Author of the book
+     * @param publishedDate Published date of the book, null if it has none
+     */
+    record Slot(int id, int offset, int size, long version, LocalDateTime updatedAt, boolean deleted,
+                String title, String author, LocalDate publishedDate) {
+        static Slot of(Book book, int offset, int size) {
+            return new Slot(book.getId(), offset, size, book.getVersion(), book.getUpdatedAt(), book.isDeleted(),
+                    book.getTitle(), book.getAuthor(), book.getPublishedDate());
+        }
+
+        Slot movedTo(int offset, int size) {
+            return new Slot(id, offset, size, version, updatedAt, deleted, title, author, publishedDate);
+        }
+
+        SortKey changeKey() {
+            return new SortKey(updatedAt, id);
+        }
+
+        SortKey sortKey(SortField sortField) {
+            Comparable<?> key = sortField == null ? null : switch (sortField) {
+                case TITLE -> title;
+                case AUTHOR -> author;
+                case PUBLISHED_DATE -> publishedDate;
+            };
+            return new SortKey(key, id);
+        }
+    }
+
+    /**
+     * Position in one of the orders of the index: a key, nulls first, with ties broken by ID.
+     * @param key The sort key or change time, null in ID order
+     * @param id The ID of the book
+     */
+    private record SortKey(Comparable<?> key, int id) implements Comparable<SortKey> {
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public int compareTo(SortKey other) {
+            int comparison;
+            if (key == null || other.key == null) {
+                comparison = key == other.key ? 0 : key == null ? -1 : 1;
+            } else {
+                comparison = ((Comparable) key).compareTo(other.key);
+            }
+            return comparison != 0 ? comparison : Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * A write whose records are on disk but not committed.
+     * @param books The books written
+     * @param records Their records, the last one flagged as a commit
+     * @param commitOffset Offset the commit record is to be written at
+     */
+    record Append(List<Book> books, List<byte[]> records, int commitOffset) {
+    }
+
+    /**
+     * Records taken by {@link #view()}, readable from the mapping they were taken with.
+     * @param buffer The mapping the records are in
+     * @param slots The records
+     */
+    record View(ByteBuffer buffer, List<Slot> slots) {
+        /**
+         * Decodes one of the records.
+         * @param slot A record of this view
+         * @return The book
+         */
+        Book read(Slot slot) {
+            return BookLogFile.read(buffer, slot);
+        }
+    }
+}
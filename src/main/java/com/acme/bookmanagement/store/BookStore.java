@@ -0,0 +1,194 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine holding the books, used by BookService for every read and write of the catalog.
+ * The engine is chosen with bookmanagement.store.engine: {@link JpaBookStore} (jpa, the default) keeps the
+ * books in the database, {@link MappedBookStore} (mapped) in an append-only file of its own.
+ * Whatever the engine, every write is recorded in the change log, stamps the books with a strictly
+ * increasing change time and bumps their version, and deletions leave tombstones. Tombstones are only
+ * returned by {@link #findChangedSince(LocalDateTime, Integer, int)}; every other read leaves them out.
+ * Sort properties are the Book attribute names id, title, author and publishedDate.
+ */
+public interface BookStore {
+    /**
+     * Counts the books.
+     * @return Number of books, tombstones excluded
+     */
+    long count();
+
+    /**
+     * Finds a book by its ID.
+     * @param id The ID of the book
+     * @return Optional containing the book, empty if it does not exist or is deleted
+     */
+    Optional<Book> findById(Integer id);
+
+    /**
+     * Finds books by ID.
+     * @param ids The IDs of the books
+     * @return List of the books found, in no particular order
+     */
+    List<Book> findAllById(Collection<Integer> ids);
+
+    /**
+     * Retrieves all books.
+     * @return List of all books
+     */
+    List<Book> findAll();
+
+    /**
+     * Streams every book in ID order, without holding the whole catalog in memory at once.
+     * The stream must be closed, and with {@link JpaBookStore} be consumed inside a read-only transaction.
+     * @return Stream of all books ordered by ID
+     */
+    Stream<Book> streamAll();
+
+    /**
+     * Retrieves the books matching a filter, reading only the given attributes where the engine can.
+     * @param filter Title and author filter (null matches every book)
+     * @param sort Order of the results
+     * @param attributes Book attributes the caller needs; the ID is always read
+     * @return List of books, possibly partially populated
+     */
+    List<Book> findAllProjected(BookFilter filter, Sort sort, Set<String> attributes);
+
+    /**
+     * Retrieves all books sorted by a field.
+     * @param sortField The field to sort by
+     * @param sortOrder The sort direction
+     * @return List of sorted books
+     */
+    List<Book> findAllSorted(SortField sortField, SortOrder sortOrder);
+
+    /**
+     * Finds books published between two dates, inclusive.
+     * @param startDate The start date of the range
+     * @param endDate The end date of the range
+     * @return List of books published within the range
+     */
+    List<Book> findByPublishedDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Searches for books by title (case-insensitive partial match).
+     * @param title The title substring
+     * @return List of matching books
+     */
+    List<Book> findByTitleContaining(String title);
+
+    /**
+     * Searches for books by author (case-insensitive partial match).
+     * @param author The author substring
+     * @return List of matching books
+     */
+    List<Book> findByAuthorContaining(String author);
+
+    /**
+     * Finds books whose title starts with a prefix (case-insensitive), in title order.
+     * @param prefix The title prefix
+     * @param limit Maximum number of results
+     * @return List of matching books
+     */
+    List<Book> findByTitlePrefix(String prefix, int limit);
+
+    /**
+     * Finds the books of any of the given authors.
+     * @param authors The exact author names
+     * @return List of books by those authors
+     */
+    List<Book> findByAuthorIn(Collection<String> authors);
+
+    /**
+     * Retrieves the titles of all books.
+     * @return List of titles in alphabetical order
+     */
+    List<String> findAllTitles();
+
+    /**
+     * Retrieves a page of the books matching a filter.
+     * @param filter Title and author filter
+     * @param pageable Page index, size and order
+     * @return Page of matching books with the total number of matches
+     */
+    Page<Book> findAll(BookFilter filter, Pageable pageable);
+
+    /**
+     * Retrieves the books following a cursor position in (sort key, ID) order, without an offset.
+     * @param filter Title and author filter
+     * @param sortField Field to sort by (null sorts by ID)
+     * @param ascending Direction of the walk
+     * @param after Position to start after (null starts at the beginning)
+     * @param limit Maximum number of books
+     * @return List of at most limit books
+     */
+    List<Book> findSlice(BookFilter filter, SortField sortField, boolean ascending, BookCursor after, int limit);
+
+    /**
+     * Counts the books matching a filter.
+     * @param filter Title and author filter
+     * @return Number of matching books
+     */
+    long count(BookFilter filter);
+
+    /**
+     * Finds the books changed after a position in (updatedAt, ID) order, tombstones included.
+     * @param updatedAt The change time of the last book already seen
+     * @param id The ID of the last book already seen
+     * @param limit Maximum number of books
+     * @return List of the following books, live and deleted
+     */
+    List<Book> findChangedSince(LocalDateTime updatedAt, Integer id, int limit);
+
+    /**
+     * Saves one book, inserting it if it has no ID.
+     * @param book The book to save
+     * @return The saved book
+     */
+    Book save(Book book);
+
+    /**
+     * Saves many books, in chunks of bookmanagement.batch.chunk-size books written atomically.
+     * @param books The books to save
+     * @return The saved books with their assigned IDs, in input order
+     */
+    List<Book> saveAll(List<Book> books);
+
+    /**
+     * Updates attributes of a book if it is still at the version the caller read.
+     * @param id The ID of the book
+     * @param version The version the caller read the book at
+     * @param changes New values by attribute name: title, author, publishedDate, description or imageUrl
+     * @return The updated book, or empty if it does not exist or is deleted
+     * @throws BookVersionConflictException if the book is at another version
+     * @throws IllegalArgumentException if an attribute cannot be updated
+     */
+    Optional<Book> update(Integer id, long version, Map<String, Object> changes);
+
+    /**
+     * Deletes one book, leaving a tombstone. An ID that does not exist is ignored, but still logged.
+     * @param id The ID of the book to delete
+     */
+    void deleteById(Integer id);
+
+    /**
+     * Deletes many books, leaving tombstones, in chunks. IDs that do not exist are ignored, but still logged.
+     * @param ids The IDs of the books to delete
+     */
+    void deleteAllById(List<Integer> ids);
+}
@@ -0,0 +1,35 @@
+package com.acme.bookmanagement.store;
+
+/**
+ * Thrown when a conditional update finds that the book has changed since the client read it.
+ * The update is not retried: the client has to read the book again and decide how to apply its change.
+ */
+public class BookVersionConflictException extends RuntimeException {
+    private final Integer id;
+    private final long expectedVersion;
+
+    /**
+     * Constructs a new BookVersionConflictException.
+     * @param id The ID of the book
+     * @param expectedVersion The version the client read the book at
+     */
+    public BookVersionConflictException(Integer id, long expectedVersion) {
+        super("Book " + id + " has been modified since version " + expectedVersion + "; read it again and retry");
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    /**
+     * @return The ID of the book
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @return The version the client read the book at
+     */
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
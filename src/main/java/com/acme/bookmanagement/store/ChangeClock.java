@@ -0,0 +1,46 @@
+package com.acme.bookmanagement.store;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Hands out the change times of write transactions.
+ * Times are in UTC at the microsecond precision of the updated_at column and strictly increasing,
+ * even if the system clock stands still or goes back, which makes (updated_at, id) a safe watermark.
+ */
+public class ChangeClock {
+    private LocalDateTime last = LocalDateTime.MIN;
+
+    /**
+     * Gets the next change time.
+     * @return The current time, moved past the previous change time if the clock has not advanced
+     */
+    public synchronized LocalDateTime next() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        last = now.isAfter(last) ? now : last.plus(1, ChronoUnit.MICROS);
+        return last;
+    }
+
+    /**
+     * Gets the earliest time the next call to {@link #next()} can return, and makes sure it does not return less
+     * even if the system clock goes back in between.
+     * @return A time no later change time comes before
+     */
+    public synchronized LocalDateTime peek() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime next = now.isAfter(last) ? now : last.plus(1, ChronoUnit.MICROS);
+        last = next.minus(1, ChronoUnit.MICROS);
+        return next;
+    }
+
+    /**
+     * Makes sure later change times come after a time that has already been used, e.g. one read back from storage.
+     * @param time A change time in use
+     */
+    public synchronized void observe(LocalDateTime time) {
+        if (time.isAfter(last)) {
+            last = time;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.repository.BookRepository;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine keeping the books in the database, through {@link BookRepository}.
+ * Writes go through {@link BookBatchWriter}, which logs them in the same transaction.
+ * This is the default engine; it is used unless bookmanagement.store.engine is set to another one.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanagement.store.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaBookStore implements BookStore {
+    private final BookRepository bookRepository;
+    private final BookBatchWriter batchWriter;
+
+    /**
+     * Constructs a new JpaBookStore.
+     * @param bookRepository The repository for book operations
+     * @param batchWriter The writer used for all writes, which also appends to the change log
+     */
+    public JpaBookStore(BookRepository bookRepository, BookBatchWriter batchWriter) {
+        this.bookRepository = bookRepository;
+        this.batchWriter = batchWriter;
+    }
+
+    @Override
+    public long count() {
+        return bookRepository.count();
+    }
+
+    @Override
+    public Optional<Book> findById(Integer id) {
+        return bookRepository.findById(id).filter(book -> !book.isDeleted());
+    }
+
+    @Override
+    public List<Book> findAllById(Collection<Integer> ids) {
+        return bookRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return bookRepository.findAll();
+    }
+
+    /**
+     * Streams the books from a JDBC cursor, loaded read-only.
+     */
+    @Override
+    public Stream<Book> streamAll() {
+        return bookRepository.streamAllBy();
+    }
+
+    @Override
+    public List<Book> findAllProjected(BookFilter filter, Sort sort, Set<String> attributes) {
+        return bookRepository.findAllProjected(filter == null ? null : filterSpec(filter), sort, attributes);
+    }
+
+    @Override
+    public List<Book> findAllSorted(SortField sortField, SortOrder sortOrder) {
+        return switch (sortField) {
+            case TITLE -> sortOrder == SortOrder.ASC ?
+                bookRepository.findAllByOrderByTitleAsc() :
+                bookRepository.findAllByOrderByTitleDesc();
+            case AUTHOR -> sortOrder == SortOrder.ASC ?
+                bookRepository.findAllByOrderByAuthorAsc() :
+                bookRepository.findAllByOrderByAuthorDesc();
+            case PUBLISHED_DATE -> sortOrder == SortOrder.ASC ?
+                bookRepository.findAllByOrderByPublishedDateAsc() :
+                bookRepository.findAllByOrderByPublishedDateDesc();
+        };
+    }
+
+    @Override
+    public List<Book> findByPublishedDateBetween(LocalDate startDate, LocalDate endDate) {
+        return bookRepository.findByPublishedDateBetween(startDate, endDate);
+    }
+
+    @Override
+    public List<Book> findByTitleContaining(String title) {
+        return bookRepository.findByTitleLowerContaining(title.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public List<Book> findByAuthorContaining(String author) {
+        return bookRepository.findByAuthorLowerContaining(author.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public List<Book> findByTitlePrefix(String prefix, int limit) {
+        return bookRepository.findByTitleLowerStartingWith(prefix.toLowerCase(Locale.ROOT),
+                PageRequest.of(0, limit, Sort.by("titleLower", "id")));
+    }
+
+    @Override
+    public List<Book> findByAuthorIn(Collection<String> authors) {
+        return bookRepository.findByAuthorIn(authors);
+    }
+
+    @Override
+    public List<String> findAllTitles() {
+        return bookRepository.findAllTitles();
+    }
+
+    @Override
+    public Page<Book> findAll(BookFilter filter, Pageable pageable) {
+        return bookRepository.findAll(filterSpec(filter), pageable);
+    }
+
+    /**
+     * Locates the slice with a seek predicate on (sort key, id) instead of an OFFSET,
+     * so deep slices cost the same as the first one.
+     */
+    @Override
+    public List<Book> findSlice(BookFilter filter, SortField sortField, boolean ascending, BookCursor after,
+                                int limit) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = sortField == null ?
+            Sort.by(direction, "id") :
+            Sort.by(direction, sortField.attribute()).and(Sort.by(direction, "id"));
+        Specification<Book> spec = filterSpec(filter);
+        if (after != null) {
+            spec = spec.and(seek(sortField, after, ascending));
+        }
+        return bookRepository.findSlice(spec, sort, limit);
+    }
+
+    @Override
+    public long count(BookFilter filter) {
+        return bookRepository.count(filterSpec(filter));
+    }
+
+    @Override
+    public List<Book> findChangedSince(LocalDateTime updatedAt, Integer id, int limit) {
+        return bookRepository.findChangedSince(updatedAt, id, limit);
+    }
+
+    @Override
+    public Book save(Book book) {
+        return batchWriter.save(book);
+    }
+
+    @Override
+    public List<Book> saveAll(List<Book> books) {
+        return batchWriter.saveAll(books);
+    }
+
+    @Override
+    public Optional<Book> update(Integer id, long version, Map<String, Object> changes) {
+        return batchWriter.update(id, version, changes);
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        batchWriter.deleteById(id);
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        batchWriter.deleteAllById(ids);
+    }
+
+    /**
+     * Builds the case-insensitive title/author filter on the generated lowercase columns.
+     */
+    private static Specification<Book> filterSpec(BookFilter filter) {
+        Specification<Book> spec = Specification.where(null);
+        if (filter.title() != null && !filter.title().isEmpty()) {
+            spec = spec.and((root, query, cb) ->
+                cb.like(root.get("titleLower"),
+                    "%" + filter.title().toLowerCase(Locale.ROOT) + "%"));
+        }
+        if (filter.author() != null && !filter.author().isEmpty()) {
+            spec = spec.and((root, query, cb) ->
+                cb.like(root.get("authorLower"),
+                    "%" + filter.author().toLowerCase(Locale.ROOT) + "%"));
+        }
+        return spec;
+    }
+
+    /**
+     * Builds the seek predicate selecting the books strictly beyond the cursor position,
+     * i.e. {@code key > k OR (key = k AND id > i)} for ascending order.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Specification<Book> seek(SortField sortField, BookCursor position, boolean ascending) {
+        return (root, query, cb) -> {
+            Expression<Integer> id = root.get("id");
+            Predicate beyondId = ascending ?
+                cb.greaterThan(id, position.getId()) :
+                cb.lessThan(id, position.getId());
+            if (sortField == null) {
+                return beyondId;
+            }
+            Expression<Comparable> key = root.get(sortField.attribute());
+            Comparable value = position.keyValue();
+            Predicate beyondKey = ascending ?
+                cb.greaterThan(key, value) :
+                cb.lessThan(key, value);
+            return cb.or(beyondKey, cb.and(cb.equal(key, value), beyondId));
+        };
+    }
+}
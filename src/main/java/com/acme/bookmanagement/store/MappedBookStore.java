@@ -0,0 +1,478 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookChange;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.ChangeType;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.repository.BookChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine keeping the books in an append-only {@link BookLogFile} of its own, read and written through a
+ * memory mapping, so the catalog survives restarts without a database and no read goes through Hibernate.
+ * Point reads look the record up in the in-memory ID index and decode it straight from the mapping. Keyset
+ * slices, pages sorted by a {@link SortField} and the delta sync walk the ordered indexes of the file from their
+ * position, filtering on the indexed title and author, and decode only the books they return; the remaining
+ * queries decode the live records and filter and sort them in memory, with the caches and the replica of
+ * BookService in front. Writes are serialized: each one writes the new states of the books it changes to the
+ * file, commits the changes to the change log, and only then commits the records and makes them visible. A write
+ * whose change log transaction fails is discarded, so no book changes without its entries; a crash, or a failure
+ * to write the commit record, after the change log commit leaves entries for changes that never happened, which
+ * readers of the log, who look the books up, see as changes to the books' current state.
+ * Once superseded records take more than compaction-threshold of the file, the writer compacts it.
+ * The change log itself stays in the database, so it has to outlive restarts as the file does: an in-memory
+ * database would come back empty next to the books and hand out their sequences again, and is rejected.
+ * Only created when bookmanagement.store.engine is mapped.
+ */
+@Component
+@ConditionalOnProperty(name = "bookmanagement.store.engine", havingValue = "mapped")
+public class MappedBookStore implements BookStore, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(MappedBookStore.class);
+    private static final Marker ALWAYS = MarkerFactory.getMarker("ALWAYS");
+
+    /** Size below which the file is never compacted, as rewriting it would gain next to nothing */
+    private static final long MIN_COMPACTION_SIZE = 1 << 20;
+
+    /** Setters of the attributes a client may change through {@link #update}, by attribute name */
+    private static final Map<String, BiConsumer<Book, Object>> UPDATABLE = Map.of(
+            "title", (book, value) -> book.setTitle((String) value),
+            "author", (book, value) -> book.setAuthor((String) value),
+            "publishedDate", (book, value) -> book.setPublishedDate((LocalDate) value),
+            "description", (book, value) -> book.setDescription((String) value),
+            "imageUrl", (book, value) -> book.setImageUrl((String) value));
+
+    /** Sort fields by the Book attribute they sort on */
+    private static final Map<String, SortField> SORT_FIELDS = Arrays.stream(SortField.values())
+            .collect(Collectors.toMap(SortField::attribute, Function.identity()));
+
+    private final BookLogFile logFile;
+    private final BookChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final double compactionThreshold;
+    private final VisibilityHorizon horizon;
+    private final Lock writeLock = new ReentrantLock();
+
+    /** Next ID to assign; guarded by writeLock */
+    private int nextId;
+
+    /**
+     * Constructs a new MappedBookStore, opening the file and replaying it.
+     * @param file Path of the log file, created if it does not exist
+     * @param compactionThreshold Fraction of the file that superseded records may take before it is compacted
+     * @param chunkSize Number of books written per commit by the bulk writes
+     * @param changeRepository The repository of the change log
+     * @param transactionManager The transaction manager of the change log
+     * @param horizon Hands out the change times and tracks the writes in flight
+     * @param datasourceUrl URL of the database holding the change log
+     * @throws IllegalStateException if the change log is kept in an in-memory database
+     */
+    public MappedBookStore(@Value("${bookmanagement.store.mapped.file:data/catalog.books}") String file,
+                           @Value("${bookmanagement.store.mapped.compaction-threshold:0.5}") double compactionThreshold,
+                           @Value("${bookmanagement.batch.chunk-size:1000}") int chunkSize,
+                           BookChangeRepository changeRepository,
+                           PlatformTransactionManager transactionManager,
+                           VisibilityHorizon horizon,
+                           @Value("${spring.datasource.url:}") String datasourceUrl) {
+        if (datasourceUrl.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("The mapped book store needs its change log in a persistent database; " +
+                    "set spring.datasource.url to one instead of " + datasourceUrl);
+        }
+        Path path = Paths.get(file);
+        try {
+            this.logFile = new BookLogFile(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open book store " + path, e);
+        }
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.compactionThreshold = compactionThreshold;
+        this.horizon = horizon;
+        this.nextId = logFile.maxId() + 1;
+        // Change times stay increasing across restarts, even if the clock has gone back in between
+        horizon.observe(logFile.lastChangeTime());
+        log.info(ALWAYS, "Opened book store {} with {} books", path.toAbsolutePath(), logFile.liveCount());
+    }
+
+    @Override
+    public long count() {
+        return logFile.liveCount();
+    }
+
+    @Override
+    public Optional<Book> findById(Integer id) {
+        return Optional.ofNullable(logFile.find(id)).filter(book -> !book.isDeleted());
+    }
+
+    @Override
+    public List<Book> findAllById(Collection<Integer> ids) {
+        return ids.stream()
+                .distinct()
+                .map(this::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return streamAll().toList();
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        BookLogFile.View view = logFile.view();
+        return view.slots().stream()
+                .filter(slot -> !slot.deleted())
+                .map(view::read);
+    }
+
+    /**
+     * Reads whole records; decoding the attributes that were not asked for costs next to nothing here.
+     */
+    @Override
+    public List<Book> findAllProjected(BookFilter filter, Sort sort, Set<String> attributes) {
+        return find(filter == null ? book -> true : filter::matches, comparator(sort));
+    }
+
+    @Override
+    public List<Book> findAllSorted(SortField sortField, SortOrder sortOrder) {
+        return read(logFile.slice(sortField, sortOrder == SortOrder.ASC, null, null, slot -> true, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Book> findByPublishedDateBetween(LocalDate startDate, LocalDate endDate) {
+        return find(book -> !book.getPublishedDate().isBefore(startDate) && !book.getPublishedDate().isAfter(endDate),
+                comparator(Sort.unsorted()));
+    }
+
+    @Override
+    public List<Book> findByTitleContaining(String title) {
+        return find(new BookFilter(title, null)::matches, comparator(Sort.unsorted()));
+    }
+
+    @Override
+    public List<Book> findByAuthorContaining(String author) {
+        return find(new BookFilter(null, author)::matches, comparator(Sort.unsorted()));
+    }
+
+    @Override
+    public List<Book> findByTitlePrefix(String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return live()
+                .filter(book -> book.getTitle().toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+                .sorted(comparator(Sort.by("titleLower")))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Book> findByAuthorIn(Collection<String> authors) {
+        Set<String> names = new HashSet<>(authors);
+        return find(book -> names.contains(book.getAuthor()), comparator(Sort.unsorted()));
+    }
+
+    @Override
+    public List<String> findAllTitles() {
+        return live().map(Book::getTitle).sorted().toList();
+    }
+
+    /**
+     * Walks the index when the page is sorted by a single {@link SortField} or by ID, skipping the offset without
+     * decoding; other orders sort every match.
+     */
+    @Override
+    public Page<Book> findAll(BookFilter filter, Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().toList();
+        Sort.Order order = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+        SortField sortField = SORT_FIELDS.get(order.getProperty());
+        if (pageable.isPaged() && orders.size() <= 1 && (sortField != null || order.getProperty().equals("id"))) {
+            Predicate<BookLogFile.Slot> matches = matcher(filter);
+            int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+            BookLogFile.View view = logFile.slice(sortField, order.isAscending(), null, null, matches, end);
+            List<Book> content = view.slots().stream()
+                    .skip(pageable.getOffset())
+                    .map(view::read)
+                    .toList();
+            return new PageImpl<>(content, pageable, logFile.count(matches));
+        }
+        List<Book> matches = find(filter::matches, comparator(pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    @Override
+    public List<Book> findSlice(BookFilter filter, SortField sortField, boolean ascending, BookCursor after,
+                                int limit) {
+        return read(logFile.slice(sortField, ascending, after == null ? null : after.keyValue(),
+                after == null ? null : after.getId(), matcher(filter), limit));
+    }
+
+    @Override
+    public long count(BookFilter filter) {
+        return logFile.count(matcher(filter));
+    }
+
+    /**
+     * Walks the index in change order from the position, and decodes only the records returned.
+     */
+    @Override
+    public List<Book> findChangedSince(LocalDateTime updatedAt, Integer id, int limit) {
+        return read(logFile.changedSince(updatedAt, id, limit));
+    }
+
+    @Override
+    public Book save(Book book) {
+        return saveAll(List.of(book)).get(0);
+    }
+
+    /**
+     * Books without an ID are inserted; books with one replace the stored book, provided their version, if set,
+     * is the stored one. The books passed in are left as they are; the saved copies are returned.
+     * @throws OptimisticLockingFailureException if a book has been changed since it was read
+     */
+    @Override
+    public List<Book> saveAll(List<Book> books) {
+        List<Book> saved = new ArrayList<>(books.size());
+        for (int from = 0; from < books.size(); from += chunkSize) {
+            List<Book> chunk = books.subList(from, Math.min(from + chunkSize, books.size()));
+            saved.addAll(write(changeTime -> {
+                List<Book> written = chunk.stream().map(book -> nextState(book, changeTime)).toList();
+                return new Changes(written, written.stream()
+                        .map(book -> new BookChange(book.getId(), ChangeType.UPSERT, changeTime))
+                        .toList());
+            }));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<Book> update(Integer id, long version, Map<String, Object> changes) {
+        List<Book> updated = write(changeTime -> {
+            Book book = findById(id).orElse(null);
+            if (book == null) {
+                return new Changes(List.of(), List.of());
+            }
+            if (book.getVersion() != version) {
+                throw new BookVersionConflictException(id, version);
+            }
+            changes.forEach((attribute, value) -> {
+                BiConsumer<Book, Object> setter = UPDATABLE.get(attribute);
+                if (setter == null) {
+                    throw new IllegalArgumentException("Attribute cannot be updated: " + attribute);
+                }
+                setter.accept(book, value);
+            });
+            book.setVersion(version + 1);
+            book.setUpdatedAt(changeTime);
+            return new Changes(List.of(book), List.of(new BookChange(id, ChangeType.UPSERT, changeTime)));
+        });
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        deleteAllById(List.of(id));
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            write(changeTime -> {
+                List<Book> tombstones = chunk.stream()
+                        .distinct()
+                        .map(this::findById)
+                        .flatMap(Optional::stream)
+                        .map(book -> tombstone(book, changeTime))
+                        .toList();
+                return new Changes(tombstones, chunk.stream()
+                        .map(id -> new BookChange(id, ChangeType.DELETE, changeTime))
+                        .toList());
+            });
+        }
+    }
+
+    /**
+     * Closes the file; every committed write is already on disk.
+     */
+    @Override
+    public void destroy() throws IOException {
+        writeLock.lock();
+        try {
+            logFile.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs one write under the write lock, passing it its change time: writes the books' records, commits the
+     * change log entries, then commits the records and compacts the file if it is due.
+     */
+    private List<Book> write(Function<LocalDateTime, Changes> work) {
+        writeLock.lock();
+        VisibilityHorizon.Write write = horizon.begin();
+        try {
+            Changes changes = work.apply(write.changeTime());
+            BookLogFile.Append append = logFile.prepare(changes.books());
+            try {
+                transactionTemplate.executeWithoutResult(status -> changeRepository.saveAllAndFlush(changes.log())
+                        .forEach(change -> write.logged(change.getSequence())));
+            } catch (RuntimeException e) {
+                logFile.abort(append);
+                throw e;
+            }
+            logFile.commit(append);
+            if (logFile.shouldCompact(compactionThreshold, MIN_COMPACTION_SIZE)) {
+                compact();
+            }
+            return changes.books();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            horizon.end(write);
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts the file; a failure only leaves the superseded records in place until the next attempt.
+     */
+    private void compact() {
+        try {
+            logFile.compact();
+        } catch (IOException e) {
+            log.warn("Compaction of the book store failed", e);
+        }
+    }
+
+    /**
+     * Builds the stored state of a saved book; called with the write lock held.
+     */
+    private Book nextState(Book book, LocalDateTime changeTime) {
+        BookLogFile.Slot current = book.getId() == null ? null : logFile.slot(book.getId());
+        if (current != null && !current.deleted() && book.getVersion() != null &&
+                book.getVersion() != current.version()) {
+            throw new OptimisticLockingFailureException("Book " + book.getId() + " has been changed since it was read");
+        }
+        Integer id = book.getId() != null ? book.getId() : nextId;
+        nextId = Math.max(nextId, id + 1);
+        Book stored = new Book(id, book.getTitle(), book.getAuthor(), book.getPublishedDate(),
+                book.getDescription(), book.getImageUrl());
+        stored.setVersion(current == null ? 0L : current.version() + 1);
+        stored.setUpdatedAt(changeTime);
+        return stored;
+    }
+
+    private static Book tombstone(Book book, LocalDateTime changeTime) {
+        book.setDeleted(true);
+        book.setVersion(book.getVersion() + 1);
+        book.setUpdatedAt(changeTime);
+        return book;
+    }
+
+    private Stream<Book> live() {
+        return streamAll();
+    }
+
+    private List<Book> find(Predicate<Book> filter, Comparator<Book> order) {
+        return live().filter(filter).sorted(order).toList();
+    }
+
+    private static List<Book> read(BookLogFile.View view) {
+        return view.slots().stream().map(view::read).toList();
+    }
+
+    private static Predicate<BookLogFile.Slot> matcher(BookFilter filter) {
+        return slot -> filter.matches(slot.title(), slot.author());
+    }
+
+    /**
+     * Builds the comparator of a sort over Book attribute names; ties, and unsorted results, are in ID order.
+     */
+    private static Comparator<Book> comparator(Sort sort) {
+        Comparator<Book> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Function<Book, Comparable<?>> key = sortKey(order.getProperty());
+            Comparator<Book> byKey = (a, b) -> compare(key.apply(a), key.apply(b));
+            comparator = comparator.thenComparing(order.isAscending() ? byKey : byKey.reversed());
+        }
+        return comparator.thenComparing(Book::getId);
+    }
+
+    private static Function<Book, Comparable<?>> sortKey(String attribute) {
+        return switch (attribute) {
+            case "id" -> Book::getId;
+            case "title" -> Book::getTitle;
+            case "author" -> Book::getAuthor;
+            case "publishedDate" -> Book::getPublishedDate;
+            case "titleLower" -> book -> book.getTitle().toLowerCase(Locale.ROOT);
+            case "authorLower" -> book -> book.getAuthor().toLowerCase(Locale.ROOT);
+            default -> throw new IllegalArgumentException("Cannot sort by " + attribute);
+        };
+    }
+
+    /**
+     * Compares two sort keys of the same attribute, nulls first.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compare(Comparable a, Comparable b) {
+        if (a == null || b == null) {
+            return a == b ? 0 : a == null ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * The books one write appends and the change log entries it records.
+     * @param books New states of the books, in write order
+     * @param log Change log entries; deletions of books that do not exist are logged without a record
+     */
+    private record Changes(List<Book> books, List<BookChange> log) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.acme.bookmanagement.store;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks the write transactions in flight, so that readers of the change log and of the delta sync never
+ * move past a position that a running write may still commit an entry behind.
+ * Writes do not wait for each other, so they can commit in another order than the one they took their change
+ * time and change log sequences in. Each write takes its change time here when it begins, and its sequences from
+ * the database sequence while it runs; both only increase, so everything a running write can still commit lies
+ * after the position the catalog was at when it began. Readers take the horizon before they query and stop at
+ * the oldest such position, or at the current one if no write is running, and pick up the rest once the write
+ * has ended. Anything before the horizon has been committed or rolled back by then, and anything a write
+ * begun later commits lies after it.
+ * Only the writes of this process are tracked, which covers all of them as long as one instance writes the catalog.
+ */
+@Component
+public class VisibilityHorizon {
+    private final ChangeClock clock = new ChangeClock();
+    private final List<Runnable> advanceListeners = new CopyOnWriteArrayList<>();
+
+    /** Writes that have begun and not ended; guarded by this */
+    private final Set<Write> inFlight = new HashSet<>();
+
+    /** Highest change log sequence known to be assigned, all by writes that have ended; guarded by this */
+    private long lastSequence;
+
+    /**
+     * Registers a write that is about to start its transaction.
+     * @return The write, holding its change time
+     */
+    public synchronized Write begin() {
+        Write write = new Write(clock.next(), lastSequence);
+        inFlight.add(write);
+        return write;
+    }
+
+    /**
+     * Unregisters a write once its transaction has committed or rolled back, and tells the listeners that the
+     * horizon may have moved.
+     * @param write The write returned by {@link #begin()}
+     */
+    public void end(Write write) {
+        synchronized (this) {
+            inFlight.remove(write);
+            lastSequence = Math.max(lastSequence, write.lastSequence);
+        }
+        advanceListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Gets the highest change log sequence up to which every entry has been committed or rolled back.
+     * @return The sequence up to which the log may be read
+     */
+    public synchronized long sequenceHorizon() {
+        return inFlight.stream().mapToLong(write -> write.sequenceFloor).min().orElse(lastSequence);
+    }
+
+    /**
+     * Gets the change time before which every change has been committed or rolled back.
+     * @return The change time of the oldest running write, or the earliest time of the next write if none is running
+     */
+    public synchronized LocalDateTime timeHorizon() {
+        return inFlight.stream().map(Write::changeTime).min(Comparator.naturalOrder()).orElseGet(clock::peek);
+    }
+
+    /**
+     * Makes sure later change times come after a time that has already been used, e.g. one read back from storage.
+     * @param time A change time in use
+     */
+    public void observe(LocalDateTime time) {
+        clock.observe(time);
+    }
+
+    /**
+     * Records a change log sequence that has already been committed, e.g. the last one read back from storage.
+     * @param sequence A committed sequence
+     */
+    public synchronized void observeSequence(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /**
+     * Registers a callback run after every write has ended, on the writing thread.
+     * @param listener The callback
+     */
+    public void onAdvance(Runnable listener) {
+        advanceListeners.add(listener);
+    }
+
+    /**
+     * One write transaction in flight.
+     */
+    public static final class Write {
+        private final LocalDateTime changeTime;
+        private final long sequenceFloor;
+        private long lastSequence;
+
+        private Write(LocalDateTime changeTime, long sequenceFloor) {
+            this.changeTime = changeTime;
+            this.sequenceFloor = sequenceFloor;
+        }
+
+        /**
+         * Gets the change time the write stamps its books and log entries with.
+         * @return The change time, in UTC
+         */
+        public LocalDateTime changeTime() {
+            return changeTime;
+        }
+
+        /**
+         * Records a change log sequence the write has been assigned.
+         * @param sequence The sequence of an entry the write has logged
+         */
+        public void logged(long sequence) {
+            lastSequence = Math.max(lastSequence, sequence);
+        }
+    }
+}
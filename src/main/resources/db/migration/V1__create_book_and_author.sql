@@ -0,0 +1,20 @@
+-- Schema as previously generated by Hibernate; identifiers are quoted to match
+-- hibernate.globally_quoted_identifiers
+create sequence "book_seq" start with 1 increment by 50;
+create sequence "author_seq" start with 1 increment by 50;
+
+create table "book" (
+    "id" integer not null,
+    "title" varchar(255) not null,
+    "author" varchar(255) not null,
+    "published_date" date not null,
+    "description" varchar(2000),
+    "image_url" varchar(1000),
+    primary key ("id")
+);
+
+create table "author" (
+    "id" integer not null,
+    "name" varchar(255),
+    primary key ("id")
+);
@@ -0,0 +1,14 @@
+-- Lowercase copies of title and author maintained by the database, so case-insensitive
+-- filters compare plain columns and prefix filters (LIKE 'abc%') can use an index
+alter table "book" add column "title_lower" varchar(255) generated always as (lower("title"));
+alter table "book" add column "author_lower" varchar(255) generated always as (lower("author"));
+
+-- (sort key, id) matches the ORDER BY of the sorted queries and of keyset pagination,
+-- and serves range and equality filters on the sort key
+create index "idx_book_published_date" on "book" ("published_date", "id");
+create index "idx_book_title" on "book" ("title", "id");
+create index "idx_book_author" on "book" ("author", "id");
+create index "idx_book_title_lower" on "book" ("title_lower", "id");
+create index "idx_book_author_lower" on "book" ("author_lower", "id");
+
+create index "idx_author_name" on "author" ("name");
@@ -0,0 +1,11 @@
+-- Append-only log of catalog changes, written in the same transaction as the book itself
+-- (transactional outbox), so a consumer resuming from a sequence number misses nothing
+create sequence "book_change_seq" start with 1 increment by 50;
+
+create table "book_change" (
+    "sequence" bigint not null,
+    "book_id" integer not null,
+    "change_type" varchar(16) not null,
+    "changed_at" timestamp(6) not null,
+    primary key ("sequence")
+);
@@ -0,0 +1,8 @@
+-- Optimistic lock version, time of the last change and tombstone flag;
+-- deleted books stay in the table so that the delta sync can report the deletion
+alter table "book" add column "version" bigint default 0 not null;
+alter table "book" add column "updated_at" timestamp(6) default localtimestamp not null;
+alter table "book" add column "deleted" boolean default false not null;
+
+-- (updated_at, id) is the order and the seek predicate of the delta sync
+create index "idx_book_updated_at" on "book" ("updated_at", "id");
@@ -0,0 +1,91 @@
+package com.acme.bookmanagement.cache;
+
+import com.acme.bookmanagement.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookCacheTest {
+    private final BookCache bookCache = new BookCache(1_000_000, Duration.ofMinutes(10));
+
+    // Test data: Sample book used across test cases
+    private final Book book = new Book(1,
+            "title-1",
+            "author-1",
+            LocalDate.of(2021, 2, 3));
+
+    // Counts how often the cache falls through to the "database"
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<Book> load(Integer id) {
+        loads.incrementAndGet();
+        return id.equals(book.getId()) ? Optional.of(book) : Optional.empty();
+    }
+
+    // The second lookup must be served from the cache
+    @Test
+    void testReadThrough() {
+        assertEquals(book, bookCache.get(1, this::load).orElse(null));
+        assertEquals(book, bookCache.get(1, this::load).orElse(null));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, bookCache.statistics().getHitCount());
+        assertEquals(1, bookCache.statistics().getMissCount());
+    }
+
+    // Saving or deleting a book must force the next lookup to reload it
+    @Test
+    void testInvalidationOnWrite() {
+        bookCache.get(1, this::load);
+        bookCache.onBookSaved(book);
+        bookCache.get(1, this::load);
+        bookCache.onBookDeleted(1);
+        bookCache.get(1, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    // Missing books are not cached, so a later insert becomes visible immediately
+    @Test
+    void testMissingBooksAreNotCached() {
+        assertTrue(bookCache.get(2, this::load).isEmpty());
+        assertTrue(bookCache.get(2, this::load).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    // A bulk load that read a book before it was saved again must not cache the old version
+    @Test
+    void testBulkLoadRacingInvalidationIsNotCached() {
+        Map<Integer, Book> loaded = bookCache.getAll(List.of(1), ids -> {
+            loads.incrementAndGet();
+            // The write commits and invalidates while the bulk load is still running
+            bookCache.onBookSaved(book);
+            return Map.of(1, book);
+        });
+        assertEquals(book, loaded.get(1));
+
+        bookCache.get(1, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    // Bulk loads that do not race a write are cached like single loads
+    @Test
+    void testBulkLoadIsCached() {
+        bookCache.getAll(List.of(1), ids -> {
+            loads.incrementAndGet();
+            return Map.of(1, book);
+        });
+
+        assertEquals(book, bookCache.get(1, this::load).orElse(null));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.acme.bookmanagement.cache;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentCacheTest {
+    private static final String QUERY = "{ hello }";
+
+    private final DocumentCache documentCache = new DocumentCache(100);
+
+    // Minimal schema, so the test exercises the cache rather than the book resolvers
+    private final GraphQL graphQL = GraphQL.newGraphQL(schema())
+            .preparsedDocumentProvider(documentCache)
+            .build();
+
+    private static GraphQLSchema schema() {
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type.dataFetcher("hello", environment -> "world"))
+                .build();
+        return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("type Query { hello: String }"), wiring);
+    }
+
+    private ExecutionResult execute(String query, String persistedQueryHash) {
+        ExecutionInput.Builder input = ExecutionInput.newExecutionInput().query(query);
+        if (persistedQueryHash != null) {
+            input.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", persistedQueryHash)));
+        }
+        return graphQL.execute(input.build());
+    }
+
+    // The second execution of the same text must reuse the parsed and validated document
+    @Test
+    void testRepeatedQueryIsParsedOnce() {
+        assertEquals(Map.of("hello", "world"), execute(QUERY, null).getData());
+        assertEquals(Map.of("hello", "world"), execute(QUERY, null).getData());
+
+        assertEquals(1, documentCache.statistics().getMissCount());
+        assertEquals(1, documentCache.statistics().getHitCount());
+    }
+
+    // An unknown hash asks the client to register; afterwards the hash alone is enough
+    @Test
+    void testPersistedQueryRegistration() {
+        String hash = DocumentCache.hash(QUERY);
+
+        ExecutionResult unknown = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash);
+        assertEquals("PersistedQueryNotFound", unknown.getErrors().get(0).getMessage());
+
+        assertEquals(Map.of("hello", "world"), execute(QUERY, hash).getData());
+        assertEquals(Map.of("hello", "world"), execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash).getData());
+    }
+
+    // A plain query registers its hash as well, since both share the key space
+    @Test
+    void testPlainQueryCanBeReplayedByHash() {
+        execute(QUERY, null);
+
+        ExecutionResult result = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, DocumentCache.hash(QUERY));
+
+        assertEquals(Map.of("hello", "world"), result.getData());
+    }
+
+    // Registering under a hash that does not match the text must not make the hash resolvable
+    @Test
+    void testWrongHashDoesNotRegister() {
+        String wrongHash = DocumentCache.hash("{ other }");
+        execute(QUERY, wrongHash);
+
+        ExecutionResult result = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, wrongHash);
+
+        assertEquals(1, result.getErrors().size());
+    }
+}
@@ -0,0 +1,125 @@
+package com.acme.bookmanagement.catalog;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.store.BookStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogExporterTest {
+    private final BookStore bookStore = Mockito.mock(BookStore.class);
+    private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+    // Configured like Spring Boot's mapper: dates as ISO strings
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path directory;
+
+    private CatalogExporter exporter(List<Book> books) {
+        Mockito.when(bookStore.streamAll()).thenAnswer(invocation -> books.stream());
+        CatalogExporter exporter = new CatalogExporter(bookStore, objectMapper);
+        ReflectionTestUtils.setField(exporter, "entityManager", entityManager);
+        return exporter;
+    }
+
+    private static List<Book> books(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new Book(i, "title-" + i, "author-" + i, LocalDate.of(2021, 2, 3)))
+                .toList();
+    }
+
+    // Quotes, commas and line breaks survive a round trip through CsvCodec and the quote-aware reader
+    @Test
+    void testCsvRoundTrip() throws IOException, InterruptedException {
+        List<Book> books = List.of(
+                new Book(1, "plain", "author-1", LocalDate.of(2021, 2, 3)),
+                new Book(2, "say \"hello\", world", "author-2", LocalDate.of(2021, 2, 4),
+                        "line one\nline \"two\"", "http://example.com/2.png"),
+                new Book(3, "last", "author-3", LocalDate.of(2021, 2, 5), null, null));
+        Path file = directory.resolve("catalog.csv");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            assertEquals(3, exporter(books).export(CatalogFormat.CSV, out));
+        }
+
+        List<List<String>> records = new ArrayList<>();
+        new MappedLineReader(file, true).read(record -> records.add(CsvCodec.parse(record)));
+
+        assertEquals(4, records.size());
+        assertEquals(List.of("id", "title", "author", "publishedDate", "description", "imageUrl"), records.get(0));
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            assertEquals(List.of(
+                    String.valueOf(book.getId()),
+                    book.getTitle(),
+                    book.getAuthor(),
+                    book.getPublishedDate().toString(),
+                    book.getDescription() != null ? book.getDescription() : "",
+                    book.getImageUrl() != null ? book.getImageUrl() : ""), records.get(i + 1));
+        }
+    }
+
+    // One object per line, separated and terminated by a single newline
+    @Test
+    void testJsonLines() throws IOException {
+        List<Book> books = List.of(
+                new Book(1, "plain", "author-1", LocalDate.of(2021, 2, 3)),
+                new Book(2, "say \"hello\"", "author-2", LocalDate.of(2021, 2, 4), "line one\nline two", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exporter(books).export(CatalogFormat.JSON_LINES, out));
+
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.endsWith("}\n"));
+        String[] lines = output.split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        for (int i = 0; i < books.size(); i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            assertEquals(books.get(i).getId(), node.get("id").asInt());
+            assertEquals(books.get(i).getTitle(), node.get("title").asText());
+            assertEquals(books.get(i).getPublishedDate().toString(), node.get("publishedDate").asText());
+        }
+    }
+
+    // An empty catalog is an empty JSON lines file, not a lone newline
+    @Test
+    void testEmptyJsonLines() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exporter(List.of()).export(CatalogFormat.JSON_LINES, out));
+
+        assertEquals(0, out.size());
+    }
+
+    // The persistence context is cleared once per FLUSH_INTERVAL (500) books, in both formats
+    @Test
+    void testClearsPersistenceContextPeriodically() throws IOException {
+        CatalogExporter exporter = exporter(books(1250));
+
+        assertEquals(1250, exporter.export(CatalogFormat.CSV, new ByteArrayOutputStream()));
+        Mockito.verify(entityManager, Mockito.times(2)).clear();
+
+        assertEquals(1250, exporter.export(CatalogFormat.JSON_LINES, new ByteArrayOutputStream()));
+        Mockito.verify(entityManager, Mockito.times(4)).clear();
+    }
+}
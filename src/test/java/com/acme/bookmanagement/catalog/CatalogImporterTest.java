@@ -0,0 +1,69 @@
+package com.acme.bookmanagement.catalog;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.ImportReport;
+import com.acme.bookmanagement.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogImporterTest {
+    // Mock the service layer; saveAll returns its input as if every book was written
+    private final BookService bookService = Mockito.mock(BookService.class);
+
+    @TempDir
+    Path directory;
+
+    private CatalogImporter importer() {
+        Mockito.when(bookService.saveAll(Mockito.<List<Book>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        // Small batches and two parsers, so the test exercises several batches per stage
+        return new CatalogImporter(bookService, new ObjectMapper(), directory.toString(), 100, 2);
+    }
+
+    // Quoted fields may contain commas, quotes and line breaks; incomplete rows are rejected
+    @Test
+    void testImportCsv() throws IOException {
+        StringBuilder csv = new StringBuilder("publishedDate,title,author,description\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("2021-02-03,\"title, ").append(i).append("\",author,\"line one\nline \"\"two\"\"\"\n");
+        }
+        csv.append("not-a-date,title,author,\n");
+        csv.append("2021-02-03,,author,\n");
+        Files.writeString(directory.resolve("catalog.csv"), csv);
+
+        ImportReport report = importer().importFromDirectory("catalog.csv");
+
+        assertEquals(250, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+    }
+
+    @Test
+    void testImportJsonLines() throws IOException {
+        Files.writeString(directory.resolve("catalog.jsonl"), """
+                {"title": "title-1", "author": "author-1", "publishedDate": "2021-02-03"}
+                {"title": "title-2", "author": "author-2", "publishedDate": "2021-02-04", "imageUrl": "imageUrl-2"}
+                {"title": "broken"
+                """);
+
+        ImportReport report = importer().importFromDirectory("catalog.jsonl");
+
+        assertEquals(2, report.getRowsImported());
+        assertEquals(1, report.getRowsRejected());
+    }
+
+    // On-demand imports must not be able to read files outside the import directory
+    @Test
+    void testRejectsPathOutsideImportDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> importer().importFromDirectory("../secret.csv"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.acme.bookmanagement.config;
+
+import com.acme.bookmanagement.BookManagementApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Load test comparing the platform and virtual thread execution modes, run with ./gradlew loadTest
+// Each mode gets its own application on a random port, with a deliberately small Tomcat pool
+@Tag("load")
+class ExecutionModeLoadTest {
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 500;
+
+    private static final String QUERY = """
+            {"query": "{ findAllBooksWithPagination(page: 0, size: 20, sortField: TITLE, sortOrder: ASC) { content { id title author } } }"}
+            """;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"platform", "virtual"})
+    void shouldServeConcurrentRequests(String mode, TestReporter reporter) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookManagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=50",
+                        "bookmanagement.execution.mode=" + mode,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "logging.level.root=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/graphql"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(QUERY))
+                    .build();
+
+            long[] latencies = new long[REQUESTS];
+            AtomicInteger failures = new AtomicInteger();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    int index = i;
+                    inFlight.acquire();
+                    executor.submit(() -> {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() != 200 || response.body().contains("\"errors\"")) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        } finally {
+                            latencies[index] = System.nanoTime() - sent;
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            // Published with the test results rather than printed, so it shows up in the build's reports
+            reporter.publishEntry(mode, String.format(Locale.ROOT,
+                    "%.0f requests/s, p50 %.1f ms, p99 %.1f ms, %d failures",
+                    REQUESTS * 1e9 / elapsed,
+                    latencies[REQUESTS / 2] / 1e6,
+                    latencies[REQUESTS * 99 / 100] / 1e6,
+                    failures.get()));
+            assertEquals(0, failures.get());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.acme.bookmanagement.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MarkerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SamplingTurboFilterTest {
+    private final LoggerContext context = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    SamplingTurboFilterTest() {
+        filter.setLoggerPrefix("com.acme.bookmanagement");
+        filter.setSampleRate(0.0);
+    }
+
+    // With nothing sampled, only unmarked INFO events of the application's loggers are dropped
+    @Test
+    void testMarkedEventsAreNeverDropped() {
+        Logger application = context.getLogger("com.acme.bookmanagement.catalog.CatalogImporter");
+        Logger other = context.getLogger("org.springframework.web");
+
+        assertEquals(FilterReply.DENY, filter.decide(null, application, Level.INFO, "event", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(MarkerFactory.getMarker(SamplingTurboFilter.ALWAYS),
+                application, Level.INFO, "event", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, application, Level.WARN, "event", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "event", null, null));
+    }
+}
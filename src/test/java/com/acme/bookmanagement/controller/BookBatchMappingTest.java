@@ -0,0 +1,71 @@
+package com.acme.bookmanagement.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Full integration test against the seeded in-memory database
+// Hibernate statistics count every prepared SQL statement, so N+1 regressions fail the test
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureGraphQlTester
+public class BookBatchMappingTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    // Start every test with zeroed counters
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldResolveAuthorsOfAllBooksInOneQueryPerLevel() {
+        this.graphQlTester
+                .documentName("findAllBooksWithAuthors")
+                .execute()
+                .path("findAllBooks[*].authorDetails.name")
+                .entityList(String.class)
+                .hasSizeGreaterThan(1);
+
+        // One SELECT for the books, one IN (...) for their authors
+        // and one IN (...) for the books of those authors, regardless of the number of books
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    // Authors of books created after startup get an author row too
+    @Test
+    void shouldResolveAuthorOfBookCreatedAfterStartup() {
+        Integer id = this.graphQlTester
+                .documentName("createBook")
+                .variable("title", "title-new")
+                .variable("author", "author-new")
+                .variable("publishedDate", "2021-02-03")
+                .execute()
+                .path("createBook.id")
+                .entity(Integer.class)
+                .get();
+
+        this.graphQlTester
+                .documentName("findBookByIdWithAuthor")
+                .variable("id", id)
+                .execute()
+                .path("findBookById.authorDetails.name")
+                .entity(String.class)
+                .isEqualTo("author-new");
+    }
+}
@@ -1,10 +1,22 @@
 package com.acme.bookmanagement.controller;
 
+import com.acme.bookmanagement.cache.CatalogVersion;
+import com.acme.bookmanagement.cache.GraphQlResponseCache;
 import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookConnection;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.BookEdge;
+import com.acme.bookmanagement.model.PageInfo;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.service.AuthorService;
 import com.acme.bookmanagement.service.BookService;
+import com.acme.bookmanagement.store.BookVersionConflictException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.execution.ErrorType;
 import org.springframework.graphql.test.tester.GraphQlTester;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
@@ -16,13 +28,21 @@ import org.springframework.data.domain.Sort.Order;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 // Test class for GraphQL Book Controller using Spring's GraphQlTest
 // This annotation loads only the necessary components for testing GraphQL endpoints
-@GraphQlTest(BookController.class)
+// The resolver executor is imported since the query resolvers run on it,
+// the response cache since the controller reports its statistics
+@GraphQlTest({BookController.class, BookQueryController.class})
+@Import({ResolverExecutor.class, GraphQlResponseCache.class, CatalogVersion.class})
 public class BookControllerTest {
 
     // GraphQlTester provides utilities for testing GraphQL queries
@@ -33,15 +53,19 @@ public class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    // Required by the author batch mappings of the controller
+    @MockBean
+    private AuthorService authorService;
+
     // Test data: Map of sample books used across test cases
-    private final Map<Long, Book> books = Map.of(
-            1L, new Book(1L,
+    private final Map<Integer, Book> books = Map.of(
+            1, new Book(1,
                     "title-1",
                     "author-1",
                     LocalDate.of(2021, 2, 3),
                     "description-1",
                     "imageUrl-1"),
-            2L, new Book(2L,
+            2, new Book(2,
                     "title-2",
                     "author-2",
                     LocalDate.of(2021, 2, 3),
@@ -52,16 +76,17 @@ public class BookControllerTest {
     @Test
     void shouldGetBookById() {
         // Mock the service to return a specific book when findById is called
-        when(this.bookService.findById(1L))
-                .thenReturn(Optional.ofNullable(books.get(1L)));
+        when(this.bookService.findById(1))
+                .thenReturn(Optional.ofNullable(books.get(1)));
 
         // Execute GraphQL query and verify response
         this.graphQlTester
                 .documentName("findBookById")  // References a .graphql file with the query
-                .variable("id", 1L)           // Set query variables
+                .variable("id", 1)            // Set query variables
                 .execute()                    // Run the query
                 .path("findBookById")         // Navigate to response field
-                .matchesJson("""             // Verify exact JSON match
+                // Verify exact JSON match
+                .matchesJson("""
                     {
                         "id": 1,
                         "title": "title-1",
@@ -78,7 +103,7 @@ public class BookControllerTest {
         List<Book> allBooks = books.values().stream()
                 .sorted(Comparator.comparing(Book::getId))
                 .toList();
-        when(this.bookService.findAll())
+        when(this.bookService.findAll(any()))
                 .thenReturn(new ArrayList<>(books.values()));
 
         this.graphQlTester
@@ -109,7 +134,7 @@ public class BookControllerTest {
 
     @Test
     void shouldCreateBook() {
-        Long id = 3L;
+        Integer id = 3;
         String title = "title-3";
         String author = "author-3";
         LocalDate publishedDate = LocalDate.of(2021, 2, 3);
@@ -146,17 +171,60 @@ public class BookControllerTest {
         List<Book> allBooks = books.values().stream()
                 .sorted(Comparator.comparing(Book::getId))
                 .toList();
-        when(this.bookService.deleteById(1L))
-                .thenReturn(1L);
+        when(this.bookService.deleteById(1))
+                .thenReturn(1);
 
         this.graphQlTester
                 .documentName("deleteBook")
-                .variable("id", 1L)
+                .variable("id", 1)
                 .execute()
                 .path("deleteBook")
                 .matchesJson("1");
     }
 
+    // Only the arguments the client passed are handed to the service as changes
+    @Test
+    void shouldUpdateOnlyGivenAttributes() {
+        Book updatedBook = new Book(1, "title-new", "author-1", LocalDate.of(2021, 2, 3));
+        updatedBook.setVersion(4L);
+        when(this.bookService.update(1, 3L, Map.of("title", "title-new")))
+                .thenReturn(Optional.of(updatedBook));
+
+        this.graphQlTester
+                .documentName("updateBook")
+                .variable("id", 1)
+                .variable("version", 3)
+                .variable("title", "title-new")
+                .execute()
+                .path("updateBook")
+                .matchesJson("""
+                    {
+                        "id": 1,
+                        "title": "title-new",
+                        "version": 4
+                    }
+                """);
+    }
+
+    // A stale version is reported as a conflict, not as an internal error
+    @Test
+    void shouldReportVersionConflict() {
+        when(this.bookService.update(eq(1), eq(2L), any()))
+                .thenThrow(new BookVersionConflictException(1, 2L));
+
+        this.graphQlTester
+                .documentName("updateBook")
+                .variable("id", 1)
+                .variable("version", 2)
+                .variable("title", "title-new")
+                .execute()
+                .errors()
+                .expect(error -> "CONFLICT".equals(error.getErrorType().toString()))
+                .verify()
+                .path("updateBook")
+                .valueIsNull();
+    }
+
     @Test
     void shouldGetPaginatedBooks() {
         // Create a Page object with test data and pagination info
@@ -207,4 +275,118 @@ public class BookControllerTest {
                 }
             """);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetBooksWithCursor() {
+        // Mock service to return a single slice; totalCount is not selected so it must not be requested
+        BookConnection connection = new BookConnection(
+            List.of(new BookEdge("cursor-1", books.get(1))),
+            new PageInfo(true, false, "cursor-1", "cursor-1"),
+            null);
+        when(this.bookService.findAllWithCursor(
+            eq(1), eq(null), eq(null), eq(null),
+            eq(SortField.TITLE), eq(SortOrder.ASC),
+            eq(null), eq(null), eq(false)))
+        .thenReturn(connection);
+
+        this.graphQlTester
+            .documentName("findAllBooksWithCursor")
+            .variable("first", 1)
+            .variable("sortField", "TITLE")
+            .variable("sortOrder", "ASC")
+            .execute()
+            .path("findAllBooksWithCursor")
+            .matchesJson("""
+                {
+                    "edges": [
+                        {
+                            "cursor": "cursor-1",
+                            "node": {
+                                "id": 1,
+                                "title": "title-1"
+                            }
+                        }
+                    ],
+                    "pageInfo": {
+                        "hasNextPage": true,
+                        "hasPreviousPage": false,
+                        "startCursor": "cursor-1",
+                        "endCursor": "cursor-1"
+                    }
+                }
+            """);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        // Decode the cursor like the service does, so the real validation error reaches the client
+        when(this.bookService.findAllWithCursor(
+            eq(1), eq("garbage"), eq(null), eq(null),
+            eq(SortField.TITLE), eq(SortOrder.ASC),
+            eq(null), eq(null), eq(false)))
+        .thenAnswer(invocation -> {
+            BookCursor.decode(invocation.getArgument(1));
+            return null;
+        });
+
+        this.graphQlTester
+            .documentName("findAllBooksWithCursor")
+            .variable("first", 1)
+            .variable("after", "garbage")
+            .variable("sortField", "TITLE")
+            .variable("sortOrder", "ASC")
+            .execute()
+            .errors()
+            .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST &&
+                error.getMessage().startsWith("Invalid cursor"))
+            .verify()
+            .path("findAllBooksWithCursor")
+            .valueIsNull();
+    }
+
+    @Test
+    void shouldGetAllBookTitles() {
+        when(this.bookService.findAllTitles())
+                .thenReturn(List.of("title-1", "title-2"));
+
+        this.graphQlTester
+                .documentName("getAllBookTitles")
+                .execute()
+                .path("getAllBookTitles")
+                .matchesJson("""
+                    ["title-1", "title-2"]
+                """);
+    }
+
+    // Root fields of one operation run concurrently: each mocked query waits until the other one has started
+    @Test
+    void shouldResolveRootFieldsConcurrently() {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger overlapping = new AtomicInteger();
+        List<Book> result = List.of(new Book(1, "title-1", "author-1", LocalDate.of(2021, 2, 3)));
+        when(this.bookService.findAllSorted(eq(SortField.PUBLISHED_DATE), eq(SortOrder.DESC), any())).thenAnswer(invocation -> {
+            started.countDown();
+            if (started.await(5, TimeUnit.SECONDS)) {
+                overlapping.incrementAndGet();
+            }
+            return result;
+        });
+        when(this.bookService.findByDateRange(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31)))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    if (started.await(5, TimeUnit.SECONDS)) {
+                        overlapping.incrementAndGet();
+                    }
+                    return result;
+                });
+
+        this.graphQlTester
+                .documentName("dashboard")
+                .execute()
+                .path("findBooksByDateRange[0].title")
+                .entity(String.class)
+                .isEqualTo("title-1");
+
+        assertEquals(2, overlapping.get());
+    }
+}
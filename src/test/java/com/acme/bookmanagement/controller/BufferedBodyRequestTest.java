@@ -0,0 +1,48 @@
+package com.acme.bookmanagement.controller;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BufferedBodyRequestTest {
+    // A non-blocking reader gets the whole buffered body, then the end of the data
+    @Test
+    void testReadListenerReadsWholeBody() throws IOException {
+        ServletInputStream input = new BufferedBodyRequest(new MockHttpServletRequest(),
+                "{\"query\":\"{ books }\"}".getBytes(StandardCharsets.UTF_8)).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        StringBuilder events = new StringBuilder();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.append("data ");
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.append("end");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.append("error");
+            }
+        });
+
+        assertEquals("data end", events.toString());
+        assertEquals("{\"query\":\"{ books }\"}", read.toString(StandardCharsets.UTF_8));
+        assertTrue(input.isFinished());
+    }
+}
@@ -0,0 +1,83 @@
+package com.acme.bookmanagement.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Full integration test over HTTP, since the cache sits in front of the GraphQL handler
+// Uses its own database because one test creates a book
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:http-cache-test")
+public class GraphQlHttpCacheFilterTest {
+    private static final String QUERY = "{ findAllBooksSortedByTitle(ascending: true) { id title } }";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private WebTestClient.ResponseSpec get(String query, String ifNoneMatch) {
+        return webTestClient.get()
+                .uri(uri -> uri.path("/graphql").queryParam("query", "{query}").build(query))
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .exchange();
+    }
+
+    private String etag(String query) {
+        String etag = get(query, null)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.data.findAllBooksSortedByTitle").isArray()
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+        return etag;
+    }
+
+    // A repeated poll with the ETag is answered without a body until the catalog changes
+    @Test
+    void shouldAnswerNotModifiedUntilCatalogChanges() {
+        String etag = etag(QUERY);
+        get(QUERY, etag).expectStatus().isNotModified();
+
+        webTestClient.post()
+                .uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("query", """
+                        mutation { createBook(title: "title-etag", author: "author-etag", publishedDate: "2021-02-03") { id } }
+                        """))
+                .exchange()
+                .expectStatus().isOk();
+
+        get(QUERY, etag).expectStatus().isOk();
+        assertNotEquals(etag, etag(QUERY));
+    }
+
+    // GET must not change anything
+    @Test
+    void shouldRejectMutationsSentWithGet() {
+        get("mutation { deleteBook(id: 1) }", null)
+                .expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED)
+                .expectHeader().valueEquals(HttpHeaders.ALLOW, "POST");
+    }
+
+    // Responses that do not follow the catalog version carry no ETag
+    @Test
+    void shouldNotCacheUncacheableFields() {
+        get("{ cacheStatistics { name } }", null)
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,70 @@
+package com.acme.bookmanagement.controller;
+
+import com.acme.bookmanagement.model.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Full integration test of the R2DBC read path against the seeded in-memory database
+// JPA creates and seeds the schema, R2DBC reads it through its own connection pool
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-test",
+        "bookmanagement.r2dbc.url=r2dbc:pool:h2:mem:///reactive-test?maxSize=2"
+})
+@ActiveProfiles("reactive")
+@AutoConfigureGraphQlTester
+public class ReactiveBookControllerTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    // Every book can be found again by its ID
+    @Test
+    void shouldFindAllBooksAndEachById() {
+        List<Book> books = this.graphQlTester
+                .documentName("findAllBooks")
+                .execute()
+                .path("findAllBooks")
+                .entityList(Book.class)
+                .hasSizeGreaterThan(1)
+                .get();
+
+        Book first = books.get(0);
+        this.graphQlTester
+                .documentName("findBookById")
+                .variable("id", first.getId())
+                .execute()
+                .path("findBookById.title")
+                .entity(String.class)
+                .isEqualTo(first.getTitle());
+    }
+
+    // The subscription emits the catalog in ID order; cancelling after two books stops the stream
+    @Test
+    void shouldStreamBooksToSubscribers() {
+        List<Book> books = this.graphQlTester
+                .documentName("findAllBooks")
+                .execute()
+                .path("findAllBooks")
+                .entityList(Book.class)
+                .get();
+        int firstId = books.stream().mapToInt(Book::getId).min().orElseThrow();
+
+        StepVerifier.create(this.graphQlTester
+                        .documentName("streamAllBooks")
+                        .executeSubscription()
+                        .toFlux("streamAllBooks", Book.class))
+                .assertNext(book -> assertEquals(firstId, book.getId()))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+    }
+}
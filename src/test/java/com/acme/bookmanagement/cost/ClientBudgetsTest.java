@@ -0,0 +1,31 @@
+package com.acme.bookmanagement.cost;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientBudgetsTest {
+    // Refills one unit per second, so the test cannot outrun the budget by accident
+    private final ClientBudgets budgets = new ClientBudgets(100, 1);
+
+    // A client can spend its burst once, then has to wait for the refill
+    @Test
+    void testBudgetIsExhausted() {
+        assertEquals(Duration.ZERO, budgets.tryConsume("client-1", 60));
+
+        Duration retryAfter = budgets.tryConsume("client-1", 60);
+
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(15)) > 0);
+    }
+
+    // One heavy client does not use up the budget of another
+    @Test
+    void testBudgetsArePerClient() {
+        budgets.tryConsume("client-1", 100);
+
+        assertEquals(Duration.ZERO, budgets.tryConsume("client-2", 100));
+    }
+}
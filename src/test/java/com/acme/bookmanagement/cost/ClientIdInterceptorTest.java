@@ -0,0 +1,40 @@
+package com.acme.bookmanagement.cost;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ClientIdInterceptorTest {
+    // Refills one unit per second, so the test cannot outrun the budget by accident
+    private final ClientBudgets budgets = new ClientBudgets(100, 1);
+
+    private MockHttpServletRequest request(String remoteAddress, String clientIdHeader) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("X-Client-Id", clientIdHeader);
+        return request;
+    }
+
+    // A caller that sends a new self-declared ID with every request still spends one budget
+    @Test
+    void testRotatingClientIdHeaderDoesNotResetBudget() {
+        assertEquals(Duration.ZERO,
+                budgets.tryConsume(ClientIdInterceptor.clientId(request("10.0.0.1", "client-1")), 100));
+
+        assertNotEquals(Duration.ZERO,
+                budgets.tryConsume(ClientIdInterceptor.clientId(request("10.0.0.1", "client-2")), 100));
+    }
+
+    // Different addresses are different clients
+    @Test
+    void testClientsAreKeyedOnRemoteAddress() {
+        budgets.tryConsume(ClientIdInterceptor.clientId(request("10.0.0.1", "client-1")), 100);
+
+        assertEquals(Duration.ZERO,
+                budgets.tryConsume(ClientIdInterceptor.clientId(request("10.0.0.2", "client-1")), 100));
+    }
+}
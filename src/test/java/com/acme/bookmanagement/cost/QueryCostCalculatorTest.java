@@ -0,0 +1,71 @@
+package com.acme.bookmanagement.cost;
+
+import com.acme.bookmanagement.cost.QueryCostCalculator.QueryCost;
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryCostCalculatorTest {
+    // 1000 books by 100 authors
+    private static final TableStatistics.Snapshot STATISTICS = new TableStatistics.Snapshot(1000, 100, 0);
+
+    private final GraphQLSchema schema = schema();
+
+    private static GraphQLSchema schema() {
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("graphql/schema.graphqls").getInputStream(), StandardCharsets.UTF_8)) {
+            return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(reader),
+                    RuntimeWiring.MOCKED_WIRING);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private QueryCost estimate(String query, Map<String, Object> variables) {
+        return QueryCostCalculator.estimate(schema, Parser.parse(query), null,
+                CoercedVariables.of(variables), STATISTICS);
+    }
+
+    // An unbounded list is priced by the size of the catalog
+    @Test
+    void testUnboundedListCostsPerBook() {
+        QueryCost cost = estimate("{ findAllBooks { id title } }", Map.of());
+
+        assertEquals(1000 * 3, cost.cost());
+        assertEquals(0, cost.largestPage());
+    }
+
+    // A page is priced by its size, whatever the size of the catalog
+    @Test
+    void testPageCostsPerRequestedItem() {
+        QueryCost cost = estimate("""
+                query ($size: Int!) {
+                    findAllBooksWithPagination(page: 0, size: $size) { content { id } totalElements }
+                }
+                """, Map.of("size", 20));
+
+        assertEquals(1 + 20 * 2 + 1, cost.cost());
+        assertEquals(20, cost.largestPage());
+    }
+
+    // Nested lists multiply: each author has ten books on average
+    @Test
+    void testNestedListsMultiply() {
+        QueryCost cost = estimate("{ findBookById(id: 1) { authorDetails { books { id } } } }", Map.of());
+
+        assertEquals(1 + 1 + 10 * 2, cost.cost());
+    }
+}
@@ -0,0 +1,78 @@
+package com.acme.bookmanagement.cost;
+
+import com.acme.bookmanagement.cost.QueryCostCalculator.QueryCost;
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.repository.BookChangeRepository;
+import com.acme.bookmanagement.store.MappedBookStore;
+import com.acme.bookmanagement.store.VisibilityHorizon;
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TableStatisticsTest {
+    @TempDir
+    Path directory;
+
+    private MappedBookStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.destroy();
+    }
+
+    private static GraphQLSchema schema() {
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("graphql/schema.graphqls").getInputStream(), StandardCharsets.UTF_8)) {
+            return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(reader),
+                    RuntimeWiring.MOCKED_WIRING);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // With the mapped engine the book table stays empty, so the books are counted in the store,
+    // and an unbounded list is still priced by the size of the catalog
+    @Test
+    void testBooksAreCountedInMappedStore() {
+        store = new MappedBookStore(directory.resolve("catalog.books").toString(), 0.5, 1000,
+                Mockito.mock(BookChangeRepository.class), Mockito.mock(PlatformTransactionManager.class),
+                new VisibilityHorizon(), "jdbc:h2:file:" + directory.resolve("catalog"));
+        store.saveAll(List.of(
+                new Book(null, "title-1", "author-1", LocalDate.of(2021, 2, 3)),
+                new Book(null, "title-2", "author-1", LocalDate.of(2021, 2, 4)),
+                new Book(null, "title-3", "author-2", LocalDate.of(2021, 2, 5))));
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(jdbcTemplate.queryForObject(Mockito.anyString(), Mockito.eq(Long.class), Mockito.<Object>any()))
+                .thenReturn(2L);
+
+        TableStatistics.Snapshot statistics = new TableStatistics(store, jdbcTemplate, Duration.ofMinutes(1)).current();
+        QueryCost cost = QueryCostCalculator.estimate(schema(), Parser.parse("{ findAllBooks { id title } }"), null,
+                CoercedVariables.of(Map.of()), statistics);
+
+        assertEquals(3, statistics.books());
+        assertEquals(2, statistics.authors());
+        assertEquals(3 * 3, cost.cost());
+    }
+}
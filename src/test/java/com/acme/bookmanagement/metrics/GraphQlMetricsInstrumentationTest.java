@@ -0,0 +1,52 @@
+package com.acme.bookmanagement.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Full integration test against the seeded in-memory database
+@SpringBootTest
+@AutoConfigureGraphQlTester
+public class GraphQlMetricsInstrumentationTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // The request's SQL statements are recorded under the operation type, the rows under the root field
+    @Test
+    void shouldRecordSqlStatementsAndRowsPerRequest() {
+        int books = this.graphQlTester
+                .documentName("findAllBooksWithAuthors")
+                .execute()
+                .path("findAllBooks")
+                .entityList(Object.class)
+                .get()
+                .size();
+
+        DistributionSummary statements = registry.find("graphql.request.sql.statements")
+                .tag("operation", "query")
+                .summary();
+        assertNotNull(statements);
+        assertTrue(statements.max() >= 3);
+
+        DistributionSummary rows = registry.find("graphql.field.rows").tag("field", "findAllBooks").summary();
+        assertNotNull(rows);
+        assertEquals(books, rows.max());
+        // Operation names are chosen by clients, so they never become tag values
+        assertTrue(registry.find("graphql.request.sql.statements")
+                .tag("operation", "findAllBooksWithAuthors")
+                .meters()
+                .isEmpty());
+    }
+}
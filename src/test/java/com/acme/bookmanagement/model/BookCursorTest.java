@@ -0,0 +1,57 @@
+package com.acme.bookmanagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookCursorTest {
+    // Test data: title contains the separator to make sure it survives encoding
+    private final Book book = new Book(7,
+            "title|with|pipes",
+            "author-1",
+            LocalDate.of(2021, 2, 3));
+
+    // Each sort field should round-trip its own key type
+    @Test
+    void testRoundTripForEverySortField() {
+        assertEquals("title|with|pipes",
+                BookCursor.decode(BookCursor.of(SortField.TITLE, SortOrder.ASC, 0, book).encode()).keyValue());
+        assertEquals("author-1",
+                BookCursor.decode(BookCursor.of(SortField.AUTHOR, SortOrder.ASC, 0, book).encode()).keyValue());
+        assertEquals(LocalDate.of(2021, 2, 3),
+                BookCursor.decode(BookCursor.of(SortField.PUBLISHED_DATE, SortOrder.ASC, 0, book).encode()).keyValue());
+    }
+
+    // Cursors for the unsorted (id only) order carry no key
+    @Test
+    void testRoundTripWithoutSortField() {
+        BookCursor cursor = BookCursor.decode(BookCursor.of(null, SortOrder.ASC, 0, book).encode());
+
+        assertNull(cursor.getSortField());
+        assertNull(cursor.keyValue());
+        assertEquals(7, cursor.getId());
+    }
+
+    // The order and the filters the cursor was issued for survive encoding, and equivalent filters hash alike
+    @Test
+    void testRoundTripOfOrderAndFilters() {
+        int filterHash = BookCursor.filterHash("Demon", null);
+        BookCursor cursor = BookCursor.decode(BookCursor.of(SortField.TITLE, SortOrder.DESC, filterHash, book).encode());
+
+        assertEquals(SortOrder.DESC, cursor.getSortOrder());
+        assertEquals(filterHash, cursor.getFilterHash());
+        assertEquals(filterHash, BookCursor.filterHash("demon", ""));
+        assertNotEquals(filterHash, BookCursor.filterHash(null, "Demon"));
+    }
+
+    // Garbage must be rejected instead of producing a bogus seek predicate
+    @Test
+    void testDecodeRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> BookCursor.decode("not-a-cursor"));
+    }
+}
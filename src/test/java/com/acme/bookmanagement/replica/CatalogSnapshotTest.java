@@ -0,0 +1,72 @@
+package com.acme.bookmanagement.replica;
+
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.replica.CatalogSnapshot.Row;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogSnapshotTest {
+    // Test data: two books share a title and a date, so the ID tiebreak is exercised
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+            row(3, "Beta", "Ann", "2021-02-03"),
+            row(1, "Gamma", "Bob", "2020-01-01"),
+            row(2, "Alpha", "Ann", "2022-05-06"),
+            row(4, "Beta", "Cid", "2021-02-03")));
+
+    private static Row row(int id, String title, String author, String publishedDate) {
+        return new Row(id, title, author, (int) LocalDate.parse(publishedDate).toEpochDay());
+    }
+
+    private int[] ids(int[] positions) {
+        return Arrays.stream(positions).map(snapshot::id).toArray();
+    }
+
+    // Ties are broken by ID in the direction of the sort
+    @Test
+    void testSorted() {
+        assertArrayEquals(new int[]{2, 3, 4, 1}, ids(snapshot.sorted(SortField.TITLE, SortOrder.ASC)));
+        assertArrayEquals(new int[]{1, 4, 3, 2}, ids(snapshot.sorted(SortField.TITLE, SortOrder.DESC)));
+        assertArrayEquals(new int[]{1, 3, 4, 2}, ids(snapshot.sorted(SortField.PUBLISHED_DATE, SortOrder.ASC)));
+    }
+
+    // Both bounds of the range are inclusive
+    @Test
+    void testPublishedBetween() {
+        int[] positions = snapshot.publishedBetween(LocalDate.of(2021, 2, 3), LocalDate.of(2022, 5, 6));
+
+        assertArrayEquals(new int[]{3, 4, 2}, ids(positions));
+    }
+
+    // The total counts every match, the page only the requested ones
+    @Test
+    void testSliceWithFilter() {
+        CatalogSnapshot.Slice slice = snapshot.slice(1, 1, SortField.TITLE, SortOrder.ASC, null, "ANN");
+
+        assertEquals(2, slice.total());
+        assertArrayEquals(new int[]{3}, ids(slice.positions()));
+    }
+
+    // A new snapshot reflects the changes; the old one is left as it was
+    @Test
+    void testWithIsCopyOnWrite() {
+        Map<Integer, Row> changes = new HashMap<>();
+        changes.put(1, null);
+        changes.put(5, row(5, "Aardvark", "Dee", "2019-01-01"));
+
+        CatalogSnapshot changed = snapshot.with(changes);
+
+        assertEquals(4, changed.size());
+        assertEquals(5, changed.book(changed.sorted(SortField.TITLE, SortOrder.ASC)[0]).getId());
+        assertEquals(4, snapshot.size());
+        assertEquals("Gamma", snapshot.book(snapshot.sorted(SortField.TITLE, SortOrder.DESC)[0]).getTitle());
+    }
+}
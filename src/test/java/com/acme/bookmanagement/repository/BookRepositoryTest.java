@@ -5,13 +5,22 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 // This annotation sets up an in-memory database for testing JPA repositories
 // It configures Hibernate, Spring Data, and the DataSource
@@ -76,6 +85,24 @@ public class BookRepositoryTest {
         assertEquals(2, books.size());  // Should find both books containing "god"
     }
 
+    // Test case-insensitive prefix search on the generated lowercase title column
+    @Test
+    void testFindByTitleLowerStartingWith() {
+        List<Book> books = repo.findByTitleLowerStartingWith("the god p", PageRequest.of(0, 10));
+        assertEquals(1, books.size());
+        assertEquals(book2.getId(), books.get(0).getId());
+    }
+
+    // Test loading only the selected attributes; the others stay null
+    @Test
+    void testFindAllProjected() {
+        List<Book> books = repo.findAllProjected(null, Sort.by("title"), Set.of("title"));
+        assertEquals(2, books.size());
+        assertEquals(book1.getId(), books.get(0).getId());
+        assertEquals("The God Father", books.get(0).getTitle());
+        assertNull(books.get(0).getAuthor());
+    }
+
     // Test finding books within a date range
     @Test
     void testFindByDateRange() {
@@ -102,4 +129,44 @@ public class BookRepositoryTest {
         assertEquals("The God Particle", books.get(0).getTitle());  // Should come first (reverse alphabetical)
         assertEquals("The God Father", books.get(1).getTitle());    // Should come second
     }
+
+    // Test that a deleted book is hidden from queries but still reported by the delta sync, as the latest change
+    @Test
+    void testSoftDeletedBookIsOnlyFoundByFindChangedSince() {
+        Book book3 = repo.save(new Book(null, "The God Delusion", "Richard Dawkins", LocalDate.of(2006, 10, 2)));
+        assertEquals(1, repo.softDeleteAllById(List.of(book3.getId()), LocalDateTime.now(ZoneOffset.UTC).plusSeconds(1)));
+
+        assertEquals(2, repo.findByTitleContainingIgnoreCase("god").size());
+
+        List<Book> changed = repo.findChangedSince(LocalDateTime.of(1970, 1, 1, 0, 0), 0, 10);
+        assertEquals(3, changed.size());
+        assertEquals(book3.getId(), changed.get(2).getId());
+        assertTrue(changed.get(2).isDeleted());
+        assertEquals(1L, changed.get(2).getVersion());
+    }
+
+    // Test that a conditional update only applies at the expected version, and only to the given columns
+    @Test
+    void testUpdateIfVersion() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        assertEquals(1, repo.updateIfVersion(book1.getId(), 0, Map.of("title", "title-one"), now));
+        assertEquals(0, repo.updateIfVersion(book1.getId(), 0, Map.of("title", "title-two"), now));
+
+        Book updatedBook = repo.findById(book1.getId()).orElseThrow();
+        assertEquals("title-one", updatedBook.getTitle());
+        assertEquals("Mario Puzo", updatedBook.getAuthor());
+        assertEquals(1L, updatedBook.getVersion());
+
+        // The cleanup must delete the book at its new version
+        book1 = updatedBook;
+    }
+
+    // Test streaming all books in ID order; the test transaction keeps the cursor open
+    @Test
+    void testStreamAllBy() {
+        try (Stream<Book> books = repo.streamAllBy()) {
+            List<Integer> ids = books.map(Book::getId).toList();
+            assertEquals(List.of(book1.getId(), book2.getId()), ids);
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.acme.bookmanagement.search;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.store.BookStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSearchIndexTest {
+    private final BookStore bookStore = Mockito.mock(BookStore.class);
+    private final BookSearchIndex searchIndex = new BookSearchIndex(bookStore);
+
+    // Searches keep seeing the previous index while a rebuild reads the store, and a deletion made
+    // meanwhile is applied after the rebuild instead of being undone by its stale snapshot
+    @Test
+    void testRebuildIsSwappedInAndKeepsConcurrentDeletion() throws Exception {
+        Book demon = new Book(1, "Demon Slayer", "Koyoharu Gotouge", LocalDate.of(2016, 2, 15));
+        searchIndex.onBookSaved(demon);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(bookStore.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(demon);
+        });
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(searchIndex::rebuild);
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1), searchIndex.search("demon", 10));
+        CompletableFuture<Void> deletion = CompletableFuture.runAsync(() -> searchIndex.onBookDeleted(1));
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        deletion.get(5, TimeUnit.SECONDS);
+
+        assertTrue(searchIndex.search("demon", 10).isEmpty());
+    }
+}
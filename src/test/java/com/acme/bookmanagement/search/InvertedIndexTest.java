@@ -0,0 +1,64 @@
+package com.acme.bookmanagement.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+    private final InvertedIndex index = new InvertedIndex();
+
+    // Three documents: "demon" appears in the title of 1 and only in the description of 2
+    @BeforeEach
+    void setUp() {
+        index.put(1, Map.of("demon", 3.0f, "slayer", 3.0f));
+        index.put(2, Map.of("jujutsu", 3.0f, "kaisen", 3.0f, "demon", 1.0f));
+        index.put(3, Map.of("days", 3.0f, "morisaki", 3.0f));
+    }
+
+    // Documents with the higher field weight should rank first
+    @Test
+    void testSearchRanksByWeight() {
+        assertEquals(List.of(1, 2), index.search(List.of("demon"), 10));
+    }
+
+    // The last term is matched as a prefix, earlier terms must match exactly
+    @Test
+    void testLastTermIsPrefix() {
+        assertEquals(List.of(1), index.search(TextAnalyzer.tokenize("Demon sla"), 10));
+        assertTrue(index.search(TextAnalyzer.tokenize("dem slayer"), 10).isEmpty());
+    }
+
+    // A stop word being typed as the last word is kept as a prefix, as it may start a longer word
+    @Test
+    void testLastStopWordIsPrefix() {
+        index.put(4, Map.of("theory", 3.0f, "everything", 3.0f));
+
+        assertEquals(List.of(4), index.search(TextAnalyzer.tokenizeQuery("everything the"), 10));
+        assertEquals(List.of(4), index.search(TextAnalyzer.tokenizeQuery("the theo"), 10));
+        // Once the word is complete it is dropped like any other stop word
+        assertEquals(List.of("everything"), TextAnalyzer.tokenizeQuery("everything the "));
+    }
+
+    // Removing a document must drop it from every posting list
+    @Test
+    void testRemove() {
+        index.remove(1);
+
+        assertEquals(List.of(2), index.search(List.of("demon"), 10));
+        assertEquals(2, index.size());
+    }
+
+    // Re-putting a document replaces its previous terms
+    @Test
+    void testPutReplacesDocument() {
+        index.put(3, Map.of("tokyo", 3.0f));
+
+        assertTrue(index.search(List.of("morisaki"), 10).isEmpty());
+        assertEquals(List.of(3), index.search(List.of("tok"), 10));
+    }
+}
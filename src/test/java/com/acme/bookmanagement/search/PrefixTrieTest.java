@@ -0,0 +1,53 @@
+package com.acme.bookmanagement.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+    private final PrefixTrie trie = new PrefixTrie();
+
+    // Shared prefixes force edge splits; "Gege Akutami" is added twice to outrank the others
+    @BeforeEach
+    void setUp() {
+        trie.add("Gege Akutami");
+        trie.add("Gege Akutami");
+        trie.add("Gene Wolfe");
+        trie.add("George Orwell");
+        trie.add("Koyoharu Gotouge");
+    }
+
+    // More frequent entries come first, ties are alphabetical, matching is case-insensitive
+    @Test
+    void testSuggestRanksByFrequency() {
+        assertEquals(List.of("Gege Akutami", "Gene Wolfe", "George Orwell"), trie.suggest("ge", 10));
+        assertEquals(List.of("Gene Wolfe"), trie.suggest("GENE", 10));
+    }
+
+    // A prefix ending in the middle of an edge still matches
+    @Test
+    void testSuggestWithPrefixInsideEdge() {
+        assertEquals(List.of("George Orwell"), trie.suggest("geor", 10));
+        assertTrue(trie.suggest("gex", 10).isEmpty());
+    }
+
+    // The limit caps the number of suggestions
+    @Test
+    void testSuggestRespectsLimit() {
+        assertEquals(List.of("Gege Akutami"), trie.suggest("g", 1));
+    }
+
+    // Entries disappear once every occurrence has been removed
+    @Test
+    void testRemove() {
+        trie.remove("Gege Akutami");
+        assertEquals(List.of("Gege Akutami", "Gene Wolfe", "George Orwell"), trie.suggest("ge", 10));
+
+        trie.remove("Gege Akutami");
+        assertEquals(List.of("Gene Wolfe", "George Orwell"), trie.suggest("ge", 10));
+    }
+}
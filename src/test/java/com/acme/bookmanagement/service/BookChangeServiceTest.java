@@ -0,0 +1,64 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookChange;
+import com.acme.bookmanagement.model.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Integration test against the database, since the log is written in the book's transaction
+// Uses its own database because the tests write books
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:change-log-test")
+class BookChangeServiceTest {
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookChangeService changeService;
+
+    private long lastSequence() {
+        List<BookChange> changes = changeService.findChangesSince(0, Integer.MAX_VALUE);
+        return changes.isEmpty() ? 0 : changes.get(changes.size() - 1).getSequence();
+    }
+
+    private Book newBook(String title) {
+        return new Book(null, title, "author-log", LocalDate.of(2021, 2, 3));
+    }
+
+    // Every write is logged once, in the order it was made
+    @Test
+    void testWritesAreLoggedInOrder() {
+        long start = lastSequence();
+
+        Book saved = bookService.save(newBook("title-log"));
+        bookService.deleteById(saved.getId());
+
+        List<BookChange> changes = changeService.findChangesSince(start, 10);
+        assertEquals(List.of(ChangeType.UPSERT, ChangeType.DELETE),
+                changes.stream().map(BookChange::getType).toList());
+        assertEquals(List.of(saved.getId(), saved.getId()),
+                changes.stream().map(BookChange::getBookId).toList());
+    }
+
+    // A subscriber resuming from a sequence first gets the changes it missed, then the new ones
+    @Test
+    void testStreamReplaysThenFollows() {
+        long start = lastSequence();
+        Book missed = bookService.save(newBook("title-missed"));
+
+        StepVerifier.create(changeService.streamChangesSince(start).map(BookChange::getBookId))
+                .expectNext(missed.getId())
+                .then(() -> bookService.saveAll(List.of(newBook("title-live-1"), newBook("title-live-2"))))
+                .expectNextCount(2)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+}
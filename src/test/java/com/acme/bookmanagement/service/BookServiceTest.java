@@ -1,29 +1,84 @@
 package com.acme.bookmanagement.service;
 
+import com.acme.bookmanagement.cache.BookCache;
+import com.acme.bookmanagement.cache.BookQueryCache;
+import com.acme.bookmanagement.cache.CatalogVersion;
 import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.repository.BookChangeRepository;
 import com.acme.bookmanagement.repository.BookRepository;
+import com.acme.bookmanagement.search.BookSearchIndex;
+import com.acme.bookmanagement.search.BookSuggester;
+import com.acme.bookmanagement.store.BookBatchWriter;
+import com.acme.bookmanagement.store.BookStore;
+import com.acme.bookmanagement.store.BookVersionConflictException;
+import com.acme.bookmanagement.store.JpaBookStore;
+import com.acme.bookmanagement.store.VisibilityHorizon;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class BookServiceTest {
     // Create a mock of the repository layer to control its behavior in tests
     private final BookRepository bookRepository = Mockito.mock(BookRepository.class);
     
-    // Create the service instance with the mocked repository
-    private final BookService bookService = new BookService(bookRepository);
+    // Catalog version shared by the query cache and the service's listeners
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    // Tracks the writes in flight, shared by the writer and the delta sync
+    private final VisibilityHorizon horizon = new VisibilityHorizon();
+
+    // The JPA storage engine over the mocked repository
+    private final BookStore bookStore = new JpaBookStore(bookRepository,
+            new BookBatchWriter(bookRepository, Mockito.mock(BookChangeRepository.class),
+                    Mockito.mock(PlatformTransactionManager.class), 2, horizon));
+
+    // Create the service instance with the mocked repository and zero-sized caches,
+    // so every call reaches the repository
+    private final BookService bookService = new BookService(bookStore,
+            new BookSearchIndex(bookStore),
+            new BookSuggester(bookStore),
+            new BookCache(0, Duration.ofMinutes(10)),
+            new BookQueryCache(catalogVersion, 0),
+            List.of(catalogVersion),
+            Optional.empty(),
+            horizon);
 
     // Test data: Sample book used across test cases
-    private final Book book = new Book(1L,
+    private final Book book = new Book(1,
             "title-1",
             "author-1",
             LocalDate.of(2021, 2, 3));
 
+    // A cursor is only accepted by the list it was issued for: same sort field, order and filters
+    @Test
+    void testCursorOfAnotherListIsRejected() {
+        String cursor = BookCursor.of(SortField.TITLE, SortOrder.ASC, BookCursor.filterHash(null, "author-1"), book)
+                .encode();
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.findAllWithCursor(1, cursor, null, null,
+                SortField.TITLE, SortOrder.DESC, null, "author-1", false));
+        assertThrows(IllegalArgumentException.class, () -> bookService.findAllWithCursor(1, cursor, null, null,
+                SortField.TITLE, SortOrder.ASC, null, "author-2", false));
+        assertThrows(IllegalArgumentException.class, () -> bookService.findAllWithCursor(1, cursor, null, null,
+                SortField.AUTHOR, SortOrder.ASC, null, "author-1", false));
+    }
+
     // Test the findAll method
     @Test
     void testFindAll() {
@@ -37,12 +92,12 @@ class BookServiceTest {
     // Test the findById method
     @Test
     void testFindById() {
-        // Configure mock: When findById(1L) is called, return our test book
-        Mockito.when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        // Configure mock: When findById(1) is called, return our test book
+        Mockito.when(bookRepository.findById(1)).thenReturn(Optional.of(book));
         
         // Verify that the service returns the correct book
         // orElse(null) is used to handle the Optional return type
-        assertEquals(book, bookService.findById(1L).orElse(null));
+        assertEquals(book, bookService.findById(1).orElse(null));
     }
 
     // Test the save method
@@ -59,9 +114,82 @@ class BookServiceTest {
     @Test
     void testDeleteById() {
         // Call the service method
-        bookService.deleteById(1L);
+        bookService.deleteById(1);
         
-        // Verify that the repository's deleteById was called exactly once with the correct ID
-        Mockito.verify(bookRepository).deleteById(1L);
+        // Verify that the book was turned into a tombstone rather than deleted
+        Mockito.verify(bookRepository).softDeleteAllById(Mockito.eq(List.of(1)), Mockito.any());
+        Mockito.verify(bookRepository, Mockito.never()).deleteById(1);
+    }
+
+    // Test that a conflicting update is reported and not retried
+    @Test
+    void testUpdateWithStaleVersionConflicts() {
+        // Configure mock: no row matches the version, but the book exists
+        Mockito.when(bookRepository.updateIfVersion(Mockito.eq(1), Mockito.eq(2L), Mockito.any(), Mockito.any()))
+                .thenReturn(0);
+        Mockito.when(bookRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(BookVersionConflictException.class,
+                () -> bookService.update(1, 2L, Map.of("title", "title-2")));
+        Mockito.verify(bookRepository, Mockito.times(1)).updateIfVersion(Mockito.eq(1), Mockito.eq(2L), Mockito.any(), Mockito.any());
+    }
+
+    // Test that required attributes cannot be cleared
+    @Test
+    void testUpdateRejectsNullTitle() {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("title", null);
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.update(1, 0L, changes));
+    }
+
+    // Test that sorted results are served from the query cache until the next write
+    @Test
+    void testFindAllSortedIsCachedUntilNextWrite() {
+        // Configure mock: the sorted query and the rehydration by ID both return our test book
+        Mockito.when(bookRepository.findAllByOrderByTitleAsc()).thenReturn(List.of(book));
+        Mockito.when(bookRepository.findAllById(Mockito.any())).thenReturn(List.of(book));
+        Mockito.when(bookRepository.save(book)).thenReturn(book);
+
+        // The second call must be served from the cached IDs
+        assertEquals(List.of(book), bookService.findAllSorted(SortField.TITLE, SortOrder.ASC));
+        assertEquals(List.of(book), bookService.findAllSorted(SortField.TITLE, SortOrder.ASC));
+        Mockito.verify(bookRepository, Mockito.times(1)).findAllByOrderByTitleAsc();
+
+        // A write bumps the catalog version, so the query has to run again
+        bookService.save(book);
+        bookService.findAllSorted(SortField.TITLE, SortOrder.ASC);
+        Mockito.verify(bookRepository, Mockito.times(2)).findAllByOrderByTitleAsc();
+    }
+
+    // Test that bulk saves are split into chunks (chunk size 2 in this test)
+    @Test
+    void testSaveAllWritesInChunks() {
+        Book second = new Book(2, "title-2", "author-2", LocalDate.of(2021, 2, 3));
+        Book third = new Book(3, "title-3", "author-3", LocalDate.of(2021, 2, 3));
+        Mockito.when(bookRepository.saveAll(Mockito.<List<Book>>any()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Book>>getArgument(0)));
+
+        // All books come back in input order
+        assertEquals(List.of(book, second, third), bookService.saveAll(List.of(book, second, third)));
+
+        // Two chunks: [book, second] and [third]
+        Mockito.verify(bookRepository, Mockito.times(2)).saveAll(Mockito.<List<Book>>any());
+    }
+
+    // Test that sorted lists are projected unless the description or image URL is selected
+    @Test
+    void testFindAllSortedProjectsUnlessLargeAttributesAreSelected() {
+        Mockito.when(bookRepository.findAllProjected(Mockito.isNull(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(book));
+        Mockito.when(bookRepository.findAllByOrderByTitleAsc()).thenReturn(List.of(book));
+        Mockito.when(bookRepository.findAllById(Mockito.any())).thenReturn(List.of(book));
+
+        bookService.findAllSorted(SortField.TITLE, SortOrder.ASC, Set.of("id", "title"));
+        Mockito.verify(bookRepository).findAllProjected(Mockito.isNull(), Mockito.any(), Mockito.eq(Set.of("id", "title")));
+        Mockito.verify(bookRepository, Mockito.never()).findAllByOrderByTitleAsc();
+
+        bookService.findAllSorted(SortField.TITLE, SortOrder.ASC, Set.of("id", "description"));
+        Mockito.verify(bookRepository).findAllByOrderByTitleAsc();
     }
 }
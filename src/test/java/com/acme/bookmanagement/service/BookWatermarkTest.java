@@ -0,0 +1,30 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookWatermarkTest {
+    // The change time keeps its microseconds, otherwise books changed in the same second would be skipped
+    @Test
+    void testRoundTrip() {
+        Book book = new Book(7, "title-1", "author-1", LocalDate.of(2021, 2, 3));
+        book.setUpdatedAt(LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_000));
+
+        BookWatermark watermark = BookWatermark.decode(BookWatermark.of(book).encode());
+
+        assertEquals(book.getUpdatedAt(), watermark.getUpdatedAt());
+        assertEquals(7, watermark.getId());
+    }
+
+    // Garbage must be rejected instead of producing a bogus seek predicate
+    @Test
+    void testDecodeRejectsMalformedWatermark() {
+        assertThrows(IllegalArgumentException.class, () -> BookWatermark.decode("not-a-watermark"));
+    }
+}
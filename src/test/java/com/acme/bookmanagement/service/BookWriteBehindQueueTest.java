@@ -0,0 +1,129 @@
+package com.acme.bookmanagement.service;
+
+import com.acme.bookmanagement.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookWriteBehindQueueTest {
+    private final BookService bookService = mock(BookService.class);
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private BookWriteBehindQueue queue;
+
+    private BookWriteBehindQueue queue(Duration flushInterval, int maxBatchRows, int queueCapacity) {
+        queue = new BookWriteBehindQueue(bookService, flushInterval, maxBatchRows, 1000, queueCapacity,
+                Duration.ofMillis(50));
+        return queue;
+    }
+
+    private Book saved(Book book) {
+        return new Book(nextId.getAndIncrement(), book.getTitle(), book.getAuthor(), book.getPublishedDate());
+    }
+
+    private static Book newBook(String title) {
+        return new Book(null, title, "author", LocalDate.of(2021, 2, 3));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.destroy();
+    }
+
+    // Books submitted within one flush interval are written with a single group commit
+    @Test
+    void testSubmitsAreGrouped() throws Exception {
+        when(bookService.saveAll(anyList())).thenAnswer(invocation ->
+                invocation.<List<Book>>getArgument(0).stream().map(this::saved).toList());
+        queue(Duration.ofMillis(500), 3, 10);
+
+        List<CompletableFuture<Book>> futures = IntStream.range(0, 3)
+                .mapToObj(i -> queue.submit(newBook("title-" + i)))
+                .toList();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("title-" + i, futures.get(i).get(5, TimeUnit.SECONDS).getTitle());
+        }
+        verify(bookService, times(1)).saveAll(anyList());
+    }
+
+    // When the group commit fails, each book is retried on its own and only the bad one fails
+    @Test
+    void testFailedGroupFallsBackToSingleSaves() throws Exception {
+        when(bookService.saveAll(anyList())).thenThrow(new IllegalStateException("group failed"));
+        when(bookService.save(any(Book.class))).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            if (book.getTitle().equals("bad")) {
+                throw new IllegalArgumentException("bad book");
+            }
+            return saved(book);
+        });
+        queue(Duration.ofMillis(500), 2, 10);
+
+        CompletableFuture<Book> good = queue.submit(newBook("good"));
+        CompletableFuture<Book> bad = queue.submit(newBook("bad"));
+
+        assertEquals("good", good.get(5, TimeUnit.SECONDS).getTitle());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    // A full queue rejects the submitter once the offer timeout has passed
+    @Test
+    void testFullQueueRejects() throws Exception {
+        CompletableFuture<List<Book>> blocked = new CompletableFuture<>();
+        when(bookService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            blocked.join();
+            return books.stream().map(this::saved).toList();
+        });
+        queue(Duration.ZERO, 1, 1);
+
+        // The first book is taken by the flusher, which then blocks; the second fills the queue
+        CompletableFuture<Book> first = queue.submit(newBook("first"));
+        CompletableFuture<Book> second;
+        do {
+            second = queue.submit(newBook("second"));
+        } while (second.isCompletedExceptionally());
+        CompletableFuture<Book> third = queue.submit(newBook("third"));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> third.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        blocked.complete(List.of());
+        assertEquals("first", first.get(5, TimeUnit.SECONDS).getTitle());
+        assertEquals("second", second.get(5, TimeUnit.SECONDS).getTitle());
+    }
+
+    // Books still queued at shutdown are written before destroy returns; later ones are rejected
+    @Test
+    void testDestroyWritesQueuedBooks() throws Exception {
+        when(bookService.saveAll(anyList())).thenAnswer(invocation ->
+                invocation.<List<Book>>getArgument(0).stream().map(this::saved).toList());
+        queue(Duration.ofSeconds(30), 100, 10);
+
+        CompletableFuture<Book> queued = queue.submit(newBook("queued"));
+        queue.destroy();
+
+        assertEquals("queued", queued.getNow(null).getTitle());
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(ExecutionException.class,
+                () -> queue.submit(newBook("late")).get()).getCause());
+    }
+}
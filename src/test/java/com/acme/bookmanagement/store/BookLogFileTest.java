@@ -0,0 +1,111 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookLogFileTest {
+    @TempDir
+    Path directory;
+
+    private static Book book(int id, String title, long version) {
+        Book book = new Book(id, title, "author", LocalDate.of(2021, 2, 3));
+        book.setVersion(version);
+        book.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(version));
+        return book;
+    }
+
+    // A write that was not committed when the process died is discarded as a whole on reopening
+    @Test
+    void testRecoveryDiscardsUncommittedWrite() throws IOException {
+        Path file = directory.resolve("catalog.books");
+        try (BookLogFile log = new BookLogFile(file)) {
+            log.append(List.of(book(1, "title-1", 0)));
+        }
+        // Simulate a crash halfway through a write of two books: only the first record made it
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int end = 8;
+            while (buffer.getInt(end) != 0) {
+                end += 8 + buffer.getInt(end);
+            }
+            buffer.put(end, BookLogFile.encode(book(1, "title-torn", 1), false));
+            buffer.force();
+        }
+
+        try (BookLogFile log = new BookLogFile(file)) {
+            assertEquals("title-1", log.find(1).getTitle());
+            // The next write goes where the torn one was, and is replayed normally
+            log.append(List.of(book(2, "title-2", 0)));
+        }
+        try (BookLogFile log = new BookLogFile(file)) {
+            assertEquals("title-1", log.find(1).getTitle());
+            assertEquals("title-2", log.find(2).getTitle());
+            assertNull(log.find(3));
+        }
+    }
+
+    // A prepared write is neither read nor replayed until it is committed, and an aborted one never is
+    @Test
+    void testPreparedWriteIsInvisibleUntilCommitted() throws IOException {
+        Path file = directory.resolve("catalog.books");
+        try (BookLogFile log = new BookLogFile(file)) {
+            BookLogFile.Append aborted = log.prepare(List.of(book(1, "title-1", 0), book(2, "title-2", 0)));
+            log.abort(aborted);
+            BookLogFile.Append committed = log.prepare(List.of(book(3, "title-3", 0), book(4, "title-4", 0)));
+
+            assertNull(log.find(3));
+            log.commit(committed);
+            assertEquals("title-4", log.find(4).getTitle());
+            log.prepare(List.of(book(5, "title-5", 0), book(6, "title-6", 0)));
+        }
+        try (BookLogFile log = new BookLogFile(file)) {
+            assertNull(log.find(1));
+            assertEquals("title-3", log.find(3).getTitle());
+            assertNull(log.find(5));
+            assertEquals(2, log.liveCount());
+        }
+    }
+
+    // Compaction keeps the latest record of every book and shrinks the file
+    @Test
+    void testCompactionKeepsLatestRecords() throws IOException {
+        Path file = directory.resolve("catalog.books");
+        try (BookLogFile log = new BookLogFile(file)) {
+            log.append(IntStream.range(0, 50_000).mapToObj(version -> book(1, "title-" + version, version)).toList());
+            log.append(List.of(book(2, "title-2", 0)));
+            long before = Files.size(file);
+            BookLogFile.View old = log.view();
+
+            assertTrue(log.shouldCompact(0.5, 0));
+            log.compact();
+
+            assertTrue(Files.size(file) < before);
+            assertEquals("title-49999", log.find(1).getTitle());
+            // Views taken before the compaction can still be read
+            assertEquals(2, old.slots().size());
+            assertEquals("title-2", old.read(old.slots().stream().filter(slot -> slot.id() == 2).findFirst()
+                    .orElseThrow()).getTitle());
+        }
+        try (BookLogFile log = new BookLogFile(file)) {
+            assertEquals("title-49999", log.find(1).getTitle());
+            assertEquals(49_999L, log.find(1).getVersion());
+            assertEquals(2, log.liveCount());
+        }
+    }
+}
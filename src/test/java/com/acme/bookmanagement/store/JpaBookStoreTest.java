@@ -0,0 +1,89 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookConnection;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.BookEdge;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Integration test against the database, since the seek predicate is only meaningful as SQL
+// Uses its own database because the tests write books; each test filters on an author of its own
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:jpa-store-test")
+class JpaBookStoreTest {
+    @Autowired
+    private BookStore bookStore;
+
+    @Autowired
+    private BookService bookService;
+
+    private List<Book> saveBooks(String author, String... titles) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < titles.length; i++) {
+            books.add(new Book(null, titles[i], author, LocalDate.of(2021, 2, 1 + i)));
+        }
+        return bookService.saveAll(books);
+    }
+
+    private List<Integer> walk(BookFilter filter, SortField sortField, boolean ascending, int sliceSize) {
+        List<Integer> ids = new ArrayList<>();
+        BookCursor position = null;
+        List<Book> slice;
+        do {
+            slice = bookStore.findSlice(filter, sortField, ascending, position, sliceSize);
+            slice.forEach(book -> ids.add(book.getId()));
+            position = slice.isEmpty() ? null : BookCursor.of(sortField, ascending ? SortOrder.ASC : SortOrder.DESC, 0,
+                    slice.get(slice.size() - 1));
+        } while (slice.size() == sliceSize);
+        return ids;
+    }
+
+    // Slices that split a run of equal sort keys continue on the ID, in both directions,
+    // so every book is returned exactly once
+    @Test
+    void testSeekBreaksTiesOnId() {
+        List<Book> saved = saveBooks("author-seek", "title-b", "title-a", "title-b", "title-c", "title-b");
+        BookFilter filter = new BookFilter(null, "author-seek");
+        List<Integer> expected = saved.stream()
+                .sorted(Comparator.comparing(Book::getTitle).thenComparing(Book::getId))
+                .map(Book::getId)
+                .toList();
+
+        assertEquals(expected, walk(filter, SortField.TITLE, true, 2));
+        assertEquals(expected.reversed(), walk(filter, SortField.TITLE, false, 2));
+    }
+
+    // Paging backward from a cursor returns the books just before it, in list order
+    @Test
+    void testBackwardPagingReturnsPrecedingSlice() {
+        saveBooks("author-backward", "title-1", "title-2", "title-3", "title-4", "title-5");
+        List<BookEdge> all = bookService.findAllWithCursor(5, null, null, null,
+                SortField.PUBLISHED_DATE, SortOrder.ASC, null, "author-backward", false).getEdges();
+
+        BookConnection middle = bookService.findAllWithCursor(null, null, 2, all.get(3).getCursor(),
+                SortField.PUBLISHED_DATE, SortOrder.ASC, null, "author-backward", false);
+        assertEquals(List.of("title-2", "title-3"),
+                middle.getEdges().stream().map(edge -> edge.getNode().getTitle()).toList());
+        assertTrue(middle.getPageInfo().isHasPreviousPage());
+        assertTrue(middle.getPageInfo().isHasNextPage());
+
+        BookConnection start = bookService.findAllWithCursor(null, null, 2, middle.getPageInfo().getStartCursor(),
+                SortField.PUBLISHED_DATE, SortOrder.ASC, null, "author-backward", false);
+        assertEquals(List.of("title-1"),
+                start.getEdges().stream().map(edge -> edge.getNode().getTitle()).toList());
+        assertFalse(start.getPageInfo().isHasPreviousPage());
+    }
+}
@@ -0,0 +1,165 @@
+package com.acme.bookmanagement.store;
+
+import com.acme.bookmanagement.model.Book;
+import com.acme.bookmanagement.model.BookCursor;
+import com.acme.bookmanagement.model.SortField;
+import com.acme.bookmanagement.model.SortOrder;
+import com.acme.bookmanagement.repository.BookChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedBookStoreTest {
+    @TempDir
+    Path directory;
+
+    // The change log is mocked; the books are written to a real file
+    private final BookChangeRepository changeRepository = Mockito.mock(BookChangeRepository.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    private MappedBookStore store;
+
+    private MappedBookStore open() {
+        store = new MappedBookStore(directory.resolve("catalog.books").toString(), 0.5, 1000,
+                changeRepository, transactionManager, new VisibilityHorizon(),
+                "jdbc:h2:file:" + directory.resolve("catalog"));
+        return store;
+    }
+
+    private MappedBookStore reopen() throws IOException {
+        store.destroy();
+        return open();
+    }
+
+    private static Book newBook(String title, String author) {
+        return new Book(null, title, author, LocalDate.of(2021, 2, 3), "description of " + title, null);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    // Saved books get IDs and survive closing and reopening the file
+    @Test
+    void testBooksSurviveReopening() throws IOException {
+        List<Book> saved = open().saveAll(List.of(newBook("title-1", "author-1"), newBook("title-2", "author-2")));
+
+        Book reread = reopen().findById(saved.get(1).getId()).orElseThrow();
+
+        assertEquals(List.of(1, 2), saved.stream().map(Book::getId).toList());
+        assertEquals("title-2", reread.getTitle());
+        assertEquals("description of title-2", reread.getDescription());
+        assertEquals(0L, reread.getVersion());
+        assertEquals(2, store.count());
+        // New IDs continue after the ones in the file
+        assertEquals(3, store.save(newBook("title-3", "author-3")).getId());
+    }
+
+    // An update only succeeds at the version it was read at
+    @Test
+    void testUpdateChecksVersion() {
+        Book saved = open().save(newBook("title-1", "author-1"));
+
+        Book updated = store.update(saved.getId(), 0L, Map.of("title", "title-2")).orElseThrow();
+
+        assertEquals("title-2", updated.getTitle());
+        assertEquals("author-1", updated.getAuthor());
+        assertEquals(1L, updated.getVersion());
+        assertThrows(BookVersionConflictException.class,
+                () -> store.update(saved.getId(), 0L, Map.of("title", "title-3")));
+        assertEquals("title-2", store.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    // Deleted books are left out of every read except the delta sync, which returns their tombstones
+    @Test
+    void testDeleteLeavesTombstone() throws IOException {
+        List<Book> saved = open().saveAll(List.of(newBook("title-1", "author-1"), newBook("title-2", "author-2")));
+
+        store.deleteById(saved.get(0).getId());
+        reopen();
+
+        assertTrue(store.findById(saved.get(0).getId()).isEmpty());
+        assertEquals(List.of("title-2"), store.findAll().stream().map(Book::getTitle).toList());
+        List<Book> changed = store.findChangedSince(LocalDateTime.MIN, 0, 10);
+        assertEquals(List.of(saved.get(1).getId(), saved.get(0).getId()), changed.stream().map(Book::getId).toList());
+        assertTrue(changed.get(1).isDeleted());
+        assertFalse(changed.get(0).isDeleted());
+    }
+
+    // Queries filter and sort in memory like the database does, with ties broken by ID
+    @Test
+    void testQueries() {
+        open().saveAll(List.of(newBook("Beta", "Ann"), newBook("alpha", "Bob"), newBook("Beta", "Cid")));
+
+        assertEquals(List.of(2, 1, 3), store.findByTitlePrefix("", 10).stream().map(Book::getId).toList());
+        assertEquals(List.of(3, 2, 1), store.findAllSorted(SortField.AUTHOR, SortOrder.DESC).stream()
+                .map(Book::getId).toList());
+        assertEquals(List.of(1, 3), store.findByTitleContaining("BET").stream().map(Book::getId).toList());
+        assertEquals(2, store.count(new BookFilter("beta", null)));
+    }
+
+    // Slices and pages walk the sort indexes, which follow updates and deletions, with ties broken by ID
+    @Test
+    void testIndexedReadsFollowWrites() {
+        List<Book> saved = open().saveAll(List.of(newBook("b", "x"), newBook("a", "x"), newBook("b", "y"),
+                newBook("c", "x")));
+        store.update(saved.get(3).getId(), 0L, Map.of("title", "a"));
+        store.deleteById(saved.get(1).getId());
+
+        List<Book> first = store.findSlice(new BookFilter(null, "x"), SortField.TITLE, true, null, 1);
+        List<Book> rest = store.findSlice(new BookFilter(null, "x"), SortField.TITLE, true,
+                BookCursor.of(SortField.TITLE, SortOrder.ASC, 0, first.get(0)), 10);
+        assertEquals(List.of(4), first.stream().map(Book::getId).toList());
+        assertEquals(List.of(1), rest.stream().map(Book::getId).toList());
+
+        Page<Book> page = store.findAll(new BookFilter(null, null),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "title")));
+        assertEquals(List.of(4), page.getContent().stream().map(Book::getId).toList());
+        assertEquals(3, page.getTotalElements());
+
+        // The delta sync returns the updated book and the tombstone after the books they were saved with
+        List<Book> changed = store.findChangedSince(saved.get(2).getUpdatedAt(), saved.get(2).getId(), 10);
+        assertEquals(List.of(4, 2), changed.stream().map(Book::getId).toList());
+    }
+
+    // A write whose change log entries fail to commit leaves no book behind, before or after reopening
+    @Test
+    void testFailedChangeLogCommitDiscardsWrite() throws IOException {
+        open().save(newBook("title-1", "author-1"));
+        Mockito.doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(Mockito.any());
+
+        assertThrows(TransactionSystemException.class, () -> store.saveAll(List.of(newBook("title-2", "author-2"), newBook("title-3", "author-3"))));
+
+        assertEquals(List.of("title-1"), store.findAll().stream().map(Book::getTitle).toList());
+        assertEquals(List.of("title-1"), reopen().findAll().stream().map(Book::getTitle).toList());
+    }
+
+    // The change log must outlive restarts as the file does, so an in-memory database is rejected
+    @Test
+    void testRejectsInMemoryChangeLog() {
+        assertThrows(IllegalStateException.class, () -> new MappedBookStore(
+                directory.resolve("catalog.books").toString(), 0.5, 1000, changeRepository, transactionManager,
+                new VisibilityHorizon(), "jdbc:h2:mem:testdb"));
+    }
+}
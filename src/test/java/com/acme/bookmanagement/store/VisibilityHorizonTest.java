@@ -0,0 +1,49 @@
+package com.acme.bookmanagement.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VisibilityHorizonTest {
+    private final VisibilityHorizon horizon = new VisibilityHorizon();
+
+    // A write that began first holds back the entries of one that began later and committed before it
+    @Test
+    void testRunningWriteHoldsBackLaterCommits() {
+        VisibilityHorizon.Write first = horizon.begin();
+        VisibilityHorizon.Write second = horizon.begin();
+        first.logged(1);
+        second.logged(2);
+
+        horizon.end(second);
+        assertEquals(0, horizon.sequenceHorizon());
+        assertEquals(first.changeTime(), horizon.timeHorizon());
+
+        horizon.end(first);
+        assertEquals(2, horizon.sequenceHorizon());
+        assertTrue(horizon.timeHorizon().isAfter(second.changeTime()));
+    }
+
+    // Writes do not wait for each other, and each one gets a later change time
+    @Test
+    void testConcurrentWritesGetIncreasingChangeTimes() {
+        VisibilityHorizon.Write first = horizon.begin();
+        VisibilityHorizon.Write second = horizon.begin();
+
+        assertTrue(second.changeTime().isAfter(first.changeTime()));
+    }
+
+    // Listeners are told after each write has ended, so that subscribers re-read the log
+    @Test
+    void testListenersAreNotifiedWhenWriteEnds() {
+        AtomicInteger advances = new AtomicInteger();
+        horizon.onAdvance(advances::incrementAndGet);
+
+        horizon.end(horizon.begin());
+
+        assertEquals(1, advances.get());
+    }
+}